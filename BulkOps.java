@@ -0,0 +1,285 @@
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * 列(配列・リスト)単位の一括処理.
+ * StringUtilsの各メソッドを列の全要素に適用し、事前に確保した出力配列に結果を書き込む。
+ * 要素数がthreshold以下の場合は呼び出し元スレッドで順に処理し、
+ * それ以上の場合はfork/joinで要素数に応じて分割して並列に処理する。
+ * <pre>
+ * BulkOps bulk = BulkOps.getDefault();
+ * bulk.map(column, out, StringUtils::trim);
+ * bulk.test(column, valid, StringUtils::isHalfSizeInt);
+ * </pre>
+ * (注)処理(op)は複数スレッドから同時に呼ばれるため、スレッドセーフであること
+ */
+public final class BulkOps {
+	/** デフォルトの順次処理の上限要素数 */
+	public static final int DEFAULT_THRESHOLD = 8192;
+	/** デフォルトのインスタンス(共通プール使用) */
+	private static final BulkOps DEFAULT = new BulkOps(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+	/** １スレッドあたりの分割数(負荷の偏りを吸収する) */
+	private static final int SPLITS_PER_THREAD = 4;
+
+	/** 実行するプール */
+	private final ForkJoinPool pool;
+	/** 順次処理の上限要素数 */
+	private final int threshold;
+
+	/**
+	 * コンストラクタ.
+	 * @param pool 実行するプール(nullの場合はException)
+	 * @param threshold 順次処理の上限要素数(1以上)
+	 */
+	public BulkOps(ForkJoinPool pool, int threshold) {
+		if (pool == null || threshold < 1) {
+			throw new RuntimeException("BulkOps()エラー:pool=" + pool + ",threshold=" + threshold);
+		}
+		this.pool = pool;
+		this.threshold = threshold;
+	}
+	/**
+	 * デフォルトのインスタンス取得(共通プール、順次処理の上限はDEFAULT_THRESHOLD).
+	 * @return BulkOps
+	 */
+	public static BulkOps getDefault() {
+		return DEFAULT;
+	}
+
+	//--------------------------------------------------------------------------
+	// 変換
+	//--------------------------------------------------------------------------
+	/**
+	 * 全要素を変換してoutに書き込む.
+	 * @param in 入力(nullの場合はException)
+	 * @param out 出力(inと同じ要素数以上)
+	 * @param op 変換処理(例:StringUtils::trim)
+	 */
+	public <T> void map(String[] in, T[] out, Function<? super String, ? extends T> op) {
+		map(in.length, i -> in[i], out, op);
+	}
+	/**
+	 * 全要素を変換してoutに書き込む.
+	 * @param in 入力(nullの場合はException)
+	 * @param out 出力(inと同じ要素数以上)
+	 * @param op 変換処理(例:StringUtils::trim)
+	 */
+	public <T> void map(List<String> in, T[] out, Function<? super String, ? extends T> op) {
+		map(in.size(), source(in), out, op);
+	}
+	/**
+	 * 全要素を変換してoutに書き込む.
+	 */
+	private <T> void map(int n, IntFunction<String> in, T[] out, Function<? super String, ? extends T> op) {
+		checkLength(n, out.length);
+		run(n, 1, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				out[i] = op.apply(in.apply(i));
+			}
+		});
+	}
+	/**
+	 * 全要素をintに変換してoutに書き込む.
+	 * @param in 入力(nullの場合はException)
+	 * @param out 出力(inと同じ要素数以上)
+	 * @param op 変換処理(例:s -&gt; DateEngine.parseYYYYMMDD(s, 0))
+	 */
+	public void mapToInt(String[] in, int[] out, ToIntFunction<? super String> op) {
+		mapToInt(in.length, i -> in[i], out, op);
+	}
+	/**
+	 * 全要素をintに変換してoutに書き込む.
+	 * @param in 入力(nullの場合はException)
+	 * @param out 出力(inと同じ要素数以上)
+	 * @param op 変換処理
+	 */
+	public void mapToInt(List<String> in, int[] out, ToIntFunction<? super String> op) {
+		mapToInt(in.size(), source(in), out, op);
+	}
+	/**
+	 * 全要素をintに変換してoutに書き込む.
+	 */
+	private void mapToInt(int n, IntFunction<String> in, int[] out, ToIntFunction<? super String> op) {
+		checkLength(n, out.length);
+		run(n, 1, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				out[i] = op.applyAsInt(in.apply(i));
+			}
+		});
+	}
+
+	//--------------------------------------------------------------------------
+	// チェック
+	//--------------------------------------------------------------------------
+	/**
+	 * 全要素をチェックしてoutに書き込む.
+	 * @param in 入力(nullの場合はException)
+	 * @param out 結果(inと同じ要素数以上)
+	 * @param op チェック処理(例:StringUtils::isHalfSizeInt)
+	 * @return チェックOKの要素数
+	 */
+	public int test(String[] in, boolean[] out, Predicate<? super String> op) {
+		return test(in.length, i -> in[i], out, op);
+	}
+	/**
+	 * 全要素をチェックしてoutに書き込む.
+	 * @param in 入力(nullの場合はException)
+	 * @param out 結果(inと同じ要素数以上)
+	 * @param op チェック処理(例:StringUtils::isHalfSizeInt)
+	 * @return チェックOKの要素数
+	 */
+	public int test(List<String> in, boolean[] out, Predicate<? super String> op) {
+		return test(in.size(), source(in), out, op);
+	}
+	/**
+	 * 全要素をチェックしてoutに書き込む.
+	 */
+	private int test(int n, IntFunction<String> in, boolean[] out, Predicate<? super String> op) {
+		checkLength(n, out.length);
+		run(n, 1, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				out[i] = op.test(in.apply(i));
+			}
+		});
+		int rtn = 0;
+		for (int i = 0; i < n; i++) {
+			if (out[i]) {
+				rtn++;
+			}
+		}
+		return rtn;
+	}
+	/**
+	 * 全要素をチェックしてビット列(java.util.BitSet.valueOf()と同じ形式)に書き込む.
+	 * 要素iの結果はbits[i / 64]の(i % 64)ビット目。
+	 * @param in 入力(nullの場合はException)
+	 * @param bits 結果(要素数/64の切り上げ以上の長さ)
+	 * @param op チェック処理(例:StringUtils::isYYYYMMDD)
+	 * @return チェックOKの要素数
+	 */
+	public int test(String[] in, long[] bits, Predicate<? super String> op) {
+		return test(in.length, i -> in[i], bits, op);
+	}
+	/**
+	 * 全要素をチェックしてビット列に書き込む.
+	 * @param in 入力(nullの場合はException)
+	 * @param bits 結果(要素数/64の切り上げ以上の長さ)
+	 * @param op チェック処理
+	 * @return チェックOKの要素数
+	 */
+	public int test(List<String> in, long[] bits, Predicate<? super String> op) {
+		return test(in.size(), source(in), bits, op);
+	}
+	/**
+	 * 全要素をチェックしてビット列に書き込む.
+	 */
+	private int test(int n, IntFunction<String> in, long[] bits, Predicate<? super String> op) {
+		checkLength((n + 63) >>> 6, bits.length);
+		//64要素単位で分割し、スレッド間で同じ語に書き込まない
+		run(n, 64, (from, to) -> {
+			for (int w = from >>> 6; w << 6 < to; w++) {
+				long word = 0;
+				int end = Math.min(to, (w + 1) << 6);
+				for (int i = w << 6; i < end; i++) {
+					if (op.test(in.apply(i))) {
+						word |= 1L << i;
+					}
+				}
+				bits[w] = word;
+			}
+		});
+		int rtn = 0;
+		for (int w = 0; w < (n + 63) >>> 6; w++) {
+			rtn += Long.bitCount(bits[w]);
+		}
+		return rtn;
+	}
+
+	//--------------------------------------------------------------------------
+	// 分割実行
+	//--------------------------------------------------------------------------
+	/**
+	 * 範囲の処理.
+	 */
+	private interface RangeAction {
+		/**
+		 * 範囲を処理する.
+		 * @param from 開始インデックス (この値を含む)
+		 * @param to 終了インデックス (この値を含まない)
+		 */
+		void apply(int from, int to);
+	}
+	/**
+	 * 0～nを分割して実行.
+	 * @param n 要素数
+	 * @param align 分割位置の倍数
+	 * @param action 範囲の処理
+	 */
+	private void run(int n, int align, RangeAction action) {
+		if (n <= threshold) {
+			action.apply(0, n);
+			return;
+		}
+		//要素数とスレッド数から１タスクの要素数を決める
+		int leaf = Math.max(threshold, n / (pool.getParallelism() * SPLITS_PER_THREAD));
+		leaf = (leaf + align - 1) / align * align;
+		pool.invoke(new RangeTask(action, 0, n, leaf, align));
+	}
+	/**
+	 * 範囲を二分割して並列に処理するタスク.
+	 */
+	private static final class RangeTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		/** 範囲の処理 */
+		private final transient RangeAction action;
+		/** 開始インデックス (この値を含む) */
+		private final int from;
+		/** 終了インデックス (この値を含まない) */
+		private final int to;
+		/** これ以下の要素数は分割しない */
+		private final int leaf;
+		/** 分割位置の倍数 */
+		private final int align;
+
+		RangeTask(RangeAction action, int from, int to, int leaf, int align) {
+			this.action = action;
+			this.from = from;
+			this.to = to;
+			this.leaf = leaf;
+			this.align = align;
+		}
+		@Override
+		protected void compute() {
+			if (to - from <= leaf) {
+				action.apply(from, to);
+				return;
+			}
+			int mid = from + (((to - from) >>> 1) + align - 1) / align * align;
+			invokeAll(new RangeTask(action, from, mid, leaf, align), new RangeTask(action, mid, to, leaf, align));
+		}
+	}
+	/**
+	 * 出力の長さチェック.
+	 */
+	private static void checkLength(int required, int actual) {
+		if (actual < required) {
+			throw new RuntimeException("出力の長さが不足しています。必要=" + required + ",長さ=" + actual);
+		}
+	}
+	/**
+	 * リストの要素取得関数(RandomAccessでない場合のみ配列にコピー).
+	 */
+	private static IntFunction<String> source(List<String> in) {
+		if (in instanceof RandomAccess) {
+			return in::get;
+		}
+		String[] array = in.toArray(new String[in.size()]);
+		return i -> array[i];
+	}
+}
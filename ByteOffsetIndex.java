@@ -0,0 +1,280 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 文字列のバイトオフセット索引.
+ * 同じ長い文字列に対してsubstringByte/cutStringByteを繰り返す場合に、一度だけ索引を作成して
+ * 先頭からの再走査を省く。バイト長はStringUtils.byteLength(char)で計算する。
+ * <p>
+ * 索引はstride文字毎のチェックポイント(int[])と、任意で各文字のチェックポイントからの
+ * 相対バイト位置(char[]、１文字2バイト)からなる。
+ * <ul>
+ * <li>密(dense):文字→バイトはO(1)、バイト→文字はO(log n)</li>
+ * <li>疎(sparse):相対バイト位置を持たず、チェックポイントから最大stride文字を走査する</li>
+ * </ul>
+ * 長い文字列はfork/joinで並列に作成する。インスタンスは不変なので複数スレッドで共有できる。
+ */
+public final class ByteOffsetIndex {
+	/** デフォルトのチェックポイント間隔(文字数) */
+	public static final int DEFAULT_STRIDE = 64;
+	/** チェックポイント間隔の最大値(相対バイト位置がcharに収まる範囲) */
+	private static final int MAX_STRIDE = 16384;
+	/** 並列で作成する最小文字数 */
+	private static final int PARALLEL_THRESHOLD = 1 << 18;
+	/** 並列作成時の１タスクの文字数 */
+	private static final int TASK_CHARS = 1 << 16;
+
+	/** 対象文字列 */
+	private final String s;
+	/** チェックポイント間隔のシフト数(間隔＝1 << shift) */
+	private final int shift;
+	/** チェックポイント(ブロックkの開始バイト位置、末尾は全体のバイト長) */
+	private final int[] base;
+	/** 各文字のブロック開始からの相対バイト位置(疎の場合はnull) */
+	private final char[] rel;
+
+	/**
+	 * コンストラクタ(of()から生成する).
+	 */
+	private ByteOffsetIndex(String s, int shift, boolean dense) {
+		this.s = s;
+		this.shift = shift;
+		int len = s.length();
+		int blocks = (len + (1 << shift) - 1) >>> shift;
+		this.base = new int[blocks + 1];
+		this.rel = dense ? new char[len] : null;
+		//ブロック毎のバイト長をbase[k + 1]に格納
+		if (len >= PARALLEL_THRESHOLD) {
+			ForkJoinPool.commonPool().invoke(new BuildTask(this, 0, blocks));
+		} else {
+			build(0, blocks);
+		}
+		//累積してブロック開始バイト位置に変換
+		for (int k = 0; k < blocks; k++) {
+			base[k + 1] += base[k];
+		}
+	}
+	/**
+	 * 密な索引を作成(チェックポイント間隔はDEFAULT_STRIDE).
+	 * @param s 入力文字列(nullの場合はException)
+	 * @return 索引
+	 */
+	public static ByteOffsetIndex of(String s) {
+		return of(s, DEFAULT_STRIDE, true);
+	}
+	/**
+	 * 索引を作成.
+	 * @param s 入力文字列(nullの場合はException)
+	 * @param stride チェックポイント間隔(文字数、2のべき乗で1～16384)
+	 * @param dense true:各文字の相対バイト位置を持つ(１文字2バイト)、false:チェックポイントのみ
+	 * @return 索引
+	 */
+	public static ByteOffsetIndex of(String s, int stride, boolean dense) {
+		if (s == null || stride < 1 || stride > MAX_STRIDE || Integer.bitCount(stride) != 1) {
+			throw new RuntimeException("索引作成エラー:stride=" + stride + ",s=" + (s == null ? "null" : "[...]"));
+		}
+		return new ByteOffsetIndex(s, Integer.numberOfTrailingZeros(stride), dense);
+	}
+	/**
+	 * ブロックfrom～toのバイト長をbase[k + 1]に格納し、密の場合は相対バイト位置を格納.
+	 */
+	private void build(int fromBlock, int toBlock) {
+		int len = s.length();
+		for (int k = fromBlock; k < toBlock; k++) {
+			int begin = k << shift;
+			int end = Math.min(len, begin + (1 << shift));
+			if (rel == null) {
+				base[k + 1] = ByteWidthKernel.byteLength(s, begin, end);
+				continue;
+			}
+			int bytes = 0;
+			for (int i = begin; i < end; i++) {
+				rel[i] = (char) bytes;
+				bytes += StringUtils.byteLength(s.charAt(i));
+			}
+			base[k + 1] = bytes;
+		}
+	}
+	/**
+	 * 対象文字列取得.
+	 * @return 対象文字列
+	 */
+	public String getString() {
+		return s;
+	}
+	/**
+	 * 文字数取得.
+	 * @return 文字数
+	 */
+	public int length() {
+		return s.length();
+	}
+	/**
+	 * バイト長取得.
+	 * @return 全体のバイト長
+	 */
+	public int byteLength() {
+		return base[base.length - 1];
+	}
+	/**
+	 * 範囲のバイト長取得.
+	 * @param beginIndex 開始インデックス (この値を含む)
+	 * @param endIndex 終了インデックス (この値を含まない)
+	 * @return バイト長
+	 */
+	public int byteLength(int beginIndex, int endIndex) {
+		return byteOffset(endIndex) - byteOffset(beginIndex);
+	}
+	/**
+	 * 文字インデックス->バイトオフセット変換.
+	 * @param charIndex 文字インデックス(0～length())
+	 * @return バイトオフセット
+	 */
+	public int byteOffset(int charIndex) {
+		if (charIndex < 0 || charIndex > s.length()) {
+			throw new StringIndexOutOfBoundsException(charIndex);
+		}
+		if (charIndex == s.length()) {
+			return byteLength();
+		}
+		int k = charIndex >>> shift;
+		if (rel != null) {
+			return base[k] + rel[charIndex];
+		}
+		return base[k] + ByteWidthKernel.byteLength(s, k << shift, charIndex);
+	}
+	/**
+	 * バイトオフセット->文字インデックス変換.
+	 * @param byteOffset バイトオフセット
+	 * @return 文字インデックス(文字境界でない又は範囲外の場合は-1)
+	 */
+	public int charIndex(int byteOffset) {
+		if (byteOffset < 0 || byteOffset > byteLength()) {
+			return -1;
+		}
+		int rtn = floorCharIndex(byteOffset);
+		return byteOffset(rtn) == byteOffset ? rtn : -1;
+	}
+	/**
+	 * バイトオフセット以下の最後の文字境界の文字インデックス取得.
+	 * @param byteOffset バイトオフセット
+	 * @return 文字インデックス(byteOffsetが負の場合は0)
+	 */
+	public int floorCharIndex(int byteOffset) {
+		int len = s.length();
+		if (byteOffset >= byteLength()) {
+			return len;
+		}
+		if (byteOffset <= 0) {
+			return 0;
+		}
+		//base[k] <= byteOffset となる最後のブロックを二分探索
+		int lo = 0;
+		int hi = base.length - 2;
+		while (lo < hi) {
+			int mid = (lo + hi + 1) >>> 1;
+			if (base[mid] <= byteOffset) {
+				lo = mid;
+			} else {
+				hi = mid - 1;
+			}
+		}
+		int begin = lo << shift;
+		int end = Math.min(len, begin + (1 << shift));
+		int target = byteOffset - base[lo];
+		if (rel != null) {
+			//ブロック内を二分探索
+			int l = begin;
+			int h = end - 1;
+			while (l < h) {
+				int mid = (l + h + 1) >>> 1;
+				if (rel[mid] <= target) {
+					l = mid;
+				} else {
+					h = mid - 1;
+				}
+			}
+			return l;
+		}
+		//ブロック内を走査
+		int bytes = 0;
+		for (int i = begin; i < end; i++) {
+			bytes += StringUtils.byteLength(s.charAt(i));
+			if (bytes > target) {
+				return i;
+			}
+		}
+		return end;
+	}
+	/**
+	 * バイトオフセットによる部分文字列取得(StringUtils.substringByteと同じ結果).
+	 * (注)指定オフセットが文字境界でない場合、例外発生
+	 * @param beginByteIndex 開始インデックス (この値を含む)
+	 * @param endByteIndex 終了インデックス (この値を含まない)
+	 * @return 部分文字列
+	 */
+	public String substringByte(int beginByteIndex, int endByteIndex) {
+		int wBeginIndex = charIndex(beginByteIndex);
+		int wEndIndex = charIndex(endByteIndex);
+		//エラーチェック
+		if (wBeginIndex < 0 || wEndIndex < 0) {
+			throw StringUtilsException.notBoundary(beginByteIndex, endByteIndex, s.length());
+		}
+		return s.substring(wBeginIndex, wEndIndex);
+	}
+	/**
+	 * バイトオフセットによる部分文字列取得(StringUtils.trySubstringByteと同じ結果).
+	 * 指定オフセットが文字境界でない場合・範囲が不正な場合は、例外を発生せずにnullを返す(以外はsubstringByteと同じ)
+	 * @param beginByteIndex 開始インデックス (この値を含む)
+	 * @param endByteIndex 終了インデックス (この値を含まない)
+	 * @return 部分文字列(null時、取得できない)
+	 */
+	public String trySubstringByte(int beginByteIndex, int endByteIndex) {
+		if (beginByteIndex > endByteIndex) {
+			return null;
+		}
+		int wBeginIndex = charIndex(beginByteIndex);
+		int wEndIndex = charIndex(endByteIndex);
+		if (wBeginIndex < 0 || wEndIndex < 0) {
+			return null;
+		}
+		return s.substring(wBeginIndex, wEndIndex);
+	}
+	/**
+	 * 指定バイト長で文字列をカット(StringUtils.cutStringByteと同じ結果).
+	 * バイト長境界が文字境界でない場合(多バイト文字の場合)、直前の文字境界でカット。
+	 * @param byteLength バイト長
+	 * @return カット後文字列
+	 */
+	public String cutStringByte(int byteLength) {
+		return s.substring(0, floorCharIndex(byteLength));
+	}
+
+	/**
+	 * 並列作成タスク.
+	 */
+	private static final class BuildTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		/** 作成中の索引 */
+		private final transient ByteOffsetIndex index;
+		/** 開始ブロック(この値を含む) */
+		private final int fromBlock;
+		/** 終了ブロック(この値を含まない) */
+		private final int toBlock;
+
+		BuildTask(ByteOffsetIndex index, int fromBlock, int toBlock) {
+			this.index = index;
+			this.fromBlock = fromBlock;
+			this.toBlock = toBlock;
+		}
+		@Override
+		protected void compute() {
+			if (((long) (toBlock - fromBlock) << index.shift) <= TASK_CHARS) {
+				index.build(fromBlock, toBlock);
+				return;
+			}
+			int mid = (fromBlock + toBlock) >>> 1;
+			invokeAll(new BuildTask(index, fromBlock, mid), new BuildTask(index, mid, toBlock));
+		}
+	}
+}
@@ -0,0 +1,71 @@
+/**
+ * バイト長計算のカーネル.
+ * jdk.incubator.vectorモジュールが利用可能な場合はByteWidthVector(SIMD)で、
+ * 利用できない場合はByteWidthModel.LEGACY_WIDTHSの表で１文字ずつ計算する。
+ * どちらもStringUtils.byteLength(char)と同じ結果となる。
+ * (注)SIMDを使う場合は実行時に --add-modules jdk.incubator.vector を指定する
+ */
+final class ByteWidthKernel {
+	/** コンストラクタ(全てstaticメソッドのクラスなのでインスタンス化なし) */
+	private ByteWidthKernel() {
+	}
+	/** true:SIMDで計算 */
+	private static final boolean VECTOR = vectorAvailable();
+	/** SIMDで計算する最小文字数(これより短い場合は１文字ずつ処理) */
+	private static final int MIN_VECTOR_LENGTH = 64;
+
+	/**
+	 * jdk.incubator.vectorモジュールの利用可否判断.
+	 * @return true:利用可
+	 */
+	private static boolean vectorAvailable() {
+		if (!ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+			return false;
+		}
+		try {
+			return ByteWidthVector.lanes() > 1;
+		} catch (LinkageError e) {
+			return false;
+		}
+	}
+	/**
+	 * 範囲のバイト長取得.
+	 * @param s 入力文字列
+	 * @param begin 開始インデックス (この値を含む)
+	 * @param end 終了インデックス (この値を含まない)
+	 * @return バイト長
+	 */
+	static int byteLength(String s, int begin, int end) {
+		if (VECTOR && end - begin >= MIN_VECTOR_LENGTH) {
+			return ByteWidthVector.byteLength(s, begin, end);
+		}
+		byte[] t = ByteWidthModel.LEGACY_WIDTHS;
+		int rtn = 0;
+		for (int i = begin; i < end; i++) {
+			rtn += t[s.charAt(i)];
+		}
+		return rtn;
+	}
+	/**
+	 * 指定バイト長でカットする文字インデックス取得.
+	 * バイト長境界が文字境界でない場合(多バイト文字の場合)、直前の文字境界。
+	 * @param s 入力文字列
+	 * @param byteLength バイト長
+	 * @return カット位置の文字インデックス(この値を含まない)
+	 */
+	static int cutIndex(String s, int byteLength) {
+		int len = s.length();
+		if (VECTOR && len >= MIN_VECTOR_LENGTH) {
+			return ByteWidthVector.cutIndex(s, byteLength);
+		}
+		byte[] t = ByteWidthModel.LEGACY_WIDTHS;
+		int wByteLength = 0;
+		for (int i = 0; i < len; i++) {
+			wByteLength += t[s.charAt(i)];
+			if (wByteLength > byteLength) {
+				return i;
+			}
+		}
+		return len;
+	}
+}
@@ -0,0 +1,372 @@
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * 文字毎のバイト長のモデル.
+ * 全てのchar(64K)のバイト長の表を持ち、１文字のバイト長は表の参照のみで求める。
+ * サロゲートペアは2文字でpairWidth、対のないサロゲートはloneWidthとする。
+ * StringUtilsの*Byteメソッドにモデルを指定して、出力先の文字セットに合わせたバイト長で処理する。
+ * <ul>
+ * <li>LEGACY:StringUtils.byteLength(char)と同じ(ASCII・¥・‾・半角カナは1、以外は2)</li>
+ * <li>MS932・EUC_JP:文字セットでエンコードした場合のバイト長(表は初回使用時に作成)</li>
+ * <li>UTF_8:UTF-8でエンコードした場合のバイト長</li>
+ * </ul>
+ * <pre>
+ * String s = StringUtils.rPadByte(in, 20, ' ', ByteWidthModel.UTF_8);
+ * </pre>
+ */
+public final class ByteWidthModel {
+	/** 表の大きさ(全てのchar) */
+	private static final int TABLE_SIZE = Character.MAX_VALUE + 1;
+
+	/** LEGACYの表(サロゲートも2、0なし。１文字ずつの計算で直接参照する) */
+	static final byte[] LEGACY_WIDTHS = legacyTable();
+
+	/** 従来(StringUtils.byteLength(char))と同じ */
+	public static final ByteWidthModel LEGACY = new ByteWidthModel("LEGACY", LEGACY_WIDTHS, 4, 2, null);
+	/** MS932(windows-31j) */
+	public static final ByteWidthModel MS932 = new ByteWidthModel(EncodedLength.MS932);
+	/** EUC-JP */
+	public static final ByteWidthModel EUC_JP = new ByteWidthModel(EncodedLength.EUC_JP);
+	/** UTF-8 */
+	public static final ByteWidthModel UTF_8 = new ByteWidthModel("UTF-8", utf8Table(), 4, 1, null);
+
+	/** モデル名 */
+	private final String name;
+	/** 文字毎のバイト長(0:サロゲート、文字セットのモデルはnull) */
+	private final byte[] widths;
+	/** 文字セットのモデルの文字毎のバイト長(初回使用時に作成) */
+	private volatile byte[] lazyWidths;
+	/** サロゲートペアのバイト長 */
+	private final int pairWidth;
+	/** 対のないサロゲートのバイト長 */
+	private final int loneWidth;
+	/** true:全ての文字が1バイト以上(文字数＞＝バイト長での判断が可能) */
+	private final boolean minOne;
+	/** 表の作成元(文字セットのモデルの場合) */
+	private final EncodedLength encoded;
+
+	/**
+	 * コンストラクタ.
+	 * @param name モデル名
+	 * @param widths 文字毎のバイト長(0:サロゲート、文字セットのモデルの場合はnull)
+	 * @param pairWidth サロゲートペアのバイト長
+	 * @param loneWidth 対のないサロゲートのバイト長
+	 * @param encoded 表の作成元(文字セットのモデルの場合)
+	 */
+	private ByteWidthModel(String name, byte[] widths, int pairWidth, int loneWidth, EncodedLength encoded) {
+		this.name = name;
+		this.widths = widths;
+		this.pairWidth = pairWidth;
+		this.loneWidth = loneWidth;
+		this.encoded = encoded;
+		// 文字セットの場合、サロゲート以外は置換文字を含めて1バイト以上
+		this.minOne = pairWidth >= 2 && loneWidth >= 1 && (widths == null || minWidth(widths) >= 1);
+	}
+	/**
+	 * コンストラクタ(文字セットのモデル).
+	 * @param encoded 表の作成元
+	 */
+	private ByteWidthModel(EncodedLength encoded) {
+		this(encoded.charset().name(), null, encoded.pairLength(), encoded.loneLength(), encoded);
+	}
+	/**
+	 * 任意のモデル生成.
+	 * @param name モデル名
+	 * @param widths 文字毎のバイト長(要素数65536、サロゲートの値は無視、コピーして保持)
+	 * @param pairWidth サロゲートペアのバイト長
+	 * @param loneWidth 対のないサロゲートのバイト長
+	 * @return モデル
+	 */
+	public static ByteWidthModel of(String name, byte[] widths, int pairWidth, int loneWidth) {
+		if (widths.length != TABLE_SIZE) {
+			throw new RuntimeException("ByteWidthModel.of()エラー:widths.length=" + widths.length);
+		}
+		byte[] t = widths.clone();
+		for (int c = Character.MIN_SURROGATE; c <= Character.MAX_SURROGATE; c++) {
+			t[c] = 0;
+		}
+		for (int c = 0; c < TABLE_SIZE; c++) {
+			if (t[c] < 0 || (t[c] == 0 && !Character.isSurrogate((char) c))) {
+				throw new RuntimeException("ByteWidthModel.of()エラー:widths[" + c + "]=" + t[c]);
+			}
+		}
+		if (pairWidth < 1 || loneWidth < 1) {
+			throw new RuntimeException("ByteWidthModel.of()エラー:pairWidth=" + pairWidth + ",loneWidth=" + loneWidth);
+		}
+		return new ByteWidthModel(name, t, pairWidth, loneWidth, null);
+	}
+	/**
+	 * 文字セットのモデル取得.
+	 * (注)文字毎のバイト長の合計がエンコード後のバイト長となる文字セットのみ(UTF-8、MS932、EUC-JP)
+	 * @param cs 文字セット
+	 * @return モデル
+	 */
+	public static ByteWidthModel forCharset(Charset cs) {
+		if (cs.equals(UTF_8.charset())) {
+			return UTF_8;
+		} else if (cs.equals(MS932.charset())) {
+			return MS932;
+		} else if (cs.equals(EUC_JP.charset())) {
+			return EUC_JP;
+		}
+		throw new RuntimeException("ByteWidthModel.forCharset()エラー:未対応の文字セット=" + cs.name());
+	}
+	/**
+	 * モデル名取得.
+	 * @return モデル名
+	 */
+	public String name() {
+		return name;
+	}
+	/**
+	 * 文字セット取得.
+	 * @return 文字セット(LEGACY、任意のモデルはnull)
+	 */
+	private Charset charset() {
+		if (encoded != null) {
+			return encoded.charset();
+		}
+		return this == UTF_8 ? EncodedLength.UTF_8.charset() : null;
+	}
+
+	//--------------------------------------------------------------------------
+	// バイト長
+	//--------------------------------------------------------------------------
+	/**
+	 * １文字のバイト長取得.
+	 * @param c 入力文字(サロゲートの場合は対のないサロゲートのバイト長)
+	 * @return バイト長
+	 */
+	public int width(char c) {
+		int w = table()[c];
+		return w == 0 ? loneWidth : w;
+	}
+	/**
+	 * 文字列のバイト長取得.
+	 * @param s 入力文字列(nullの場合はException)
+	 * @return バイト長
+	 */
+	public int length(String s) {
+		return length(s, 0, s.length());
+	}
+	/**
+	 * 範囲のバイト長取得.
+	 * @param s 入力文字列
+	 * @param begin 開始インデックス (この値を含む)
+	 * @param end 終了インデックス (この値を含まない)
+	 * @return バイト長
+	 */
+	public int length(String s, int begin, int end) {
+		if (this == LEGACY) {
+			//ブロック単位で計算(SIMD)
+			return ByteWidthKernel.byteLength(s, begin, end);
+		}
+		byte[] t = table();
+		int rtn = 0;
+		for (int i = begin; i < end; i++) {
+			char c = s.charAt(i);
+			int w = t[c];
+			if (w == 0) {
+				if (isPair(s, i, end)) {
+					i++;
+					w = pairWidth;
+				} else {
+					w = loneWidth;
+				}
+			}
+			rtn += w;
+		}
+		return rtn;
+	}
+	/**
+	 * 指定バイト長でカットする文字インデックス取得.
+	 * バイト長境界が文字境界でない場合(多バイト文字の場合)、直前の文字境界(サロゲートペアは分割しない)。
+	 * @param s 入力文字列
+	 * @param byteLength バイト長
+	 * @return カット位置の文字インデックス(この値を含まない)
+	 */
+	public int cutIndex(String s, int byteLength) {
+		if (this == LEGACY) {
+			return ByteWidthKernel.cutIndex(s, byteLength);
+		}
+		byte[] t = table();
+		int len = s.length();
+		int bytes = 0;
+		int i = 0;
+		while (i < len) {
+			int w = t[s.charAt(i)];
+			int n = 1;
+			if (w == 0) {
+				if (isPair(s, i, len)) {
+					n = 2;
+					w = pairWidth;
+				} else {
+					w = loneWidth;
+				}
+			}
+			bytes += w;
+			if (bytes > byteLength) {
+				return i;
+			}
+			i += n;
+		}
+		return len;
+	}
+	/**
+	 * 範囲内を指定バイト長でカットする文字インデックス取得.
+	 * バイト長境界が文字境界でない場合(多バイト文字の場合)、直前の文字境界(サロゲートペアは分割しない)。
+	 * @param s 入力文字列
+	 * @param begin 開始インデックス (この値を含む)
+	 * @param end 終了インデックス (この値を含まない)
+	 * @param byteLength beginからのバイト長
+	 * @return カット位置の文字インデックス(begin～end)
+	 */
+	public int cutIndex(String s, int begin, int end, int byteLength) {
+		byte[] t = table();
+		int bytes = 0;
+		int i = begin;
+		while (i < end) {
+			int w = t[s.charAt(i)];
+			int n = 1;
+			if (w == 0) {
+				if (isPair(s, i, end)) {
+					n = 2;
+					w = pairWidth;
+				} else {
+					w = loneWidth;
+				}
+			}
+			bytes += w;
+			if (bytes > byteLength) {
+				return i;
+			}
+			i += n;
+		}
+		return end;
+	}
+	/**
+	 * バイトオフセットの文字インデックス取得.
+	 * @param s 入力文字列
+	 * @param byteOffset バイトオフセット
+	 * @return 文字インデックス(文字境界でない場合は-1)
+	 */
+	public int charIndex(String s, int byteOffset) {
+		return charIndex(s, 0, 0, byteOffset);
+	}
+	/**
+	 * 途中からのバイトオフセットの文字インデックス取得.
+	 * @param s 入力文字列
+	 * @param fromIndex 検索開始の文字インデックス(文字境界であること)
+	 * @param fromByte fromIndexのバイトオフセット
+	 * @param byteOffset バイトオフセット
+	 * @return 文字インデックス(文字境界でない場合、fromByteより前の場合は-1)
+	 */
+	public int charIndex(String s, int fromIndex, int fromByte, int byteOffset) {
+		byte[] t = table();
+		int len = s.length();
+		int bytes = fromByte;
+		int i = fromIndex;
+		while (bytes < byteOffset && i < len) {
+			int w = t[s.charAt(i)];
+			if (w == 0) {
+				if (isPair(s, i, len)) {
+					i++;
+					w = pairWidth;
+				} else {
+					w = loneWidth;
+				}
+			}
+			bytes += w;
+			i++;
+		}
+		return bytes == byteOffset ? i : -1;
+	}
+	/**
+	 * 文字数＞＝バイト長の判断(文字数のみで判断できる場合).
+	 * 全ての文字が1バイト以上のモデルでは、文字数がバイト長以上ならバイト長以上。
+	 * @param charLength 文字数
+	 * @param byteLength バイト長
+	 * @return true:バイト長以上が確定
+	 */
+	boolean atLeast(int charLength, int byteLength) {
+		return minOne && charLength >= byteLength;
+	}
+	@Override
+	public String toString() {
+		return "ByteWidthModel[" + name + "]";
+	}
+
+	//--------------------------------------------------------------------------
+	// 表
+	//--------------------------------------------------------------------------
+	/**
+	 * 文字毎のバイト長の表取得(文字セットのモデルは初回に取得).
+	 * 作成済みの表はfinalのフィールドから返すので、ループの前で１回だけ呼ぶこと。
+	 */
+	byte[] table() {
+		byte[] t = widths;
+		if (t != null) {
+			return t;
+		}
+		t = lazyWidths;
+		if (t == null) {
+			t = encoded.widthTable();
+			lazyWidths = t;
+		}
+		return t;
+	}
+	/**
+	 * サロゲートペア判断.
+	 */
+	private static boolean isPair(String s, int i, int end) {
+		return Character.isHighSurrogate(s.charAt(i)) && i + 1 < end && Character.isLowSurrogate(s.charAt(i + 1));
+	}
+	/**
+	 * 表の最小値(サロゲートを除く).
+	 */
+	private static int minWidth(byte[] t) {
+		int rtn = Integer.MAX_VALUE;
+		for (int c = 0; c < TABLE_SIZE; c++) {
+			if (!Character.isSurrogate((char) c)) {
+				rtn = Math.min(rtn, t[c]);
+			}
+		}
+		return rtn;
+	}
+	/**
+	 * LEGACYの表作成.
+	 * サロゲートも１文字2バイト(ペアは4バイト)とするため、表の値は0にしない。
+	 */
+	private static byte[] legacyTable() {
+		byte[] t = new byte[TABLE_SIZE];
+		//以外は全角文字
+		Arrays.fill(t, (byte) 2);
+		//ASCII
+		for (int c = 0; c <= '~'; c++) {
+			t[c] = 1;
+		}
+		//\(YEN SIGN)----u005C(REVERSE SOLIDUS)とは異なる
+		t['\u00A5'] = 1;
+		//~(OVERLINE)----u007E(TILDE)とは異なる
+		t['\u203E'] = 1;
+		//半角カタカナ
+		for (int c = '\uFF61'; c <= '\uFF9F'; c++) {
+			t[c] = 1;
+		}
+		return t;
+	}
+	/**
+	 * UTF-8の表作成.
+	 */
+	private static byte[] utf8Table() {
+		byte[] t = new byte[TABLE_SIZE];
+		for (int c = 0; c < TABLE_SIZE; c++) {
+			if (Character.isSurrogate((char) c)) {
+				continue;
+			}
+			t[c] = (byte) (c < 0x80 ? 1 : c < 0x800 ? 2 : 3);
+		}
+		return t;
+	}
+}
@@ -0,0 +1,104 @@
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * バイト長計算のSIMD実装(Vector API).
+ * 文字をブロック単位で作業領域(ScratchBuffer)にコピーし、ベクトル単位で全角(2バイト)文字を数える。
+ * ASCII(～u007E)、u00A5、u203E、半角カタカナ(uFF61～uFF9F)以外が全角
+ * (StringUtils.byteLength(char)と同じ判断)。
+ * (注)jdk.incubator.vectorモジュールが必要なため、ByteWidthKernel経由でのみ使用する
+ */
+final class ByteWidthVector {
+	/** コンストラクタ(全てstaticメソッドのクラスなのでインスタンス化なし) */
+	private ByteWidthVector() {
+	}
+	/** ベクトルの種類(CPUの最大幅) */
+	private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+	/** ブロックの文字数 */
+	private static final int BLOCK = ScratchBuffer.BLOCK;
+
+	/**
+	 * ベクトルのレーン数取得.
+	 * @return レーン数
+	 */
+	static int lanes() {
+		return SPECIES.length();
+	}
+	/**
+	 * 範囲のバイト長取得.
+	 * @param s 入力文字列
+	 * @param begin 開始インデックス (この値を含む)
+	 * @param end 終了インデックス (この値を含まない)
+	 * @return バイト長
+	 */
+	static int byteLength(String s, int begin, int end) {
+		int n = end - begin;
+		char[] buf = ScratchBuffer.chars();
+		int wideCount = 0;
+		for (int i = begin; i < end; i += BLOCK) {
+			int m = Math.min(BLOCK, end - i);
+			s.getChars(i, i + m, buf, 0);
+			int j = 0;
+			for (int up = SPECIES.loopBound(m); j < up; j += SPECIES.length()) {
+				wideCount += wide(ShortVector.fromCharArray(SPECIES, buf, j)).trueCount();
+			}
+			for (; j < m; j++) {
+				wideCount += StringUtils.byteLength(buf[j]) - 1;
+			}
+		}
+		return n + wideCount;
+	}
+	/**
+	 * 指定バイト長でカットする文字インデックス取得.
+	 * @param s 入力文字列
+	 * @param byteLength バイト長
+	 * @return カット位置の文字インデックス(この値を含まない)
+	 */
+	static int cutIndex(String s, int byteLength) {
+		int len = s.length();
+		//全て全角でも収まる場合はカットなし
+		if (byteLength >= 2L * len) {
+			return len;
+		}
+		char[] buf = ScratchBuffer.chars();
+		int total = 0;
+		for (int i = 0; i < len; i += BLOCK) {
+			int m = Math.min(BLOCK, len - i);
+			s.getChars(i, i + m, buf, 0);
+			int j = 0;
+			//ベクトル全体が収まる間はベクトル単位で加算
+			for (int up = SPECIES.loopBound(m); j < up; j += SPECIES.length()) {
+				int bytes = SPECIES.length()
+					+ wide(ShortVector.fromCharArray(SPECIES, buf, j)).trueCount();
+				if (total + bytes > byteLength) {
+					break;
+				}
+				total += bytes;
+			}
+			//超えるベクトル及び端数は１文字ずつ
+			for (; j < m; j++) {
+				total += StringUtils.byteLength(buf[j]);
+				if (total > byteLength) {
+					return i + j;
+				}
+			}
+		}
+		return len;
+	}
+	/**
+	 * 全角(2バイト)文字のレーン取得.
+	 * @param v 文字のベクトル
+	 * @return 全角文字のレーンがtrueのマスク
+	 */
+	private static VectorMask<Short> wide(ShortVector v) {
+		return v.compare(VectorOperators.UNSIGNED_GT, (short) 0x7E)
+			//u00A5(YEN SIGN)
+			.andNot(v.compare(VectorOperators.EQ, (short) 0xA5))
+			//u203E(OVERLINE)
+			.andNot(v.compare(VectorOperators.EQ, (short) 0x203E))
+			//半角カタカナ(uFF61～uFF9F)
+			.andNot(v.sub((short) 0xFF61).compare(VectorOperators.UNSIGNED_LE, (short) 0x3E));
+	}
+}
@@ -0,0 +1,288 @@
+/**
+ * 文字集合による削除・抽出・置換.
+ * 文字集合はBMPの全文字(65536)のビットマップで持ち、１文字の判断はビットの参照のみで行う。
+ * 削除・抽出・置換は１回の走査で行い、該当する文字がない場合は入力文字列をそのまま返す。
+ * (注)文字単位(char)で判断するため、サロゲートペアは２文字として扱う
+ * <pre>
+ * CharFilter.HYPHEN.strip("03-1234-5678")              ===> "0312345678"
+ * CharFilter.of("/:").strip("2019/06/13 12:00")        ===> "20190613 1200"
+ * CharFilter.range('0', '9').keep("TEL:03-1234")       ===> "031234"
+ * CharFilter.translator("ｱｲｳ", "アイウ").translate("ｱｲ") ===> "アイ"
+ * </pre>
+ */
+public final class CharFilter {
+	/** "-" */
+	public static final CharFilter HYPHEN = of('-');
+	/** "," */
+	public static final CharFilter COMMA = of(',');
+	/** "/" */
+	public static final CharFilter SLASH = of('/');
+	/** ":" */
+	public static final CharFilter COLON = of(':');
+	/** 半角数字 */
+	public static final CharFilter DIGITS = range('0', '9');
+
+	/** ビットマップの要素数(65536ビット) */
+	private static final int WORDS = (Character.MAX_VALUE + 1) >>> 6;
+	/** 置換表のページの文字数 */
+	private static final int PAGE = 256;
+
+	/** 文字集合のビットマップ */
+	private final long[] bits;
+	/** 1文字のみの集合の場合はその文字(以外は-1、String.indexOfで検索する) */
+	private final int single;
+	/** 置換表(上位8ビット->ページ、translatorのみ) */
+	private final char[][] map;
+
+	/**
+	 * コンストラクタ.
+	 * @param bits 文字集合のビットマップ
+	 * @param map 置換表(translator以外はnull)
+	 */
+	private CharFilter(long[] bits, char[][] map) {
+		this.bits = bits;
+		this.map = map;
+		this.single = singleChar(bits);
+	}
+	/**
+	 * 指定文字の集合生成.
+	 * @param chars 文字
+	 * @return 文字集合
+	 */
+	public static CharFilter of(char... chars) {
+		long[] b = new long[WORDS];
+		for (char c : chars) {
+			b[c >>> 6] |= 1L << c;
+		}
+		return new CharFilter(b, null);
+	}
+	/**
+	 * 文字列中の文字の集合生成.
+	 * @param chars 文字(nullの場合はException)
+	 * @return 文字集合
+	 */
+	public static CharFilter of(CharSequence chars) {
+		long[] b = new long[WORDS];
+		for (int i = 0; i < chars.length(); i++) {
+			char c = chars.charAt(i);
+			b[c >>> 6] |= 1L << c;
+		}
+		return new CharFilter(b, null);
+	}
+	/**
+	 * 範囲の文字の集合生成.
+	 * @param first 先頭文字(この値を含む)
+	 * @param last 最終文字(この値を含む)
+	 * @return 文字集合
+	 */
+	public static CharFilter range(char first, char last) {
+		if (first > last) {
+			throw new RuntimeException("CharFilter.range()エラー:first=" + (int) first + ",last=" + (int) last);
+		}
+		long[] b = new long[WORDS];
+		for (int c = first; c <= last; c++) {
+			b[c >>> 6] |= 1L << c;
+		}
+		return new CharFilter(b, null);
+	}
+	/**
+	 * 置換用の文字集合生成.
+	 * fromのi文字目をtoのi文字目に置換する(同じ文字を複数指定した場合は後の指定)。
+	 * @param from 置換前の文字
+	 * @param to 置換後の文字(fromと同じ文字数)
+	 * @return 文字集合(fromの文字)
+	 */
+	public static CharFilter translator(CharSequence from, CharSequence to) {
+		if (from.length() != to.length()) {
+			throw new RuntimeException("CharFilter.translator()エラー:from.length=" + from.length() + ",to.length=" + to.length());
+		}
+		long[] b = new long[WORDS];
+		char[][] m = new char[PAGE][];
+		for (int i = 0; i < from.length(); i++) {
+			char c = from.charAt(i);
+			b[c >>> 6] |= 1L << c;
+			char[] page = m[c >>> 8];
+			if (page == null) {
+				page = new char[PAGE];
+				m[c >>> 8] = page;
+			}
+			page[c & (PAGE - 1)] = to.charAt(i);
+		}
+		return new CharFilter(b, m);
+	}
+	/**
+	 * 和集合生成(置換表は引き継がない).
+	 * @param other 文字集合
+	 * @return thisとotherの文字の集合
+	 */
+	public CharFilter or(CharFilter other) {
+		long[] b = new long[WORDS];
+		for (int i = 0; i < WORDS; i++) {
+			b[i] = bits[i] | other.bits[i];
+		}
+		return new CharFilter(b, null);
+	}
+
+	//--------------------------------------------------------------------------
+	// 判断
+	//--------------------------------------------------------------------------
+	/**
+	 * 文字集合に含まれるか判断.
+	 * @param c 文字
+	 * @return true:含まれる
+	 */
+	public boolean matches(char c) {
+		return (bits[c >>> 6] & (1L << c)) != 0;
+	}
+	/**
+	 * 文字集合に含まれる最初の文字を検索.
+	 * @param s 文字列
+	 * @param fromIndex 検索開始インデックス
+	 * @return 文字のインデックス(ない場合は-1)
+	 */
+	public int indexIn(CharSequence s, int fromIndex) {
+		if (single >= 0 && s instanceof String) {
+			return ((String) s).indexOf(single, fromIndex);
+		}
+		for (int i = Math.max(fromIndex, 0); i < s.length(); i++) {
+			if (matches(s.charAt(i))) {
+				return i;
+			}
+		}
+		return -1;
+	}
+	/**
+	 * 文字集合に含まれる文字の有無判断.
+	 * @param s 文字列
+	 * @return true:含まれる文字あり
+	 */
+	public boolean matchesAny(CharSequence s) {
+		return indexIn(s, 0) >= 0;
+	}
+	/**
+	 * 全ての文字が文字集合に含まれるか判断.
+	 * @param s 文字列
+	 * @return true:全て含まれる(空文字の場合もtrue)
+	 */
+	public boolean matchesAll(CharSequence s) {
+		for (int i = 0; i < s.length(); i++) {
+			if (!matches(s.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	//--------------------------------------------------------------------------
+	// 変換(該当する文字がない場合は入力文字列をそのまま返す)
+	//--------------------------------------------------------------------------
+	/**
+	 * 文字集合に含まれる文字を削除.
+	 * @param s 文字列(nullの場合はException)
+	 * @return 削除後の文字列
+	 */
+	public String strip(String s) {
+		int first = indexIn(s, 0);
+		if (first < 0) {
+			return s;
+		}
+		return filter(s, first, false);
+	}
+	/**
+	 * 文字集合に含まれる文字のみ抽出.
+	 * @param s 文字列(nullの場合はException)
+	 * @return 抽出後の文字列
+	 */
+	public String keep(String s) {
+		int len = s.length();
+		int first = 0;
+		while (first < len && matches(s.charAt(first))) {
+			first++;
+		}
+		if (first == len) {
+			return s;
+		}
+		return filter(s, first, true);
+	}
+	/**
+	 * 文字集合に含まれる文字を置換.
+	 * @param s 文字列(nullの場合はException)
+	 * @param replacement 置換後の文字
+	 * @return 置換後の文字列
+	 */
+	public String replace(String s, char replacement) {
+		int first = indexIn(s, 0);
+		if (first < 0) {
+			return s;
+		}
+		int len = s.length();
+		char[] buf = new char[len];
+		s.getChars(0, len, buf, 0);
+		for (int i = first; i < len; i++) {
+			if (matches(buf[i])) {
+				buf[i] = replacement;
+			}
+		}
+		return new String(buf);
+	}
+	/**
+	 * 置換表による置換(translatorで生成した文字集合のみ).
+	 * @param s 文字列(nullの場合はException)
+	 * @return 置換後の文字列
+	 */
+	public String translate(String s) {
+		if (map == null) {
+			throw new RuntimeException("CharFilter.translate()エラー:置換表なし");
+		}
+		int first = indexIn(s, 0);
+		if (first < 0) {
+			return s;
+		}
+		int len = s.length();
+		char[] buf = new char[len];
+		s.getChars(0, len, buf, 0);
+		for (int i = first; i < len; i++) {
+			char c = buf[i];
+			if (matches(c)) {
+				buf[i] = map[c >>> 8][c & (PAGE - 1)];
+			}
+		}
+		return new String(buf);
+	}
+	/**
+	 * 削除・抽出の処理本体.
+	 * firstより前の文字はそのまま残し、以降を１文字ずつ判断する。
+	 * @param keepMatched true:含まれる文字を残す、false:含まれる文字を削除
+	 */
+	private String filter(String s, int first, boolean keepMatched) {
+		int len = s.length();
+		char[] buf = new char[len];
+		s.getChars(0, len, buf, 0);
+		int n = first;
+		for (int i = first; i < len; i++) {
+			char c = buf[i];
+			if (matches(c) == keepMatched) {
+				buf[n++] = c;
+			}
+		}
+		return new String(buf, 0, n);
+	}
+	/**
+	 * 1文字のみの集合の場合はその文字取得.
+	 * @return 文字(1文字のみでない場合は-1)
+	 */
+	private static int singleChar(long[] bits) {
+		int rtn = -1;
+		for (int i = 0; i < WORDS; i++) {
+			long w = bits[i];
+			if (w == 0) {
+				continue;
+			}
+			if (rtn >= 0 || Long.bitCount(w) != 1) {
+				return -1;
+			}
+			rtn = (i << 6) + Long.numberOfTrailingZeros(w);
+		}
+		return rtn;
+	}
+}
@@ -0,0 +1,125 @@
+/**
+ * trim対象文字・半角数字の走査のカーネル.
+ * jdk.incubator.vectorモジュールが利用可能な場合はCharScanVector(SIMD)で、
+ * 利用できない場合は１文字ずつ判断する(長い文字列の数字走査は作業領域にブロック単位でコピーして判断)。
+ * どちらも同じ結果となる。
+ * (注)SIMDを使う場合は実行時に --add-modules jdk.incubator.vector を指定する
+ */
+final class CharScanKernel {
+	/** コンストラクタ(全てstaticメソッドのクラスなのでインスタンス化なし) */
+	private CharScanKernel() {
+	}
+	/** true:SIMDで走査 */
+	private static final boolean VECTOR = vectorAvailable();
+	/** SIMDで走査する最小文字数(これより短い場合は１文字ずつ処理) */
+	private static final int MIN_VECTOR_LENGTH = 32;
+	/** trimで先に１文字ずつ判断する文字数(空白の連続は短いことが多いので、超えた場合のみSIMD) */
+	private static final int TRIM_SCALAR_PREFIX = 16;
+	/** SIMDなしで数字走査をブロック単位で行う最小文字数(これより短い場合はcharAtで処理) */
+	private static final int MIN_BLOCK_LENGTH = 64;
+
+	/**
+	 * jdk.incubator.vectorモジュールの利用可否判断.
+	 * @return true:利用可
+	 */
+	private static boolean vectorAvailable() {
+		if (!ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+			return false;
+		}
+		try {
+			return CharScanVector.lanes() > 1;
+		} catch (LinkageError e) {
+			return false;
+		}
+	}
+	/**
+	 * 右Trimで残す終了オフセット取得.
+	 * @param s 入力文字列
+	 * @param begin 開始インデックス (この値を含む)
+	 * @param end 終了インデックス (この値を含まない)
+	 * @return 終了オフセット(この値を含まない、全てtrim対象の場合はbegin)
+	 */
+	static int rTrimOffset(String s, int begin, int end) {
+		//末尾がtrim対象でなければ走査なし(最も多いケース)
+		if (end <= begin || !StringUtils.isTrimChar(s.charAt(end - 1))) {
+			return end;
+		}
+		int rightOffset = end - 1;
+		int limit = VECTOR ? Math.max(begin, rightOffset - TRIM_SCALAR_PREFIX) : begin;
+		while (rightOffset > limit && StringUtils.isTrimChar(s.charAt(rightOffset - 1))) {
+			rightOffset--;
+		}
+		//空白が続く場合は残りをSIMDで走査
+		if (rightOffset == limit && limit - begin >= MIN_VECTOR_LENGTH) {
+			return CharScanVector.rTrimOffset(s, begin, limit);
+		}
+		while (rightOffset > begin && StringUtils.isTrimChar(s.charAt(rightOffset - 1))) {
+			rightOffset--;
+		}
+		return rightOffset;
+	}
+	/**
+	 * 左Trimで残す開始オフセット取得.
+	 * @param s 入力文字列
+	 * @param begin 開始インデックス (この値を含む)
+	 * @param end 終了インデックス (この値を含まない)
+	 * @return 開始オフセット(この値を含む、全てtrim対象の場合はend)
+	 */
+	static int lTrimOffset(String s, int begin, int end) {
+		//先頭がtrim対象でなければ走査なし
+		if (begin >= end || !StringUtils.isTrimChar(s.charAt(begin))) {
+			return begin;
+		}
+		int leftOffset = begin + 1;
+		int limit = VECTOR ? Math.min(end, leftOffset + TRIM_SCALAR_PREFIX) : end;
+		while (leftOffset < limit && StringUtils.isTrimChar(s.charAt(leftOffset))) {
+			leftOffset++;
+		}
+		//空白が続く場合は残りをSIMDで走査
+		if (leftOffset == limit && end - limit >= MIN_VECTOR_LENGTH) {
+			return CharScanVector.lTrimOffset(s, limit, end);
+		}
+		while (leftOffset < end && StringUtils.isTrimChar(s.charAt(leftOffset))) {
+			leftOffset++;
+		}
+		return leftOffset;
+	}
+	/**
+	 * 最初の半角数字(0-9)でない文字を検索.
+	 * @param s 入力文字列
+	 * @param begin 開始インデックス (この値を含む)
+	 * @param end 終了インデックス (この値を含まない)
+	 * @return 最初の半角数字でない文字のインデックス(全て半角数字の場合はend)
+	 */
+	static int indexOfNonDigit(String s, int begin, int end) {
+		if (VECTOR && end - begin >= MIN_VECTOR_LENGTH) {
+			return CharScanVector.indexOfNonDigit(s, begin, end);
+		}
+		if (end - begin >= MIN_BLOCK_LENGTH) {
+			return indexOfNonDigitBlock(s, begin, end);
+		}
+		for (int i = begin; i < end; i++) {
+			if (!StringUtils.isHalfSizeIntChar(s.charAt(i))) {
+				return i;
+			}
+		}
+		return end;
+	}
+	/**
+	 * 最初の半角数字でない文字を検索(SIMDなし、ブロック単位).
+	 * 作業領域にコピーしてから判断する(UTF-16の文字列でcharAtより速い)。
+	 */
+	private static int indexOfNonDigitBlock(String s, int begin, int end) {
+		char[] buf = ScratchBuffer.chars();
+		for (int i = begin; i < end; i += ScratchBuffer.BLOCK) {
+			int m = Math.min(ScratchBuffer.BLOCK, end - i);
+			s.getChars(i, i + m, buf, 0);
+			for (int j = 0; j < m; j++) {
+				if (!StringUtils.isHalfSizeIntChar(buf[j])) {
+					return i + j;
+				}
+			}
+		}
+		return end;
+	}
+}
@@ -0,0 +1,129 @@
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * trim対象文字・半角数字の走査のSIMD実装(Vector API).
+ * 文字をブロック単位で作業領域(ScratchBuffer)にコピーし、ベクトル単位で判断する。
+ * trim対象文字は' '以下又は全角スペース、半角数字は'0'～'9'
+ * (StringUtils.isTrimChar/isHalfSizeIntCharと同じ判断)。
+ * (注)jdk.incubator.vectorモジュールが必要なため、CharScanKernel経由でのみ使用する
+ */
+final class CharScanVector {
+	/** コンストラクタ(全てstaticメソッドのクラスなのでインスタンス化なし) */
+	private CharScanVector() {
+	}
+	/** ベクトルの種類(CPUの最大幅) */
+	private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+	/** trim走査のブロックの文字数(末尾の空白は短いことが多いので小さめ) */
+	private static final int TRIM_BLOCK = 256;
+	/** 数字走査のブロックの文字数 */
+	private static final int DIGIT_BLOCK = ScratchBuffer.BLOCK;
+
+	/**
+	 * ベクトルのレーン数取得.
+	 * @return レーン数
+	 */
+	static int lanes() {
+		return SPECIES.length();
+	}
+	/**
+	 * 末尾側から最後のtrim対象でない文字を検索.
+	 * @param s 入力文字列
+	 * @param begin 開始インデックス (この値を含む)
+	 * @param end 終了インデックス (この値を含まない)
+	 * @return 最後のtrim対象でない文字のインデックス＋1(全てtrim対象の場合はbegin)
+	 */
+	static int rTrimOffset(String s, int begin, int end) {
+		int lanes = SPECIES.length();
+		char[] buf = ScratchBuffer.chars();
+		while (end > begin) {
+			int m = Math.min(TRIM_BLOCK, end - begin);
+			int from = end - m;
+			s.getChars(from, end, buf, 0);
+			int j = m;
+			//ブロックの末尾からベクトル単位
+			for (; j >= lanes; j -= lanes) {
+				VectorMask<Short> keep = trim(ShortVector.fromCharArray(SPECIES, buf, j - lanes)).not();
+				if (keep.anyTrue()) {
+					return from + j - lanes + keep.lastTrue() + 1;
+				}
+			}
+			//ブロック先頭の端数は１文字ずつ
+			for (; j > 0; j--) {
+				if (!StringUtils.isTrimChar(buf[j - 1])) {
+					return from + j;
+				}
+			}
+			end = from;
+		}
+		return begin;
+	}
+	/**
+	 * 先頭側から最初のtrim対象でない文字を検索.
+	 * @param s 入力文字列
+	 * @param begin 開始インデックス (この値を含む)
+	 * @param end 終了インデックス (この値を含まない)
+	 * @return 最初のtrim対象でない文字のインデックス(全てtrim対象の場合はend)
+	 */
+	static int lTrimOffset(String s, int begin, int end) {
+		char[] buf = ScratchBuffer.chars();
+		for (int i = begin; i < end; i += TRIM_BLOCK) {
+			int m = Math.min(TRIM_BLOCK, end - i);
+			s.getChars(i, i + m, buf, 0);
+			int j = 0;
+			for (int up = SPECIES.loopBound(m); j < up; j += SPECIES.length()) {
+				VectorMask<Short> keep = trim(ShortVector.fromCharArray(SPECIES, buf, j)).not();
+				if (keep.anyTrue()) {
+					return i + j + keep.firstTrue();
+				}
+			}
+			for (; j < m; j++) {
+				if (!StringUtils.isTrimChar(buf[j])) {
+					return i + j;
+				}
+			}
+		}
+		return end;
+	}
+	/**
+	 * 最初の半角数字でない文字を検索.
+	 * @param s 入力文字列
+	 * @param begin 開始インデックス (この値を含む)
+	 * @param end 終了インデックス (この値を含まない)
+	 * @return 最初の半角数字でない文字のインデックス(全て半角数字の場合はend)
+	 */
+	static int indexOfNonDigit(String s, int begin, int end) {
+		char[] buf = ScratchBuffer.chars();
+		for (int i = begin; i < end; i += DIGIT_BLOCK) {
+			int m = Math.min(DIGIT_BLOCK, end - i);
+			s.getChars(i, i + m, buf, 0);
+			int j = 0;
+			for (int up = SPECIES.loopBound(m); j < up; j += SPECIES.length()) {
+				ShortVector v = ShortVector.fromCharArray(SPECIES, buf, j);
+				//'0'～'9'以外(v - '0' が符号なしで9超)
+				VectorMask<Short> other = v.sub((short) '0').compare(VectorOperators.UNSIGNED_GT, (short) 9);
+				if (other.anyTrue()) {
+					return i + j + other.firstTrue();
+				}
+			}
+			for (; j < m; j++) {
+				if (!StringUtils.isHalfSizeIntChar(buf[j])) {
+					return i + j;
+				}
+			}
+		}
+		return end;
+	}
+	/**
+	 * trim対象文字のレーン取得.
+	 * @param v 文字のベクトル
+	 * @return trim対象文字のレーンがtrueのマスク
+	 */
+	private static VectorMask<Short> trim(ShortVector v) {
+		return v.compare(VectorOperators.UNSIGNED_LE, (short) 0x20)
+			//全角スペース
+			.or(v.compare(VectorOperators.EQ, (short) 0x3000));
+	}
+}
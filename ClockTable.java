@@ -0,0 +1,133 @@
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 容量固定のセットアソシアティブ表(DateCache・InternPool共通).
+ * <ul>
+ * <li>4way、セット内はCLOCK(参照ビット)で追い出す</li>
+ * <li>参照はロックなし、参照ビットは落ちている場合のみ書き込む(ヒットが続く間は書き込みなし)</li>
+ * <li>登録はスロット単位のCAS(セット毎に独立しているので競合は同じセットのみ、競合時は後勝ち)</li>
+ * </ul>
+ * 検索(キーの比較)は呼び出し元で行う。
+ * <pre>
+ * int base = table.base(hash);
+ * for (int i = base; i &lt; base + ClockTable.WAYS; i++) {
+ *     E e = table.get(i);
+ *     if (e != null &amp;&amp; 一致) {
+ *         table.touch(i);
+ *         return e;
+ *     }
+ * }
+ * table.put(base, newEntry);
+ * </pre>
+ */
+final class ClockTable<E> {
+	/** セット内の件数 */
+	static final int WAYS = 4;
+
+	/** 登録内容 */
+	private final AtomicReferenceArray<E> entries;
+	/** 参照ビット(競合時の取りこぼしは許容) */
+	private final byte[] referenced;
+	/** セット毎のCLOCKの位置 */
+	private final byte[] hands;
+	/** セット番号のマスク */
+	private final int setMask;
+
+	/**
+	 * コンストラクタ.
+	 * @param capacity 容量(件数、1～2^28、4の倍数の2のべき乗に切り上げ)
+	 */
+	ClockTable(int capacity) {
+		int sets = 1;
+		while (sets * WAYS < capacity) {
+			sets <<= 1;
+		}
+		this.entries = new AtomicReferenceArray<E>(sets * WAYS);
+		this.referenced = new byte[sets * WAYS];
+		this.hands = new byte[sets];
+		this.setMask = sets - 1;
+	}
+	/**
+	 * 容量取得.
+	 * @return 容量(件数)
+	 */
+	int capacity() {
+		return entries.length();
+	}
+	/**
+	 * セットの先頭スロット取得.
+	 * @param hash ハッシュ(下位ビットでセットを決める)
+	 * @return 先頭スロット(base～base+WAYS-1がセット)
+	 */
+	int base(int hash) {
+		return (hash & setMask) * WAYS;
+	}
+	/**
+	 * スロットの登録内容取得.
+	 * @param i スロット
+	 * @return 登録内容(空きの場合はnull)
+	 */
+	E get(int i) {
+		return entries.get(i);
+	}
+	/**
+	 * ヒットの記録(参照ビットが落ちている場合のみ書き込む).
+	 * @param i スロット
+	 */
+	void touch(int i) {
+		if (referenced[i] == 0) {
+			referenced[i] = 1;
+		}
+	}
+	/**
+	 * 登録(空きがなければCLOCKで追い出す).
+	 * @param base セットの先頭スロット
+	 * @param value 登録内容
+	 * @return true:追い出して登録した
+	 */
+	boolean put(int base, E value) {
+		for (int i = base; i < base + WAYS; i++) {
+			if (entries.get(i) == null && entries.compareAndSet(i, null, value)) {
+				referenced[i] = 0;
+				return false;
+			}
+		}
+		//参照ビットが立っていれば落として次へ(1周で全て落ちるので最大2周、参照と競合した場合は登録しない)
+		int set = base / WAYS;
+		int hand = hands[set];
+		for (int n = 0; n < WAYS * 2; n++) {
+			int i = base + hand;
+			hand = (hand + 1) & (WAYS - 1);
+			if (referenced[i] != 0) {
+				referenced[i] = 0;
+				continue;
+			}
+			hands[set] = (byte) hand;
+			entries.set(i, value);
+			referenced[i] = 0;
+			return true;
+		}
+		return false;
+	}
+	/**
+	 * 登録件数取得(全スロットを数える).
+	 * @return 登録件数
+	 */
+	int size() {
+		int rtn = 0;
+		for (int i = 0; i < entries.length(); i++) {
+			if (entries.get(i) != null) {
+				rtn++;
+			}
+		}
+		return rtn;
+	}
+	/**
+	 * 全件削除.
+	 */
+	void clear() {
+		for (int i = 0; i < entries.length(); i++) {
+			entries.set(i, null);
+		}
+	}
+}
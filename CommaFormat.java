@@ -0,0 +1,319 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.CharBuffer;
+
+/**
+ * ３桁区切りの数値編集.
+ * long・BigDecimal・数字文字列を、符号と小数部を考慮して３桁おきに区切り文字を付加する。
+ * 下位桁から逆順で書き込み、１回の走査で編集する(char[]へは編集後の文字数を求めて直接、String・Appendableへはスレッド毎の作業領域に)。
+ * <pre>
+ * CommaFormat.DEFAULT.format(-1234567L)                ===> "-1,234,567"
+ * CommaFormat.DEFAULT.format(123456789L, 2)            ===> "1,234,567.89"
+ * CommaFormat.of('.', ',').format(new BigDecimal("1234.5")) ===> "1.234,5"
+ * </pre>
+ * インスタンスは不変なので複数スレッドで共有できる。
+ */
+public final class CommaFormat {
+	/** デフォルト(区切り文字',' 小数点'.') */
+	public static final CommaFormat DEFAULT = new CommaFormat(',', '.');
+	/** long編集時の最大文字数(符号＋19桁＋区切り6＋小数点) */
+	private static final int LONG_BUFFER = 28;
+
+	/** 区切り文字 */
+	private final char groupingSeparator;
+	/** 小数点 */
+	private final char decimalSeparator;
+
+	/**
+	 * コンストラクタ(of()から生成する).
+	 */
+	private CommaFormat(char groupingSeparator, char decimalSeparator) {
+		this.groupingSeparator = groupingSeparator;
+		this.decimalSeparator = decimalSeparator;
+	}
+	/**
+	 * 区切り文字・小数点を指定して取得.
+	 * @param groupingSeparator 区切り文字
+	 * @param decimalSeparator 小数点
+	 * @return CommaFormat
+	 */
+	public static CommaFormat of(char groupingSeparator, char decimalSeparator) {
+		if (groupingSeparator == ',' && decimalSeparator == '.') {
+			return DEFAULT;
+		}
+		if (groupingSeparator == decimalSeparator) {
+			throw new RuntimeException("区切り文字と小数点が同じです。separator=" + groupingSeparator);
+		}
+		return new CommaFormat(groupingSeparator, decimalSeparator);
+	}
+
+	//--------------------------------------------------------------------------
+	// long
+	//--------------------------------------------------------------------------
+	/**
+	 * 整数の編集.
+	 * @param value 数値
+	 * @return 編集後の文字列
+	 */
+	public String format(long value) {
+		return format(value, 0);
+	}
+	/**
+	 * 小数部付きの編集(value / 10^scale を編集).
+	 * @param unscaledValue 小数点を除いた数値(例:1234.56は123456)
+	 * @param scale 小数部の桁数(0～18)
+	 * @return 編集後の文字列
+	 */
+	public String format(long unscaledValue, int scale) {
+		char[] buf = ScratchBuffer.chars();
+		int begin = formatBackward(unscaledValue, scale, buf, LONG_BUFFER);
+		return new String(buf, begin, LONG_BUFFER - begin);
+	}
+	/**
+	 * 小数部付きの編集を行いoutに追加.
+	 * @param out 追加先
+	 * @param unscaledValue 小数点を除いた数値
+	 * @param scale 小数部の桁数(0～18)
+	 * @return 追加した文字数
+	 * @throws IOException outへの追加エラー
+	 */
+	public int format(Appendable out, long unscaledValue, int scale) throws IOException {
+		char[] buf = ScratchBuffer.chars();
+		int begin = formatBackward(unscaledValue, scale, buf, LONG_BUFFER);
+		int len = LONG_BUFFER - begin;
+		//まとめて追加(StringBuilder・Writerは配列から直接)
+		if (out instanceof StringBuilder) {
+			((StringBuilder) out).append(buf, begin, len);
+		} else if (out instanceof Writer) {
+			((Writer) out).write(buf, begin, len);
+		} else {
+			out.append(CharBuffer.wrap(buf, begin, len));
+		}
+		return len;
+	}
+	/**
+	 * 小数部付きの編集を行いdstに書き込む.
+	 * @param dst 書き込み先(領域不足の場合はException)
+	 * @param offset 書き込み開始位置
+	 * @param unscaledValue 小数点を除いた数値
+	 * @param scale 小数部の桁数(0～18)
+	 * @return 書き込んだ文字数
+	 */
+	public int format(char[] dst, int offset, long unscaledValue, int scale) {
+		int len = length(unscaledValue, scale);
+		//書き込み前に領域をチェック(途中まで書き込まない)
+		if (offset < 0 || offset > dst.length - len) {
+			throw new ArrayIndexOutOfBoundsException(
+				"offset " + offset + ", length " + len + ", array length " + dst.length);
+		}
+		formatBackward(unscaledValue, scale, dst, offset + len);
+		return len;
+	}
+	/**
+	 * 編集後の文字数取得.
+	 * @param unscaledValue 小数点を除いた数値
+	 * @param scale 小数部の桁数(0～18)
+	 * @return 編集後の文字数
+	 */
+	public static int length(long unscaledValue, int scale) {
+		if (scale < 0 || scale > 18) {
+			throw new RuntimeException("小数部の桁数が不正です。scale=" + scale);
+		}
+		//負の値のまま桁数を数える(Long.MIN_VALUE対応)
+		long v = unscaledValue < 0 ? unscaledValue : -unscaledValue;
+		int digits = 0;
+		do {
+			v /= 10;
+			digits++;
+		} while (v != 0);
+		//整数部は最低1桁
+		int intDigits = digits > scale ? digits - scale : 1;
+		int rtn = intDigits + (intDigits - 1) / 3;
+		if (scale > 0) {
+			rtn += scale + 1;
+		}
+		if (unscaledValue < 0) {
+			rtn++;
+		}
+		return rtn;
+	}
+	/**
+	 * bufのendから逆順に編集.
+	 * Long.MIN_VALUEも扱えるよう、負の値のまま桁を取り出す。
+	 * @return 編集結果の開始位置(endまでが結果)
+	 */
+	private int formatBackward(long unscaledValue, int scale, char[] buf, int end) {
+		if (scale < 0 || scale > 18) {
+			throw new RuntimeException("小数部の桁数が不正です。scale=" + scale);
+		}
+		long v = unscaledValue < 0 ? unscaledValue : -unscaledValue;
+		int pos = end;
+		//小数部
+		if (scale > 0) {
+			for (int i = 0; i < scale; i++) {
+				buf[--pos] = (char) ('0' - v % 10);
+				v /= 10;
+			}
+			buf[--pos] = decimalSeparator;
+		}
+		//整数部(最低1桁)
+		int digits = 0;
+		do {
+			if (digits > 0 && digits % 3 == 0) {
+				buf[--pos] = groupingSeparator;
+			}
+			buf[--pos] = (char) ('0' - v % 10);
+			v /= 10;
+			digits++;
+		} while (v != 0);
+		if (unscaledValue < 0) {
+			buf[--pos] = '-';
+		}
+		return pos;
+	}
+
+	//--------------------------------------------------------------------------
+	// BigDecimal
+	//--------------------------------------------------------------------------
+	/**
+	 * BigDecimalの編集(小数部はscaleの桁数をそのまま出力、指数表記なし).
+	 * @param value 数値(nullの場合はException)
+	 * @return 編集後の文字列
+	 */
+	public String format(BigDecimal value) {
+		StringBuilder sb = new StringBuilder();
+		try {
+			format(sb, value);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		return sb.toString();
+	}
+	/**
+	 * BigDecimalの編集を行いoutに追加.
+	 * @param out 追加先
+	 * @param value 数値(nullの場合はException)
+	 * @return 追加した文字数
+	 * @throws IOException outへの追加エラー
+	 */
+	public int format(Appendable out, BigDecimal value) throws IOException {
+		if (value.scale() < 0) {
+			value = value.setScale(0);
+		}
+		BigInteger unscaled = value.unscaledValue();
+		//longに収まる場合は文字列を生成しない
+		if (unscaled.bitLength() < 64 && value.scale() <= 18) {
+			return format(out, unscaled.longValue(), value.scale());
+		}
+		return format(out, value.toPlainString());
+	}
+
+	//--------------------------------------------------------------------------
+	// 数字文字列
+	//--------------------------------------------------------------------------
+	/**
+	 * 数値文字列判断.
+	 * 符号(+/-)は任意、整数部は1桁以上の半角数字、小数部は任意('.'の後に1桁以上の半角数字)。
+	 * @param value 処理対象文字列
+	 * @return true:数値文字列
+	 */
+	public static boolean isNumber(CharSequence value) {
+		int len = value.length();
+		int i = 0;
+		if (i < len && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+			i++;
+		}
+		int intBegin = i;
+		while (i < len && isDigit(value.charAt(i))) {
+			i++;
+		}
+		if (i == intBegin) {
+			return false;
+		}
+		if (i == len) {
+			return true;
+		}
+		if (value.charAt(i++) != '.' || i == len) {
+			return false;
+		}
+		while (i < len && isDigit(value.charAt(i))) {
+			i++;
+		}
+		return i == len;
+	}
+	/**
+	 * 数値文字列(isNumber()がtrue)の編集を行いoutに追加.
+	 * 符号・小数部は編集せず、整数部のみ区切る。小数点はdecimalSeparatorに置き換える。
+	 * @param out 追加先
+	 * @param value 数値文字列
+	 * @return 追加した文字数
+	 * @throws IOException outへの追加エラー
+	 */
+	public int format(Appendable out, CharSequence value) throws IOException {
+		int len = value.length();
+		int intBegin = len > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+') ? 1 : 0;
+		int intEnd = intBegin;
+		while (intEnd < len && isDigit(value.charAt(intEnd))) {
+			intEnd++;
+		}
+		int rtn = 0;
+		for (int i = 0; i < len; i++) {
+			char c = value.charAt(i);
+			if (i >= intEnd) {
+				out.append(i == intEnd ? decimalSeparator : c);
+			} else {
+				if (i > intBegin && (intEnd - i) % 3 == 0) {
+					out.append(groupingSeparator);
+					rtn++;
+				}
+				out.append(c);
+			}
+			rtn++;
+		}
+		return rtn;
+	}
+	/**
+	 * 数値文字列(isNumber()がtrue)の編集を行いdstに書き込む.
+	 * @param dst 書き込み先(領域不足の場合はException)
+	 * @param offset 書き込み開始位置
+	 * @param value 数値文字列
+	 * @return 書き込んだ文字数
+	 */
+	public int format(char[] dst, int offset, CharSequence value) {
+		int len = value.length();
+		int intBegin = len > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+') ? 1 : 0;
+		int intEnd = intBegin;
+		while (intEnd < len && isDigit(value.charAt(intEnd))) {
+			intEnd++;
+		}
+		int pos = offset;
+		for (int i = 0; i < len; i++) {
+			char c = value.charAt(i);
+			if (i >= intEnd) {
+				dst[pos++] = i == intEnd ? decimalSeparator : c;
+			} else {
+				if (i > intBegin && (intEnd - i) % 3 == 0) {
+					dst[pos++] = groupingSeparator;
+				}
+				dst[pos++] = c;
+			}
+		}
+		return pos - offset;
+	}
+	/**
+	 * 編集後の最大文字数取得.
+	 * @param length 編集前の文字数
+	 * @return 最大文字数
+	 */
+	public static int maxLength(int length) {
+		return length + length / 3;
+	}
+	/**
+	 * 半角数字判断.
+	 */
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+}
@@ -0,0 +1,291 @@
+import java.util.Date;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 日付変換結果のキャッシュ.
+ * 入力文字列をキーにStringUtilsのparse系/is系/addDateの変換結果を保持する。
+ * 業務日付のように種類の少ない入力を大量に変換する場合に使う。
+ * <ul>
+ * <li>容量固定の4way セットアソシアティブ、セット内はCLOCK(参照ビット)で追い出す</li>
+ * <li>参照はロックなし(参照ビットは落ちている場合のみ書き込む)、登録はCAS(競合時は後勝ち、ClockTable)</li>
+ * <li>キャッシュするのは変換結果のミリ秒(不変)で、Dateは呼び出し毎に新しく生成する</li>
+ * </ul>
+ * 結果はStringUtilsの同名メソッドと同じ(未登録時はStringUtilsで変換する)。
+ * <pre>
+ * DateCache cache = new DateCache(4096);
+ * Date d = cache.parseYYYYMMDD(in);
+ * </pre>
+ */
+public final class DateCache {
+	/** デフォルトの容量 */
+	public static final int DEFAULT_CAPACITY = 4096;
+	/** 変換エラー(nullを返す)を表す値 */
+	private static final long INVALID = Long.MIN_VALUE;
+	/** 種類:yyyyMMddHHmmss */
+	private static final int YYYYMMDDHHMMSS = 1;
+	/** 種類:yyyyMMdd */
+	private static final int YYYYMMDD = 2;
+	/** 種類:HHmmss */
+	private static final int HHMMSS = 3;
+	/** 種類:HHmm */
+	private static final int HHMM = 4;
+	/** 種類:yyyyMMdd形式のint(addDate用) */
+	private static final int YMD = 5;
+
+	/** 登録内容(不変) */
+	private final ClockTable<Entry> table;
+	/** ヒット数 */
+	private final LongAdder hits = new LongAdder();
+	/** ミス数 */
+	private final LongAdder misses = new LongAdder();
+	/** 追い出し数 */
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * コンストラクタ(容量はDEFAULT_CAPACITY).
+	 */
+	public DateCache() {
+		this(DEFAULT_CAPACITY);
+	}
+	/**
+	 * コンストラクタ.
+	 * @param capacity 容量(件数、4の倍数の2のべき乗に切り上げ)
+	 */
+	public DateCache(int capacity) {
+		if (capacity < 1 || capacity > (1 << 28)) {
+			throw new RuntimeException("DateCache()エラー:capacity=" + capacity);
+		}
+		this.table = new ClockTable<Entry>(capacity);
+	}
+	/**
+	 * 容量取得.
+	 * @return 容量(件数)
+	 */
+	public int capacity() {
+		return table.capacity();
+	}
+
+	//--------------------------------------------------------------------------
+	// 変換(StringUtilsと同じ結果)
+	//--------------------------------------------------------------------------
+	/**
+	 * "yyyyMMddHHmmss"->Date型変換(StringUtils.parseYYYYMMDDHHMMSSと同じ).
+	 * @param in yyyyMMddHHmmss形式の文字列(nullの場合はException)
+	 * @return Date型の日付(null時、変換エラー)
+	 */
+	public Date parseYYYYMMDDHHMMSS(String in) {
+		return toDate(get(YYYYMMDDHHMMSS, in));
+	}
+	/**
+	 * "yyyyMMdd"->Date型変換(StringUtils.parseYYYYMMDDと同じ).
+	 * @param in yyyyMMdd形式の文字列(nullの場合はException)
+	 * @return Date型の日付(null時、変換エラー)
+	 */
+	public Date parseYYYYMMDD(String in) {
+		return toDate(get(YYYYMMDD, in));
+	}
+	/**
+	 * "HHmmss"->Date型変換(StringUtils.parseHHMMSSと同じ).
+	 * @param in HHmmss形式の文字列(nullの場合はException)
+	 * @return Date型の日付(null時、変換エラー)
+	 */
+	public Date parseHHMMSS(String in) {
+		return toDate(get(HHMMSS, in));
+	}
+	/**
+	 * "HHmm"->Date型変換(StringUtils.parseHHMMと同じ).
+	 * @param in HHmm形式の文字列(nullの場合はException)
+	 * @return Date型の日付(null時、変換エラー)
+	 */
+	public Date parseHHMM(String in) {
+		return toDate(get(HHMM, in));
+	}
+	/**
+	 * "yyyyMMddHHmmss"チェック(StringUtils.isYYYYMMDDHHMMSSと同じ).
+	 * @param in 入力文字列(nullの場合はException)
+	 * @return true:チェックOK
+	 */
+	public boolean isYYYYMMDDHHMMSS(String in) {
+		return get(YYYYMMDDHHMMSS, in) != INVALID;
+	}
+	/**
+	 * "yyyyMMdd"チェック(StringUtils.isYYYYMMDDと同じ).
+	 * @param in 入力文字列(nullの場合はException)
+	 * @return true:チェックOK
+	 */
+	public boolean isYYYYMMDD(String in) {
+		return get(YYYYMMDD, in) != INVALID;
+	}
+	/**
+	 * "HHmmss"チェック(StringUtils.isHHMMSSと同じ).
+	 * @param in 入力文字列(nullの場合はException)
+	 * @return true:チェックOK
+	 */
+	public boolean isHHMMSS(String in) {
+		return get(HHMMSS, in) != INVALID;
+	}
+	/**
+	 * "HHmm"チェック(StringUtils.isHHMMと同じ).
+	 * @param in 入力文字列(nullの場合はException)
+	 * @return true:チェックOK
+	 */
+	public boolean isHHMM(String in) {
+		return get(HHMM, in) != INVALID;
+	}
+	/**
+	 * 指定日付から指定日数加えた(引いた)日付を取得(StringUtils.addDateと同じ).
+	 * 入力の解析結果をキャッシュし、日数の加算は毎回計算する。
+	 * @param in yyyyMMdd形式の文字列(null、日付変換エラーの場合はException)
+	 * @param inDateLength 加算日数(負の場合は減算日数)
+	 * @return 求められたyyyyMMdd形式の文字列
+	 */
+	public String addDate(String in, int inDateLength) {
+		long ymd = get(YMD, in);
+		int rtn = ymd == INVALID ? DateEngine.INVALID : DateEngine.addDays((int) ymd, inDateLength);
+		if (rtn == DateEngine.INVALID) {
+			//エラー時の例外はStringUtilsに任せる
+			return StringUtils.addDate(in, inDateLength);
+		}
+		return DateEngine.formatYYYYMMDD(rtn);
+	}
+
+	//--------------------------------------------------------------------------
+	// 統計
+	//--------------------------------------------------------------------------
+	/**
+	 * ヒット数取得.
+	 * @return ヒット数
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+	/**
+	 * ミス数取得.
+	 * @return ミス数
+	 */
+	public long getMissCount() {
+		return misses.sum();
+	}
+	/**
+	 * 追い出し数取得.
+	 * @return 追い出し数
+	 */
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+	/**
+	 * ヒット率取得.
+	 * @return ヒット率(0～1、呼び出しなしの場合は0)
+	 */
+	public double getHitRate() {
+		long h = hits.sum();
+		long total = h + misses.sum();
+		return total == 0 ? 0 : (double) h / total;
+	}
+	/**
+	 * 全件削除(統計はクリアしない).
+	 */
+	public void clear() {
+		table.clear();
+	}
+	@Override
+	public String toString() {
+		return "DateCache[capacity=" + capacity()
+			+ ",hits=" + getHitCount()
+			+ ",misses=" + getMissCount()
+			+ ",evictions=" + getEvictionCount() + "]";
+	}
+
+	//--------------------------------------------------------------------------
+	// キャッシュ
+	//--------------------------------------------------------------------------
+	/**
+	 * 変換結果取得(未登録の場合は変換して登録).
+	 * @return 変換結果(INVALID時、変換エラー)
+	 */
+	private long get(int kind, String in) {
+		if (in == null) {
+			//StringUtilsと同じException
+			return convert(kind, in);
+		}
+		int h = hash(kind, in);
+		int base = table.base(h);
+		for (int i = base; i < base + ClockTable.WAYS; i++) {
+			Entry e = table.get(i);
+			if (e != null && e.hash == h && e.kind == kind && e.key.equals(in)) {
+				table.touch(i);
+				hits.increment();
+				return e.value;
+			}
+		}
+		misses.increment();
+		long value = convert(kind, in);
+		if (table.put(base, new Entry(h, kind, in, value))) {
+			evictions.increment();
+		}
+		return value;
+	}
+	/**
+	 * 変換(StringUtils/DateEngineに委譲).
+	 * @return 変換結果(INVALID時、変換エラー)
+	 */
+	private static long convert(int kind, String in) {
+		Date d;
+		switch (kind) {
+			case YYYYMMDDHHMMSS:
+				d = StringUtils.parseYYYYMMDDHHMMSS(in);
+				break;
+			case YYYYMMDD:
+				d = StringUtils.parseYYYYMMDD(in);
+				break;
+			case HHMMSS:
+				d = StringUtils.parseHHMMSS(in);
+				break;
+			case HHMM:
+				d = StringUtils.parseHHMM(in);
+				break;
+			default:
+				//addDateと同じ判断(nullはException)
+				if (in == null) {
+					StringUtils.addDate(in, 0);
+				}
+				int ymd = in.length() == 8 ? DateEngine.parseYYYYMMDD(in, 0) : DateEngine.INVALID;
+				return ymd == DateEngine.INVALID ? INVALID : ymd;
+		}
+		return d == null ? INVALID : d.getTime();
+	}
+	/**
+	 * ミリ秒->Date型変換(呼び出し毎に新しいDate).
+	 */
+	private static Date toDate(long millis) {
+		return millis == INVALID ? null : new Date(millis);
+	}
+	/**
+	 * 種類と入力文字列のハッシュ.
+	 */
+	private static int hash(int kind, String in) {
+		int h = in.hashCode() * 31 + kind;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * 登録内容(不変).
+	 */
+	private static final class Entry {
+		/** ハッシュ */
+		final int hash;
+		/** 種類 */
+		final int kind;
+		/** 入力文字列 */
+		final String key;
+		/** 変換結果 */
+		final long value;
+
+		Entry(int hash, int kind, String key, long value) {
+			this.hash = hash;
+			this.kind = kind;
+			this.key = key;
+			this.value = value;
+		}
+	}
+}
@@ -0,0 +1,645 @@
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+/**
+ * 日付エンジン.
+ * yyyyMMdd/HHmmss等の固定桁数字形式を算術で解析・検証する。
+ * 共有する可変状態を持たないため、ロックなしで複数スレッドから呼び出せる。
+ * (注)1582年以前(ユリウス暦期間)はGregorianCalendarに委譲し、従来の結果と一致させる。
+ * (注)java.timeとTimeZoneでオフセットが異なる期間(TimeZoneが1900年より前の切替を持たない、2038年以降を年毎の規則で近似する等)、
+ * 夏時間の切替で存在しない時刻、切替付近の日数加算もGregorianCalendarに委譲する。
+ */
+public final class DateEngine {
+	/** コンストラクタ(全てstaticメソッドのクラスなのでインスタンス化なし) */
+	private DateEngine() {
+	}
+	/** 変換エラー時の戻り値 */
+	public static final int INVALID = -1;
+	/** 算術で扱う最初の年(これより前はGregorianCalendarに委譲) */
+	private static final int FIRST_ARITHMETIC_YEAR = 1583;
+	/** 0000/03/01から1970/01/01までの日数 */
+	private static final long DAYS_0000_TO_1970 = 719528L;
+	/** 400年周期の日数 */
+	private static final long DAYS_PER_CYCLE = 146097L;
+	/** 1日の秒数 */
+	private static final int SECONDS_PER_DAY = 86400;
+	/** 1週間の秒数(タイムゾーンのオフセットを比較する間隔) */
+	private static final long SECONDS_PER_WEEK = 7L * SECONDS_PER_DAY;
+	/** タイムゾーン(従来のDateFormatと同じくクラス初期化時のデフォルトを使用) */
+	private static final ZoneId ZONE = ZoneId.systemDefault();
+	/** タイムゾーンのルール(不変) */
+	private static final ZoneRules RULES = ZONE.getRules();
+	/** 1900/01/01 00:00:00 UTCの秒(TimeZoneはこれより前の切替を持たない) */
+	private static final long UTC_1900_SECOND = -2208988800L;
+	/** 2038/01/01 00:00:00 UTCの秒(TimeZoneはこれ以降を年毎の規則で計算する) */
+	private static final long UTC_2038_SECOND = 2145916800L;
+	/**
+	 * 切替を検証する終わりの秒.
+	 * java.timeの最後の明示的な切替と2038年の遅い方から3年(以降は両方とも同じ年毎の規則で計算する)。
+	 */
+	private static final long CHECK_END_SECOND = checkEndSecond();
+	/** java.timeの切替の秒(1970/01/01 00:00:00 UTCからの秒、CHECK_END_SECONDより前、昇順) */
+	private static final long[] TRANSITIONS = transitions();
+	/**
+	 * java.timeで変換する最初の秒(1970/01/01 00:00:00 UTCからの秒).
+	 * 1970年より前でjava.timeとTimeZoneのオフセットが異なる期間の終わりに1日(オフセットの最大18時間)の余裕を加えた値。
+	 * UTCの秒と地方時の秒(UTCとみなした秒)のどちらと比較しても、異なる期間はGregorianCalendarに委譲される。
+	 */
+	private static final long FIRST_ZONE_SECOND = firstZoneSecond();
+	/**
+	 * java.timeで変換する終わりの秒(この値を含まない).
+	 * 1970年以降でjava.timeとTimeZoneのオフセットが異なる期間の始まりから1日の余裕を引いた値。
+	 */
+	private static final long LAST_ZONE_SECOND = lastZoneSecond();
+	/** 日の種類:日数の加算を算術で行う */
+	private static final int DAY_ARITHMETIC = 0;
+	/** 日の種類:切替付近(GregorianCalendar.addと同じ補正を行う) */
+	private static final int DAY_NEAR_TRANSITION = 1;
+	/** 日の種類:java.timeで変換しない期間(GregorianCalendarに委譲) */
+	private static final int DAY_LEGACY = 2;
+	/** 切替付近の日のビットの最初の日(1970/01/01からの日数) */
+	private static final long NEAR_FROM_DAY = TRANSITIONS.length == 0
+		? 0
+		: Math.floorDiv(TRANSITIONS[0], (long) SECONDS_PER_DAY) - 2;
+	/** 切替付近の日(切替の前後2日)のビット(NEAR_FROM_DAYから) */
+	private static final long[] NEAR_DAYS = nearDays();
+
+	//--------------------------------------------------------------------------
+	// 解析
+	//--------------------------------------------------------------------------
+	/**
+	 * "yyyyMMdd"->yyyyMMdd形式のint変換.
+	 * @param s 入力文字列(nullの場合はException)
+	 * @param offset 開始位置
+	 * @return yyyyMMdd形式のint(INVALID時、変換エラー)
+	 */
+	public static int parseYYYYMMDD(CharSequence s, int offset) {
+		int y = digits(s, offset, 4);
+		int m = digits(s, offset + 4, 2);
+		int d = digits(s, offset + 6, 2);
+		if ((y | m | d) < 0 || !isValidDate(y, m, d)) {
+			return INVALID;
+		}
+		return y * 10000 + m * 100 + d;
+	}
+	/**
+	 * "HHmmss"->0時からの秒数変換.
+	 * @param s 入力文字列(nullの場合はException)
+	 * @param offset 開始位置
+	 * @return 0時からの秒数(INVALID時、変換エラー)
+	 */
+	public static int parseHHMMSS(CharSequence s, int offset) {
+		int ss = digits(s, offset + 4, 2);
+		if (ss < 0 || ss > 59) {
+			return INVALID;
+		}
+		int hm = parseHHMM(s, offset);
+		if (hm < 0) {
+			return INVALID;
+		}
+		return hm + ss;
+	}
+	/**
+	 * "HHmm"->0時からの秒数変換.
+	 * @param s 入力文字列(nullの場合はException)
+	 * @param offset 開始位置
+	 * @return 0時からの秒数(INVALID時、変換エラー)
+	 */
+	public static int parseHHMM(CharSequence s, int offset) {
+		int h = digits(s, offset, 2);
+		int mi = digits(s, offset + 2, 2);
+		if (h < 0 || h > 23 || mi < 0 || mi > 59) {
+			return INVALID;
+		}
+		return h * 3600 + mi * 60;
+	}
+	/**
+	 * 半角数字n桁をintに変換.
+	 * @param s 入力文字列
+	 * @param offset 開始位置
+	 * @param n 桁数
+	 * @return 数値(半角数字以外又は範囲外の場合は-1)
+	 */
+	private static int digits(CharSequence s, int offset, int n) {
+		if (offset < 0 || offset + n > s.length()) {
+			return -1;
+		}
+		int rtn = 0;
+		for (int i = offset; i < offset + n; i++) {
+			int d = s.charAt(i) - '0';
+			if (d < 0 || d > 9) {
+				return -1;
+			}
+			rtn = rtn * 10 + d;
+		}
+		return rtn;
+	}
+
+	//--------------------------------------------------------------------------
+	// 暦計算
+	//--------------------------------------------------------------------------
+	/**
+	 * 日付の妥当性チェック.
+	 * @param y 年
+	 * @param m 月
+	 * @param d 日
+	 * @return true:存在する日付
+	 */
+	public static boolean isValidDate(int y, int m, int d) {
+		if (y < FIRST_ARITHMETIC_YEAR) {
+			return legacyMillis(y, m, d, 0, false) != Long.MIN_VALUE;
+		}
+		return m >= 1 && m <= 12 && d >= 1 && d <= lengthOfMonth(y, m);
+	}
+	/**
+	 * うるう年判断(グレゴリオ暦).
+	 * @param y 年
+	 * @return true:うるう年
+	 */
+	public static boolean isLeapYear(int y) {
+		return (y & 3) == 0 && (y % 100 != 0 || y % 400 == 0);
+	}
+	/**
+	 * 月の日数取得(グレゴリオ暦).
+	 * @param y 年
+	 * @param m 月(1-12)
+	 * @return 日数
+	 */
+	public static int lengthOfMonth(int y, int m) {
+		if (m == 2) {
+			return isLeapYear(y) ? 29 : 28;
+		}
+		//4,6,9,11月は30日
+		return (m == 4 || m == 6 || m == 9 || m == 11) ? 30 : 31;
+	}
+	/**
+	 * yyyyMMdd形式のint->1970/01/01からの日数変換(グレゴリオ暦).
+	 * 1582年以前も先発グレゴリオ暦で計算する(java.time.LocalDate.toEpochDay()と同じ)。
+	 * @param ymd yyyyMMdd形式のint
+	 * @return 1970/01/01からの日数
+	 */
+	public static long toEpochDay(int ymd) {
+		long y = ymd / 10000;
+		int m = ymd / 100 % 100;
+		int d = ymd % 100;
+		long total = 365 * y + (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+		total += (367 * m - 362) / 12;
+		total += d - 1;
+		if (m > 2) {
+			total--;
+			if (!isLeapYear((int) y)) {
+				total--;
+			}
+		}
+		return total - DAYS_0000_TO_1970;
+	}
+	/**
+	 * 1970/01/01からの日数->yyyyMMdd形式のint変換(グレゴリオ暦).
+	 * 1582年以前も先発グレゴリオ暦で計算する(java.time.LocalDate.ofEpochDay()と同じ)。
+	 * @param epochDay 1970/01/01からの日数(0001/01/01以降)
+	 * @return yyyyMMdd形式のint
+	 */
+	public static int fromEpochDay(long epochDay) {
+		//03/01始まりの400年周期で計算(java.time.LocalDateと同じ方式)
+		long zeroDay = epochDay + DAYS_0000_TO_1970 - 60;
+		long yearEst = (400 * zeroDay + 591) / DAYS_PER_CYCLE;
+		long doyEst = zeroDay - (365 * yearEst + yearEst / 4 - yearEst / 100 + yearEst / 400);
+		if (doyEst < 0) {
+			yearEst--;
+			doyEst = zeroDay - (365 * yearEst + yearEst / 4 - yearEst / 100 + yearEst / 400);
+		}
+		int marchDoy0 = (int) doyEst;
+		int marchMonth0 = (marchDoy0 * 5 + 2) / 153;
+		int m = (marchMonth0 + 2) % 12 + 1;
+		int d = marchDoy0 - (marchMonth0 * 306 + 5) / 10 + 1;
+		int y = (int) (yearEst + marchMonth0 / 10);
+		return y * 10000 + m * 100 + d;
+	}
+	/**
+	 * 指定日付に指定日数を加算(減算).
+	 * @param ymd yyyyMMdd形式のint
+	 * @param days 加算日数(負の場合は減算日数)
+	 * @return yyyyMMdd形式のint(INVALID時、ymdがタイムゾーンの切替で存在しない日)
+	 */
+	public static int addDays(int ymd, int days) {
+		if (ymd / 10000 >= FIRST_ARITHMETIC_YEAR) {
+			long fromDay = toEpochDay(ymd);
+			long toDay = fromDay + days;
+			int rtn = fromEpochDay(toDay);
+			if (rtn / 10000 >= FIRST_ARITHMETIC_YEAR) {
+				int kind = Math.max(dayKind(fromDay), dayKind(toDay));
+				if (kind == DAY_ARITHMETIC) {
+					return rtn;
+				}
+				if (kind == DAY_NEAR_TRANSITION) {
+					return addDaysNearTransition(ymd, fromDay, toDay);
+				}
+			}
+		}
+		//ユリウス暦期間・java.timeで変換しない期間にかかる場合はGregorianCalendarで計算
+		GregorianCalendar cal = legacyCalendar();
+		cal.set(ymd / 10000, ymd / 100 % 100 - 1, ymd % 100);
+		try {
+			cal.add(GregorianCalendar.DATE, days);
+		} catch (IllegalArgumentException e) {
+			//タイムゾーンの切替で存在しない日
+			return INVALID;
+		}
+		return legacyYMD(cal);
+	}
+	/**
+	 * ２つの日付の差の日数取得.
+	 * @param fromYmd yyyyMMdd形式のint(基準日)
+	 * @param toYmd yyyyMMdd形式のint
+	 * @return toYmd - fromYmd の日数(toYmdが前の場合は負)
+	 */
+	public static int daysBetween(int fromYmd, int toYmd) {
+		return (int) (calendarDay(toYmd) - calendarDay(fromYmd));
+	}
+	/**
+	 * 曜日取得.
+	 * @param ymd yyyyMMdd形式のint
+	 * @return 曜日(1:日曜～7:土曜、java.util.Calendar.SUNDAY～SATURDAYと同じ)
+	 */
+	public static int dayOfWeek(int ymd) {
+		//1970/01/01は木曜
+		return (int) Math.floorMod(calendarDay(ymd) + 4, 7L) + 1;
+	}
+	/**
+	 * 月末日取得.
+	 * @param ymd yyyyMMdd形式のint
+	 * @return 同じ月の末日(yyyyMMdd形式のint)
+	 */
+	public static int monthEnd(int ymd) {
+		int y = ymd / 10000;
+		int m = ymd / 100 % 100;
+		if (y < FIRST_ARITHMETIC_YEAR) {
+			GregorianCalendar cal = legacyCalendar();
+			cal.set(y, m - 1, 1);
+			return y * 10000 + m * 100 + cal.getActualMaximum(GregorianCalendar.DATE);
+		}
+		return y * 10000 + m * 100 + lengthOfMonth(y, m);
+	}
+	/**
+	 * yyyyMMdd形式のint->1970/01/01からの日数変換(addDays()と同じ暦).
+	 * 1582年以前はGregorianCalendar(ユリウス暦)で計算する。
+	 */
+	private static long calendarDay(int ymd) {
+		if (ymd / 10000 >= FIRST_ARITHMETIC_YEAR) {
+			return toEpochDay(ymd);
+		}
+		GregorianCalendar cal = new GregorianCalendar(TimeZone.getTimeZone(ZoneOffset.UTC));
+		cal.clear();
+		cal.set(ymd / 10000, ymd / 100 % 100 - 1, ymd % 100);
+		return Math.floorDiv(cal.getTimeInMillis(), SECONDS_PER_DAY * 1000L);
+	}
+
+	//--------------------------------------------------------------------------
+	// Date変換
+	//--------------------------------------------------------------------------
+	/**
+	 * yyyyMMdd形式のint->Date型変換(0時、デフォルトタイムゾーン).
+	 * 0時が夏時間の切替で存在しない日は、切替後の時刻となる(GregorianCalendarと同じ)。
+	 * @param ymd yyyyMMdd形式のint(妥当性チェック済であること)
+	 * @return Date型の日付(null時、タイムゾーンの切替で存在しない日)
+	 */
+	public static Date toDate(int ymd) {
+		long millis = toEpochMilli(ymd, 0, false);
+		if (millis == Long.MIN_VALUE) {
+			return null;
+		}
+		return new Date(millis);
+	}
+	/**
+	 * yyyyMMdd形式のint＋0時からの秒数->Date型変換(デフォルトタイムゾーン).
+	 * @param ymd yyyyMMdd形式のint(妥当性チェック済であること)
+	 * @param secondOfDay 0時からの秒数
+	 * @return Date型の日時(null時、夏時間の切替で存在しない時刻)
+	 */
+	public static Date toDate(int ymd, int secondOfDay) {
+		long millis = toEpochMilli(ymd, secondOfDay, true);
+		if (millis == Long.MIN_VALUE) {
+			return null;
+		}
+		return new Date(millis);
+	}
+	/**
+	 * yyyyMMdd形式のint＋0時からの秒数->1970/01/01 00:00:00 UTCからのミリ秒変換.
+	 * 夏時間の重複時刻は標準時として扱う(GregorianCalendarと同じ)。
+	 * @param ymd yyyyMMdd形式のint(妥当性チェック済であること)
+	 * @param secondOfDay 0時からの秒数
+	 * @param strictTime true:存在しない時刻はエラー、false:切替後の時刻にずらす
+	 * @return ミリ秒(Long.MIN_VALUE時、夏時間の切替で存在しない時刻、strictTime=falseでも日付が存在しない場合)
+	 */
+	static long toEpochMilli(int ymd, int secondOfDay, boolean strictTime) {
+		int y = ymd / 10000;
+		long localSecond = toEpochDay(ymd) * SECONDS_PER_DAY + secondOfDay;
+		if (y < FIRST_ARITHMETIC_YEAR || localSecond < FIRST_ZONE_SECOND || localSecond >= LAST_ZONE_SECOND) {
+			return legacyMillis(y, ymd / 100 % 100, ymd % 100, secondOfDay, strictTime);
+		}
+		if (RULES.isFixedOffset()) {
+			return (localSecond - RULES.getOffset(Instant.EPOCH).getTotalSeconds()) * 1000L;
+		}
+		LocalDateTime local = LocalDateTime.ofEpochSecond(localSecond, 0, ZoneOffset.UTC);
+		List<ZoneOffset> offsets = RULES.getValidOffsets(local);
+		if (offsets.isEmpty()) {
+			//存在しない時刻はGregorianCalendarで計算(strictTime=falseは切替後の時刻にずらす、日付ごと存在しない場合はエラー)
+			return legacyMillis(y, ymd / 100 % 100, ymd % 100, secondOfDay, strictTime);
+		}
+		//重複時刻は後の(標準時の)オフセット
+		return (localSecond - offsets.get(offsets.size() - 1).getTotalSeconds()) * 1000L;
+	}
+	/**
+	 * Date型->yyyyMMdd形式のint変換(デフォルトタイムゾーン).
+	 * @param date Date型の日付(nullの場合はException)
+	 * @return yyyyMMdd形式のint
+	 */
+	public static int fromDate(Date date) {
+		long millis = date.getTime();
+		long second = Math.floorDiv(millis, 1000L);
+		if (second < FIRST_ZONE_SECOND || second >= LAST_ZONE_SECOND) {
+			GregorianCalendar cal = legacyCalendar();
+			cal.setTimeInMillis(millis);
+			return legacyYMD(cal);
+		}
+		int offset = RULES.getOffset(Instant.ofEpochMilli(millis)).getTotalSeconds();
+		long localSecond = second + offset;
+		int rtn = fromEpochDay(Math.floorDiv(localSecond, (long) SECONDS_PER_DAY));
+		if (rtn / 10000 >= FIRST_ARITHMETIC_YEAR) {
+			return rtn;
+		}
+		GregorianCalendar cal = legacyCalendar();
+		cal.setTimeInMillis(millis);
+		return legacyYMD(cal);
+	}
+
+	//--------------------------------------------------------------------------
+	// 書式
+	//--------------------------------------------------------------------------
+	/**
+	 * yyyyMMdd形式のint->"yyyyMMdd"変換.
+	 * 年が４桁未満の場合はゼロ埋め、５桁以上の場合はそのまま出力する(SimpleDateFormatと同じ)。
+	 * @param ymd yyyyMMdd形式のint
+	 * @return yyyyMMdd形式の文字列
+	 */
+	public static String formatYYYYMMDD(int ymd) {
+		char[] buf = new char[formatLength(ymd)];
+		formatYYYYMMDD(ymd, buf, 0);
+		return new String(buf);
+	}
+	/**
+	 * yyyyMMdd形式のint->"yyyyMMdd"をバッファに書き込む.
+	 * 年が４桁の場合は8文字。
+	 * @param ymd yyyyMMdd形式のint
+	 * @param buf 出力先
+	 * @param offset 出力開始位置
+	 * @return 書き込んだ文字数
+	 */
+	public static int formatYYYYMMDD(int ymd, char[] buf, int offset) {
+		int len = formatLength(ymd);
+		int yLen = len - 4;
+		writeDigits(buf, offset + yLen + 2, 2, ymd % 100);
+		writeDigits(buf, offset + yLen, 2, ymd / 100 % 100);
+		writeDigits(buf, offset, yLen, ymd / 10000);
+		return len;
+	}
+	/**
+	 * "yyyyMMdd"の文字数取得.
+	 */
+	private static int formatLength(int ymd) {
+		int y = ymd / 10000;
+		int yLen = 4;
+		for (int v = y / 10000; v > 0; v /= 10) {
+			yLen++;
+		}
+		return yLen + 4;
+	}
+	/**
+	 * 数値を指定桁数の半角数字で書き込む(上位桁はゼロ埋め).
+	 * @param buf 出力先
+	 * @param offset 出力開始位置
+	 * @param n 桁数
+	 * @param v 数値(0以上)
+	 */
+	static void writeDigits(char[] buf, int offset, int n, int v) {
+		for (int i = offset + n - 1; i >= offset; i--) {
+			buf[i] = (char) ('0' + v % 10);
+			v /= 10;
+		}
+	}
+
+	//--------------------------------------------------------------------------
+	// タイムゾーン
+	//--------------------------------------------------------------------------
+	/**
+	 * 日の種類取得(日数の加算用).
+	 * @param epochDay 1970/01/01からの日数
+	 * @return DAY_ARITHMETIC/DAY_NEAR_TRANSITION/DAY_LEGACY
+	 */
+	private static int dayKind(long epochDay) {
+		long second = epochDay * SECONDS_PER_DAY;
+		if (second < FIRST_ZONE_SECOND || second >= LAST_ZONE_SECOND) {
+			return DAY_LEGACY;
+		}
+		if (second >= CHECK_END_SECOND) {
+			//年毎の規則の期間は切替の一覧を持たないので常に補正する
+			return RULES.getTransitionRules().isEmpty() ? DAY_ARITHMETIC : DAY_NEAR_TRANSITION;
+		}
+		long i = epochDay - NEAR_FROM_DAY;
+		if (i < 0 || i >= NEAR_DAYS.length * 64L) {
+			return DAY_ARITHMETIC;
+		}
+		return (NEAR_DAYS[(int) (i >>> 6)] & (1L << i)) != 0 ? DAY_NEAR_TRANSITION : DAY_ARITHMETIC;
+	}
+	/**
+	 * 切替付近の日数加算(GregorianCalendar.add(DATE)と同じ補正).
+	 * 加算前の時刻(0時、0時が存在しない日は切替後の時刻)のまま加算後の日に移し、
+	 * 加算前とオフセットが異なる場合は差を補正する(補正で日付が変わる場合は補正しない)。
+	 * @return yyyyMMdd形式のint(INVALID時、ymdが存在しない日)
+	 */
+	private static int addDaysNearTransition(int ymd, long fromDay, long toDay) {
+		long millis = toEpochMilli(ymd, 0, false);
+		if (millis == Long.MIN_VALUE) {
+			return INVALID;
+		}
+		long second = Math.floorDiv(millis, 1000L);
+		int offset = offsetSeconds(second);
+		long timeOfDay = second + offset - fromDay * SECONDS_PER_DAY;
+		long t = toDay * SECONDS_PER_DAY + timeOfDay - offset;
+		int diff = offset - offsetSeconds(t);
+		if (diff != 0 && Math.floorDiv(t + diff + offsetSeconds(t + diff), (long) SECONDS_PER_DAY) == toDay) {
+			t += diff;
+		}
+		return fromEpochDay(Math.floorDiv(t + offsetSeconds(t), (long) SECONDS_PER_DAY));
+	}
+	/**
+	 * オフセット(秒)取得.
+	 * @param second 1970/01/01 00:00:00 UTCからの秒
+	 * @return オフセット(秒)
+	 */
+	private static int offsetSeconds(long second) {
+		return RULES.getOffset(Instant.ofEpochSecond(second)).getTotalSeconds();
+	}
+	/**
+	 * CHECK_END_SECOND取得.
+	 */
+	private static long checkEndSecond() {
+		List<ZoneOffsetTransition> list = RULES.getTransitions();
+		long last = list.isEmpty() ? 0 : list.get(list.size() - 1).toEpochSecond();
+		return Math.max(last, UTC_2038_SECOND) + 3 * 366L * SECONDS_PER_DAY;
+	}
+	/**
+	 * java.timeの切替の秒の一覧作成(CHECK_END_SECONDより前).
+	 */
+	private static long[] transitions() {
+		long[] rtn = new long[64];
+		int n = 0;
+		ZoneOffsetTransition t = RULES.nextTransition(Instant.MIN);
+		while (t != null && t.toEpochSecond() < CHECK_END_SECOND) {
+			if (n == rtn.length) {
+				rtn = Arrays.copyOf(rtn, n * 2);
+			}
+			rtn[n++] = t.toEpochSecond();
+			t = RULES.nextTransition(t.getInstant());
+		}
+		return Arrays.copyOf(rtn, n);
+	}
+	/**
+	 * FIRST_ZONE_SECOND取得.
+	 * 1900年の直前、1970年より前の切替の前後及び1週間毎にjava.timeとTimeZoneのオフセットを比較し、異なる期間の終わりを求める。
+	 */
+	private static long firstZoneSecond() {
+		TimeZone tz = TimeZone.getTimeZone(ZONE);
+		if (TRANSITIONS.length == 0 && !isSameOffset(tz, 0)) {
+			return Long.MAX_VALUE;
+		}
+		//1900年より前はTimeZoneが一定のオフセットのため、異なる場合は1900年まで
+		long rtn = isSameOffset(tz, UTC_1900_SECOND - 1) ? Long.MIN_VALUE : UTC_1900_SECOND;
+		for (int i = 0; i < TRANSITIONS.length && TRANSITIONS[i] < 0; i++) {
+			//切替前が異なる場合は切替まで、切替後が異なる場合は次の切替まで
+			if (!isSameOffset(tz, TRANSITIONS[i] - 1)) {
+				rtn = Math.max(rtn, TRANSITIONS[i]);
+			}
+			if (!isSameOffset(tz, TRANSITIONS[i])) {
+				rtn = i + 1 < TRANSITIONS.length ? Math.max(rtn, TRANSITIONS[i + 1]) : Long.MAX_VALUE;
+			}
+		}
+		//切替の間で異なる場合(TimeZoneだけの切替)は次に比較する秒まで
+		for (long second = UTC_1900_SECOND; second < 0 && rtn != Long.MAX_VALUE; second += SECONDS_PER_WEEK) {
+			if (!isSameOffset(tz, second)) {
+				rtn = Math.max(rtn, second + SECONDS_PER_WEEK);
+			}
+		}
+		return rtn == Long.MIN_VALUE || rtn == Long.MAX_VALUE ? rtn : rtn + SECONDS_PER_DAY;
+	}
+	/**
+	 * LAST_ZONE_SECOND取得.
+	 * 1970年以降の切替の前後及び1週間毎(CHECK_END_SECONDの1年後まで)にjava.timeとTimeZoneのオフセットを比較し、
+	 * 最初に異なる期間の始まりを求める。
+	 */
+	private static long lastZoneSecond() {
+		TimeZone tz = TimeZone.getTimeZone(ZONE);
+		long rtn = Long.MAX_VALUE;
+		for (int i = 0; i < TRANSITIONS.length; i++) {
+			if (TRANSITIONS[i] < 0) {
+				continue;
+			}
+			//切替前が異なる場合は前の切替から、切替後が異なる場合は切替から
+			if (!isSameOffset(tz, TRANSITIONS[i] - 1)) {
+				rtn = i > 0 ? TRANSITIONS[i - 1] : Long.MIN_VALUE;
+				break;
+			}
+			if (!isSameOffset(tz, TRANSITIONS[i])) {
+				rtn = TRANSITIONS[i];
+				break;
+			}
+		}
+		//切替の間で異なる場合(TimeZoneだけの切替、2038年以降の年毎の規則の違い)は前に比較した秒から
+		long end = Math.min(rtn, CHECK_END_SECOND + 366L * SECONDS_PER_DAY);
+		long prev = 0;
+		for (long second = 0; second < end; second += SECONDS_PER_WEEK) {
+			if (!isSameOffset(tz, second)) {
+				rtn = prev;
+				break;
+			}
+			prev = second;
+		}
+		return rtn == Long.MIN_VALUE || rtn == Long.MAX_VALUE ? rtn : rtn - SECONDS_PER_DAY;
+	}
+	/**
+	 * NEAR_DAYS作成.
+	 */
+	private static long[] nearDays() {
+		if (TRANSITIONS.length == 0) {
+			return new long[0];
+		}
+		long last = Math.floorDiv(TRANSITIONS[TRANSITIONS.length - 1], (long) SECONDS_PER_DAY) + 2;
+		long[] rtn = new long[(int) ((last - NEAR_FROM_DAY) / 64) + 1];
+		for (long t : TRANSITIONS) {
+			long day = Math.floorDiv(t, (long) SECONDS_PER_DAY);
+			for (long d = day - 2; d <= day + 2; d++) {
+				long i = d - NEAR_FROM_DAY;
+				rtn[(int) (i >>> 6)] |= 1L << i;
+			}
+		}
+		return rtn;
+	}
+	/**
+	 * java.timeとTimeZoneのオフセットが同じか判断.
+	 * @param tz TimeZone
+	 * @param second 1970/01/01 00:00:00 UTCからの秒
+	 * @return true:同じ
+	 */
+	private static boolean isSameOffset(TimeZone tz, long second) {
+		return tz.getOffset(second * 1000L) == RULES.getOffset(Instant.ofEpochSecond(second)).getTotalSeconds() * 1000L;
+	}
+
+	//--------------------------------------------------------------------------
+	// ユリウス暦期間・タイムゾーンの切替(GregorianCalendarに委譲)
+	//--------------------------------------------------------------------------
+	/**
+	 * 呼び出し毎に新しいGregorianCalendarを取得(厳密モード).
+	 * @return GregorianCalendar
+	 */
+	private static GregorianCalendar legacyCalendar() {
+		GregorianCalendar cal = new GregorianCalendar(TimeZone.getTimeZone(ZONE));
+		cal.clear();
+		cal.setLenient(false);
+		return cal;
+	}
+	/**
+	 * GregorianCalendarでミリ秒変換.
+	 * @return ミリ秒(Long.MIN_VALUE時、変換エラー)
+	 */
+	private static long legacyMillis(int y, int m, int d, int secondOfDay, boolean strictTime) {
+		GregorianCalendar cal = legacyCalendar();
+		cal.set(y, m - 1, d);
+		if (strictTime) {
+			cal.set(GregorianCalendar.HOUR_OF_DAY, secondOfDay / 3600);
+			cal.set(GregorianCalendar.MINUTE, secondOfDay / 60 % 60);
+			cal.set(GregorianCalendar.SECOND, secondOfDay % 60);
+		}
+		try {
+			return cal.getTimeInMillis();
+		} catch (IllegalArgumentException e) {
+			return Long.MIN_VALUE;
+		}
+	}
+	/**
+	 * GregorianCalendar->yyyyMMdd形式のint変換.
+	 */
+	private static int legacyYMD(GregorianCalendar cal) {
+		return cal.get(GregorianCalendar.YEAR) * 10000
+			+ (cal.get(GregorianCalendar.MONTH) + 1) * 100
+			+ cal.get(GregorianCalendar.DATE);
+	}
+}
@@ -0,0 +1,191 @@
+/**
+ * 半角数字文字列のチェック＆数値変換.
+ * isHalfSizeIntAndMinMaxLength()とInteger.parseInt()を１回の走査で行う。
+ * カンマ区切り(addComma()の結果)も任意で受け付ける。
+ * 変換結果は0以上の数値、エラー時は負のステータスで返し、例外は発生しない。
+ * <pre>
+ * DigitParser.parseInt("0123")               ===> 123
+ * DigitParser.parseLongComma("1,234,567")    ===> 1234567
+ * DigitParser.parseInt("12a")                ===> DigitParser.NOT_DIGIT
+ * </pre>
+ */
+public final class DigitParser {
+	/** コンストラクタ(全てstaticメソッドのクラスなのでインスタンス化なし) */
+	private DigitParser() {
+	}
+	/** エラー:半角数字以外を含む */
+	public static final int NOT_DIGIT = -1;
+	/** エラー:桁数がMIN桁数未満又はMAX桁数超 */
+	public static final int LENGTH_ERROR = -2;
+	/** エラー:桁あふれ(intの場合はInteger.MAX_VALUE超、longの場合はLong.MAX_VALUE超) */
+	public static final int OVERFLOW = -3;
+	/** エラー:null又は空文字 */
+	public static final int EMPTY = -4;
+	/** エラー:カンマの位置が３桁区切りでない */
+	public static final int GROUPING_ERROR = -5;
+
+	/**
+	 * エラー判断.
+	 * @param result 変換結果
+	 * @return true:エラー(負のステータス)
+	 */
+	public static boolean isError(long result) {
+		return result < 0;
+	}
+
+	//--------------------------------------------------------------------------
+	// int
+	//--------------------------------------------------------------------------
+	/**
+	 * 半角数字文字列->int変換.
+	 * @param s 入力文字列
+	 * @return 数値(負の場合はエラーのステータス)
+	 */
+	public static int parseInt(CharSequence s) {
+		return parseInt(s, 1, Integer.MAX_VALUE);
+	}
+	/**
+	 * 半角数字文字列->int変換(MIN桁数＆MAX桁数チェック付き).
+	 * @param s 入力文字列
+	 * @param minLength MIN桁数(文字数)
+	 * @param maxLength MAX桁数(文字数)
+	 * @return 数値(負の場合はエラーのステータス)
+	 */
+	public static int parseInt(CharSequence s, int minLength, int maxLength) {
+		if (s == null) {
+			return EMPTY;
+		}
+		return parseInt(s, 0, s.length(), minLength, maxLength, false);
+	}
+	/**
+	 * カンマ区切りの半角数字文字列->int変換.
+	 * @param s 入力文字列(カンマなしも可)
+	 * @return 数値(負の場合はエラーのステータス)
+	 */
+	public static int parseIntComma(CharSequence s) {
+		if (s == null) {
+			return EMPTY;
+		}
+		return parseInt(s, 0, s.length(), 1, Integer.MAX_VALUE, true);
+	}
+	/**
+	 * 半角数字文字列の範囲->int変換.
+	 * @param s 入力文字列(nullの場合はException)
+	 * @param begin 開始インデックス (この値を含む)
+	 * @param end 終了インデックス (この値を含まない)
+	 * @param minLength MIN桁数(カンマを除いた文字数)
+	 * @param maxLength MAX桁数(カンマを除いた文字数)
+	 * @param comma true:３桁区切りのカンマを受け付ける
+	 * @return 数値(負の場合はエラーのステータス)
+	 */
+	public static int parseInt(CharSequence s, int begin, int end, int minLength, int maxLength, boolean comma) {
+		long rtn = parse(s, begin, end, minLength, maxLength, comma, Integer.MAX_VALUE);
+		return (int) rtn;
+	}
+
+	//--------------------------------------------------------------------------
+	// long
+	//--------------------------------------------------------------------------
+	/**
+	 * 半角数字文字列->long変換.
+	 * @param s 入力文字列
+	 * @return 数値(負の場合はエラーのステータス)
+	 */
+	public static long parseLong(CharSequence s) {
+		return parseLong(s, 1, Integer.MAX_VALUE);
+	}
+	/**
+	 * 半角数字文字列->long変換(MIN桁数＆MAX桁数チェック付き).
+	 * @param s 入力文字列
+	 * @param minLength MIN桁数(文字数)
+	 * @param maxLength MAX桁数(文字数)
+	 * @return 数値(負の場合はエラーのステータス)
+	 */
+	public static long parseLong(CharSequence s, int minLength, int maxLength) {
+		if (s == null) {
+			return EMPTY;
+		}
+		return parseLong(s, 0, s.length(), minLength, maxLength, false);
+	}
+	/**
+	 * カンマ区切りの半角数字文字列->long変換.
+	 * @param s 入力文字列(カンマなしも可)
+	 * @return 数値(負の場合はエラーのステータス)
+	 */
+	public static long parseLongComma(CharSequence s) {
+		if (s == null) {
+			return EMPTY;
+		}
+		return parseLong(s, 0, s.length(), 1, Integer.MAX_VALUE, true);
+	}
+	/**
+	 * 半角数字文字列の範囲->long変換.
+	 * @param s 入力文字列(nullの場合はException)
+	 * @param begin 開始インデックス (この値を含む)
+	 * @param end 終了インデックス (この値を含まない)
+	 * @param minLength MIN桁数(カンマを除いた文字数)
+	 * @param maxLength MAX桁数(カンマを除いた文字数)
+	 * @param comma true:３桁区切りのカンマを受け付ける
+	 * @return 数値(負の場合はエラーのステータス)
+	 */
+	public static long parseLong(CharSequence s, int begin, int end, int minLength, int maxLength, boolean comma) {
+		return parse(s, begin, end, minLength, maxLength, comma, Long.MAX_VALUE);
+	}
+
+	//--------------------------------------------------------------------------
+	// 共通
+	//--------------------------------------------------------------------------
+	/**
+	 * 半角数字文字列の範囲->long変換.
+	 * エラーが複数ある場合は、半角数字以外(カンマ位置)、桁数、桁あふれの順に優先する。
+	 * @param max 最大値
+	 * @return 数値(負の場合はエラーのステータス)
+	 */
+	private static long parse(CharSequence s, int begin, int end, int minLength, int maxLength, boolean comma, long max) {
+		if (begin >= end) {
+			return EMPTY;
+		}
+		long maxDiv10 = max / 10;
+		int maxMod10 = (int) (max % 10);
+		long v = 0;
+		int digits = 0;
+		boolean overflow = false;
+		//カンマ区切り用(直前のカンマからの桁数、-1はカンマなし)
+		int group = -1;
+		int run = 0;
+		for (int i = begin; i < end; i++) {
+			char c = s.charAt(i);
+			if (c >= '0' && c <= '9') {
+				digits++;
+				run++;
+				int d = c - '0';
+				//桁あふれ後も半角数字以外のチェックは続ける
+				if (overflow || v > maxDiv10 || (v == maxDiv10 && d > maxMod10)) {
+					overflow = true;
+				} else {
+					v = v * 10 + d;
+				}
+				continue;
+			}
+			if (c != ',' || !comma) {
+				return NOT_DIGIT;
+			}
+			//先頭のグループは1～3桁、以降は3桁
+			if (run == 0 || run > 3 || (group >= 0 && run != 3)) {
+				return GROUPING_ERROR;
+			}
+			group = run;
+			run = 0;
+		}
+		if (group >= 0 && run != 3) {
+			return GROUPING_ERROR;
+		}
+		if (digits < minLength || digits > maxLength) {
+			return LENGTH_ERROR;
+		}
+		if (overflow) {
+			return OVERFLOW;
+		}
+		return v;
+	}
+}
@@ -0,0 +1,208 @@
+/**
+ * 編集マスク.
+ * "####/##/##"のようなパターンを一度だけコンパイルし、数字列の編集(yyyymmdd ===> yyyy/mm/dd)と
+ * その逆(yyyy/mm/dd ===> yyyymmdd)を１回の走査で１つのchar[]に書き込む。
+ * パターン中の'#'が数字の位置、それ以外の文字は固定文字。
+ * <pre>
+ * EditMask.DATE.edit("20190613")      ===> "2019/06/13"
+ * EditMask.DATE.unEdit("2019/06/13")  ===> "20190613"
+ * EditMask.DATE.editStrict("2019061X") ===> null
+ * </pre>
+ * インスタンスは不変なので複数スレッドで共有できる。
+ */
+public final class EditMask {
+	/** 数字の位置を表す文字 */
+	public static final char DIGIT = '#';
+	/** 日付(yyyymmdd ===> yyyy/mm/dd) */
+	public static final EditMask DATE = compile("####/##/##");
+	/** 年月(yyyymm ===> yyyy年mm月) */
+	public static final EditMask YEAR_MONTH_JP = compile("####年##月");
+	/** 時刻(HHMMSS ===> HH:MM:SS) */
+	public static final EditMask TIME = compile("##:##:##");
+
+	/** パターン */
+	private final String pattern;
+	/** パターン(char[]) */
+	private final char[] mask;
+	/** 数字の位置の数 */
+	private final int digitCount;
+
+	/**
+	 * コンストラクタ(compile()から生成する).
+	 */
+	private EditMask(String pattern) {
+		this.pattern = pattern;
+		this.mask = pattern.toCharArray();
+		int n = 0;
+		for (char c : mask) {
+			if (c == DIGIT) {
+				n++;
+			}
+		}
+		this.digitCount = n;
+	}
+	/**
+	 * パターンをコンパイル.
+	 * @param pattern パターン('#'が数字の位置、'#'を１つ以上含むこと)
+	 * @return 編集マスク
+	 */
+	public static EditMask compile(String pattern) {
+		if (pattern == null || pattern.indexOf(DIGIT) < 0) {
+			throw new RuntimeException("編集マスクのパターンが不正です。pattern=" + pattern);
+		}
+		return new EditMask(pattern);
+	}
+	/**
+	 * パターン取得.
+	 * @return パターン
+	 */
+	public String getPattern() {
+		return pattern;
+	}
+	/**
+	 * 編集後の文字数取得.
+	 * @return パターンの文字数
+	 */
+	public int length() {
+		return mask.length;
+	}
+	/**
+	 * 編集前の文字数取得.
+	 * @return 数字の位置の数
+	 */
+	public int digitCount() {
+		return digitCount;
+	}
+
+	//--------------------------------------------------------------------------
+	// 編集(数字列 ===> パターン)
+	//--------------------------------------------------------------------------
+	/**
+	 * 編集.
+	 * valueの先頭からdigitCount()文字を数字の位置に埋め込む(残りの文字は使わない)。数字チェックなし。
+	 * (注)valueがdigitCount()文字未満の場合、例外発生
+	 * @param value 処理対象文字列
+	 * @return 編集後の文字列
+	 */
+	public String edit(CharSequence value) {
+		char[] buf = new char[mask.length];
+		edit(value, 0, buf, 0, false);
+		return new String(buf);
+	}
+	/**
+	 * 数字チェック付き編集.
+	 * @param value 処理対象文字列(digitCount()文字の半角数字)
+	 * @return 編集後の文字列(null時、nullか文字数不一致か半角数字以外を含む)
+	 */
+	public String editStrict(CharSequence value) {
+		if (value == null || value.length() != digitCount) {
+			return null;
+		}
+		char[] buf = new char[mask.length];
+		if (edit(value, 0, buf, 0, true) < 0) {
+			return null;
+		}
+		return new String(buf);
+	}
+	/**
+	 * 編集してdstに書き込む.
+	 * (注)valueがoffset＋digitCount()文字未満の場合、例外発生
+	 * @param value 処理対象文字列
+	 * @param offset 処理対象の開始位置
+	 * @param dst 書き込み先(length()文字以上の領域)
+	 * @param dstOffset 書き込み開始位置
+	 * @param validate true:数字の位置が半角数字かチェック
+	 * @return 書き込んだ文字数(-1時、半角数字以外を含む。dstは途中まで書き込まれる)
+	 */
+	public int edit(CharSequence value, int offset, char[] dst, int dstOffset, boolean validate) {
+		int k = offset;
+		for (int i = 0; i < mask.length; i++) {
+			char c = mask[i];
+			if (c == DIGIT) {
+				c = value.charAt(k++);
+				if (validate && (c < '0' || c > '9')) {
+					return -1;
+				}
+			}
+			dst[dstOffset + i] = c;
+		}
+		return mask.length;
+	}
+
+	//--------------------------------------------------------------------------
+	// 編集の逆(パターン ===> 数字列)
+	//--------------------------------------------------------------------------
+	/**
+	 * 編集の逆.
+	 * valueの先頭からlength()文字のうち数字の位置の文字を取り出す。固定文字・数字チェックなし。
+	 * (注)valueがlength()文字未満の場合、例外発生
+	 * @param value 処理対象文字列
+	 * @return 数字の位置の文字列
+	 */
+	public String unEdit(CharSequence value) {
+		char[] buf = new char[digitCount];
+		unEdit(value, 0, buf, 0, false);
+		return new String(buf);
+	}
+	/**
+	 * チェック付き編集の逆.
+	 * @param value 処理対象文字列(パターンに一致すること)
+	 * @return 数字の位置の文字列(null時、パターンに一致しない)
+	 */
+	public String unEditStrict(CharSequence value) {
+		if (value == null || value.length() != mask.length) {
+			return null;
+		}
+		char[] buf = new char[digitCount];
+		if (unEdit(value, 0, buf, 0, true) < 0) {
+			return null;
+		}
+		return new String(buf);
+	}
+	/**
+	 * 編集の逆を行いdstに書き込む.
+	 * (注)valueがoffset＋length()文字未満の場合、例外発生
+	 * @param value 処理対象文字列
+	 * @param offset 処理対象の開始位置
+	 * @param dst 書き込み先(digitCount()文字以上の領域)
+	 * @param dstOffset 書き込み開始位置
+	 * @param validate true:固定文字の一致及び数字の位置が半角数字かチェック
+	 * @return 書き込んだ文字数(-1時、パターンに一致しない。dstは途中まで書き込まれる)
+	 */
+	public int unEdit(CharSequence value, int offset, char[] dst, int dstOffset, boolean validate) {
+		int k = dstOffset;
+		for (int i = 0; i < mask.length; i++) {
+			char c = value.charAt(offset + i);
+			if (mask[i] == DIGIT) {
+				if (validate && (c < '0' || c > '9')) {
+					return -1;
+				}
+				dst[k++] = c;
+			} else if (validate && c != mask[i]) {
+				return -1;
+			}
+		}
+		return digitCount;
+	}
+	/**
+	 * パターン一致判断.
+	 * @param value 処理対象文字列
+	 * @return true:文字数・固定文字が一致し、数字の位置が全て半角数字
+	 */
+	public boolean matches(CharSequence value) {
+		if (value == null || value.length() != mask.length) {
+			return false;
+		}
+		for (int i = 0; i < mask.length; i++) {
+			char c = value.charAt(i);
+			if (mask[i] == DIGIT ? (c < '0' || c > '9') : c != mask[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+	@Override
+	public String toString() {
+		return pattern;
+	}
+}
@@ -0,0 +1,553 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * エンコード後のバイト長計算(バイト配列を生成しない).
+ * String.getBytes(文字セット).lengthと同じ値を返す。
+ * <ul>
+ * <li>UTF-8:文字コードから計算(サロゲートペアは4バイト、対のないサロゲートは'?'の1バイト)</li>
+ * <li>MS932(windows-31j)・EUC-JP・Shift_JIS:文字セットから作成した文字毎のバイト長の表(初回使用時に作成)</li>
+ * <li>その他:CharsetEncoderで一定量ずつエンコードしてバイト数のみ数える</li>
+ * </ul>
+ * 大きな入力はReader又は分割した文字列(Counter)で、全体を保持せずに計算できる。
+ * <pre>
+ * long n = EncodedLength.MS932.length(s);
+ * long m = EncodedLength.forName("EUC-JP").length(reader);
+ * </pre>
+ */
+public final class EncodedLength {
+	/** 計算方法:UTF-8 */
+	private static final int UTF8 = 0;
+	/** 計算方法:文字毎のバイト長の表 */
+	private static final int TABLE = 1;
+	/** 計算方法:CharsetEncoder */
+	private static final int ENCODER = 2;
+	/** Readerの読み込み単位(文字数) */
+	private static final int READ_BUFFER = 8192;
+	/** UTF8、TABLEの計算単位(文字数、作業領域の大きさ) */
+	private static final int BLOCK = ScratchBuffer.BLOCK;
+	/** CharsetEncoderでの出力単位(バイト数) */
+	private static final int ENCODE_BUFFER = 8192;
+
+	/** UTF-8 */
+	public static final EncodedLength UTF_8 = new EncodedLength(StandardCharsets.UTF_8, UTF8);
+	/** MS932(windows-31j) */
+	public static final EncodedLength MS932 = new EncodedLength(Charset.forName("windows-31j"), TABLE);
+	/** EUC-JP */
+	public static final EncodedLength EUC_JP = new EncodedLength(Charset.forName("EUC-JP"), TABLE);
+	/** Shift_JIS */
+	public static final EncodedLength SHIFT_JIS = new EncodedLength(Charset.forName("Shift_JIS"), TABLE);
+	/** 文字セット名->計算 */
+	private static final ConcurrentHashMap<String, EncodedLength> BY_NAME = new ConcurrentHashMap<String, EncodedLength>();
+
+	/** 文字セット */
+	private final Charset charset;
+	/** 計算方法 */
+	private final int kind;
+	/** サロゲートペアのバイト長 */
+	private final int pairLength;
+	/** 対のないサロゲートのバイト長 */
+	private final int loneLength;
+	/** 文字毎のバイト長(TABLEの場合、初回使用時に作成) */
+	private volatile byte[] table;
+
+	/**
+	 * コンストラクタ.
+	 * @param charset 文字セット
+	 * @param kind 計算方法
+	 */
+	private EncodedLength(Charset charset, int kind) {
+		this.charset = charset;
+		this.kind = kind;
+		// 文字セット毎の値は実際にエンコードして求める(置換文字の長さ等)
+		this.pairLength = "\uD840\uDC0B".getBytes(charset).length;
+		this.loneLength = "\uD800".getBytes(charset).length;
+	}
+	/**
+	 * 文字セット名から取得.
+	 * @param charsetName 文字セット名(別名可)
+	 * @return 計算
+	 * @throws UnsupportedEncodingException 文字セットが未サポート(String.getBytesと同じ)
+	 */
+	public static EncodedLength forName(String charsetName) throws UnsupportedEncodingException {
+		if (charsetName == null) {
+			throw new NullPointerException("charsetName");
+		}
+		EncodedLength rtn = BY_NAME.get(charsetName);
+		if (rtn != null) {
+			return rtn;
+		}
+		Charset cs;
+		try {
+			cs = Charset.forName(charsetName);
+		} catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+			throw new UnsupportedEncodingException(charsetName);
+		}
+		rtn = forCharset(cs);
+		BY_NAME.putIfAbsent(charsetName, rtn);
+		return rtn;
+	}
+	/**
+	 * 文字セットから取得.
+	 * @param cs 文字セット
+	 * @return 計算
+	 */
+	public static EncodedLength forCharset(Charset cs) {
+		if (cs.equals(UTF_8.charset)) {
+			return UTF_8;
+		} else if (cs.equals(MS932.charset)) {
+			return MS932;
+		} else if (cs.equals(EUC_JP.charset)) {
+			return EUC_JP;
+		} else if (cs.equals(SHIFT_JIS.charset)) {
+			return SHIFT_JIS;
+		}
+		return new EncodedLength(cs, ENCODER);
+	}
+	/**
+	 * 文字セット取得.
+	 * @return 文字セット
+	 */
+	public Charset charset() {
+		return charset;
+	}
+	/**
+	 * 文字毎のバイト長の表取得(ByteWidthModel用、MS932・EUC-JP・Shift_JISのみ).
+	 * (注)共有の表なので変更しないこと
+	 * @return 文字毎のバイト長(サロゲートは0、表がない場合はnull)
+	 */
+	byte[] widthTable() {
+		return kind == TABLE ? table() : null;
+	}
+	/**
+	 * サロゲートペアのバイト長取得.
+	 * @return サロゲートペアのバイト長
+	 */
+	int pairLength() {
+		return pairLength;
+	}
+	/**
+	 * 対のないサロゲートのバイト長取得.
+	 * @return 対のないサロゲートのバイト長
+	 */
+	int loneLength() {
+		return loneLength;
+	}
+
+	//--------------------------------------------------------------------------
+	// 計算
+	//--------------------------------------------------------------------------
+	/**
+	 * バイト長取得.
+	 * @param s 文字列(nullの場合は0)
+	 * @return エンコード後のバイト長
+	 */
+	public long length(CharSequence s) {
+		if (s == null) {
+			return 0;
+		}
+		return length(s, 0, s.length());
+	}
+	/**
+	 * 範囲指定のバイト長取得.
+	 * @param s 文字列
+	 * @param begin 開始インデックス (この値を含む)
+	 * @param end 終了インデックス (この値を含まない)
+	 * @return エンコード後のバイト長
+	 */
+	public long length(CharSequence s, int begin, int end) {
+		if (begin < 0 || end > s.length() || begin > end) {
+			throw new RuntimeException("EncodedLength.length()エラー:begin=" + begin + ",end=" + end + ",length=" + s.length());
+		}
+		switch (kind) {
+			case UTF8:
+			case TABLE:
+				return blocks(s, begin, end);
+			default:
+				return encode(CharBuffer.wrap(s, begin, end));
+		}
+	}
+	/**
+	 * 範囲指定のバイト長取得.
+	 * @param c 文字配列
+	 * @param off 開始位置
+	 * @param len 文字数
+	 * @return エンコード後のバイト長
+	 */
+	public long length(char[] c, int off, int len) {
+		if (off < 0 || len < 0 || off + len > c.length) {
+			throw new RuntimeException("EncodedLength.length()エラー:off=" + off + ",len=" + len + ",length=" + c.length);
+		}
+		switch (kind) {
+			case UTF8:
+				//配列を直接計算(コピーなし)
+				return utf8(c, off, off + len);
+			case TABLE:
+				return table(table(), c, off, off + len);
+			default:
+				return encode(CharBuffer.wrap(c, off, len));
+		}
+	}
+	/**
+	 * Readerの終わりまでのバイト長取得(全体を保持しない).
+	 * (注)Readerはcloseしない
+	 * @param r 入力
+	 * @return エンコード後のバイト長
+	 * @throws IOException 読み込みエラー
+	 */
+	public long length(Reader r) throws IOException {
+		Counter counter = counter();
+		char[] buf = new char[READ_BUFFER];
+		int n;
+		while ((n = r.read(buf)) >= 0) {
+			counter.add(buf, 0, n);
+		}
+		return counter.finish();
+	}
+	/**
+	 * 分割入力用のカウンタ生成.
+	 * 区切り位置がサロゲートペアの間でも、連続した文字列と同じバイト長となる。
+	 * @return カウンタ(スレッドセーフではない)
+	 */
+	public Counter counter() {
+		return new Counter();
+	}
+
+	//--------------------------------------------------------------------------
+	// 計算方法毎の処理
+	//--------------------------------------------------------------------------
+	/**
+	 * ブロック単位のバイト長(UTF8、TABLE).
+	 * 文字をブロック単位で作業領域(ScratchBuffer)にコピーして計算する(サロゲートペアはブロックを跨がない)。
+	 */
+	private long blocks(CharSequence s, int begin, int end) {
+		char[] buf = ScratchBuffer.chars();
+		byte[] t = kind == TABLE ? table() : null;
+		long rtn = 0;
+		int i = begin;
+		while (i < end) {
+			int to = Math.min(i + BLOCK, end);
+			// ブロック末尾の高位サロゲートは次のブロックへ
+			if (to < end && Character.isHighSurrogate(s.charAt(to - 1))) {
+				to--;
+			}
+			copy(s, i, to, buf);
+			rtn += t == null ? utf8(buf, 0, to - i) : table(t, buf, 0, to - i);
+			i = to;
+		}
+		return rtn;
+	}
+	/**
+	 * UTF-8のバイト長(文字コードから計算).
+	 * サロゲートを含まない場合は分岐なしで数え、含む場合は１文字ずつ判断する。
+	 */
+	private long utf8(char[] buf, int from, int to) {
+		long rtn = to - from;
+		int surrogates = 0;
+		for (int i = from; i < to; i++) {
+			int c = buf[i];
+			// 0x80以上は+1、0x800以上は更に+1
+			rtn += ((0x7F - c) >>> 31) + ((0x7FF - c) >>> 31);
+			surrogates |= Character.isSurrogate((char) c) ? 1 : 0;
+		}
+		if (surrogates == 0) {
+			return rtn;
+		}
+		rtn = to - from;
+		for (int i = from; i < to; i++) {
+			char c = buf[i];
+			if (c < 0x80) {
+				continue;
+			} else if (c < 0x800) {
+				rtn += 1;
+			} else if (!Character.isSurrogate(c)) {
+				rtn += 2;
+			} else if (Character.isHighSurrogate(c) && i + 1 < to && Character.isLowSurrogate(buf[i + 1])) {
+				// サロゲートペアは2文字で4バイト
+				i++;
+				rtn += 2;
+			} else {
+				// 対のないサロゲートは'?'に置換される
+				rtn += loneLength - 1;
+			}
+		}
+		return rtn;
+	}
+	/**
+	 * 表によるバイト長.
+	 * サロゲート(表の値が0)を含まない場合は合計のみ、含む場合は１文字ずつ判断する。
+	 */
+	private long table(byte[] t, char[] buf, int from, int to) {
+		long rtn = 0;
+		int surrogates = 0;
+		for (int i = from; i < to; i++) {
+			int b = t[buf[i]];
+			rtn += b;
+			surrogates |= b == 0 ? 1 : 0;
+		}
+		if (surrogates == 0) {
+			return rtn;
+		}
+		rtn = 0;
+		for (int i = from; i < to; i++) {
+			char c = buf[i];
+			int b = t[c];
+			if (b == 0) {
+				if (Character.isHighSurrogate(c) && i + 1 < to && Character.isLowSurrogate(buf[i + 1])) {
+					i++;
+					b = pairLength;
+				} else {
+					b = loneLength;
+				}
+			}
+			rtn += b;
+		}
+		return rtn;
+	}
+	/**
+	 * 文字のコピー(String、StringBuilderはgetChars).
+	 */
+	private static void copy(CharSequence s, int begin, int end, char[] dst) {
+		if (s instanceof String) {
+			((String) s).getChars(begin, end, dst, 0);
+		} else if (s instanceof StringBuilder) {
+			((StringBuilder) s).getChars(begin, end, dst, 0);
+		} else {
+			for (int i = begin; i < end; i++) {
+				dst[i - begin] = s.charAt(i);
+			}
+		}
+	}
+	/**
+	 * 文字毎のバイト長の表取得(未作成の場合は作成).
+	 * 同時に作成した場合も同じ内容なので、後勝ちとする。
+	 */
+	private byte[] table() {
+		byte[] t = table;
+		if (t == null) {
+			t = createTable(charset);
+			table = t;
+		}
+		return t;
+	}
+	/**
+	 * 文字毎のバイト長の表作成(サロゲートは0).
+	 */
+	private static byte[] createTable(Charset cs) {
+		CharsetEncoder encoder = newEncoder(cs);
+		byte[] t = new byte[Character.MAX_VALUE + 1];
+		char[] one = new char[1];
+		CharBuffer in = CharBuffer.wrap(one);
+		ByteBuffer out = ByteBuffer.allocate(16);
+		for (int c = 0; c <= Character.MAX_VALUE; c++) {
+			if (Character.isSurrogate((char) c)) {
+				continue;
+			}
+			one[0] = (char) c;
+			in.clear();
+			out.clear();
+			encoder.reset();
+			encoder.encode(in, out, true);
+			encoder.flush(out);
+			t[c] = (byte) out.position();
+		}
+		return t;
+	}
+	/**
+	 * CharsetEncoderによるバイト長(出力は一定量ずつ捨てる).
+	 */
+	private long encode(CharBuffer in) {
+		CharsetEncoder encoder = newEncoder(charset);
+		ByteBuffer out = ByteBuffer.allocate(ENCODE_BUFFER);
+		long rtn = encode(encoder, in, out, true);
+		return rtn + flush(encoder, out);
+	}
+	/**
+	 * エンコードして出力バイト数を数える.
+	 */
+	private static long encode(CharsetEncoder encoder, CharBuffer in, ByteBuffer out, boolean endOfInput) {
+		long rtn = 0;
+		while (true) {
+			CoderResult cr = encoder.encode(in, out, endOfInput);
+			rtn += out.position();
+			out.clear();
+			if (cr.isUnderflow()) {
+				return rtn;
+			}
+			if (!cr.isOverflow()) {
+				// REPLACE指定なので発生しない
+				throw new RuntimeException("EncodedLength.encode()エラー:" + cr);
+			}
+		}
+	}
+	/**
+	 * エンコーダの残りを出力してバイト数を数える.
+	 */
+	private static long flush(CharsetEncoder encoder, ByteBuffer out) {
+		long rtn = 0;
+		while (encoder.flush(out).isOverflow()) {
+			rtn += out.position();
+			out.clear();
+		}
+		rtn += out.position();
+		out.clear();
+		return rtn;
+	}
+	/**
+	 * String.getBytesと同じ置換を行うエンコーダ生成.
+	 */
+	private static CharsetEncoder newEncoder(Charset cs) {
+		return cs.newEncoder()
+			.onMalformedInput(CodingErrorAction.REPLACE)
+			.onUnmappableCharacter(CodingErrorAction.REPLACE);
+	}
+	@Override
+	public String toString() {
+		return "EncodedLength[" + charset.name() + "]";
+	}
+
+	/**
+	 * 分割入力のバイト長カウンタ.
+	 * addで順に文字を渡し、finishで合計を取得する。
+	 * <pre>
+	 * EncodedLength.Counter c = EncodedLength.UTF_8.counter();
+	 * c.add(chunk1);
+	 * c.add(chunk2);
+	 * long n = c.finish();
+	 * </pre>
+	 */
+	public final class Counter {
+		/** 確定したバイト長 */
+		private long total;
+		/** true:前回の末尾が高位サロゲート(次の先頭と組み合わせる) */
+		private boolean pendingHigh;
+		/** true:finish済 */
+		private boolean finished;
+		/** エンコーダ(ENCODERの場合のみ) */
+		private final CharsetEncoder encoder;
+		/** エンコーダの入力(ENCODERの場合のみ、未処理の文字を次回に持ち越す) */
+		private final CharBuffer staging;
+		/** エンコーダの出力(ENCODERの場合のみ) */
+		private final ByteBuffer out;
+
+		/**
+		 * コンストラクタ(EncodedLength.counter()から生成する).
+		 */
+		private Counter() {
+			if (kind == ENCODER) {
+				encoder = newEncoder(charset);
+				staging = CharBuffer.allocate(READ_BUFFER);
+				out = ByteBuffer.allocate(ENCODE_BUFFER);
+			} else {
+				encoder = null;
+				staging = null;
+				out = null;
+			}
+		}
+		/**
+		 * 文字列の追加.
+		 * @param s 文字列
+		 * @return このカウンタ
+		 */
+		public Counter add(CharSequence s) {
+			return add(s, 0, s.length());
+		}
+		/**
+		 * 文字配列の追加.
+		 * @param c 文字配列
+		 * @param off 開始位置
+		 * @param len 文字数
+		 * @return このカウンタ
+		 */
+		public Counter add(char[] c, int off, int len) {
+			if (off < 0 || len < 0 || off + len > c.length) {
+				throw new RuntimeException("EncodedLength.Counter.add()エラー:off=" + off + ",len=" + len + ",length=" + c.length);
+			}
+			return add(CharBuffer.wrap(c, off, len), 0, len);
+		}
+		/**
+		 * 範囲指定の文字列の追加.
+		 * @param s 文字列
+		 * @param begin 開始インデックス (この値を含む)
+		 * @param end 終了インデックス (この値を含まない)
+		 * @return このカウンタ
+		 */
+		public Counter add(CharSequence s, int begin, int end) {
+			if (finished) {
+				throw new RuntimeException("EncodedLength.Counter.add()エラー:finish済");
+			}
+			if (begin < 0 || end > s.length() || begin > end) {
+				throw new RuntimeException("EncodedLength.Counter.add()エラー:begin=" + begin + ",end=" + end + ",length=" + s.length());
+			}
+			if (kind == ENCODER) {
+				addEncode(s, begin, end);
+				return this;
+			}
+			if (begin == end) {
+				return this;
+			}
+			// 前回の末尾の高位サロゲート
+			if (pendingHigh) {
+				pendingHigh = false;
+				if (Character.isLowSurrogate(s.charAt(begin))) {
+					total += pairLength;
+					begin++;
+				} else {
+					total += loneLength;
+				}
+			}
+			// 末尾の高位サロゲートは次回の先頭と組み合わせる
+			if (begin < end && Character.isHighSurrogate(s.charAt(end - 1))) {
+				pendingHigh = true;
+				end--;
+			}
+			total += length(s, begin, end);
+			return this;
+		}
+		/**
+		 * 合計取得(以降は追加不可).
+		 * @return エンコード後のバイト長の合計
+		 */
+		public long finish() {
+			if (!finished) {
+				finished = true;
+				if (kind == ENCODER) {
+					staging.flip();
+					total += encode(encoder, staging, out, true);
+					total += flush(encoder, out);
+				} else if (pendingHigh) {
+					pendingHigh = false;
+					total += loneLength;
+				}
+			}
+			return total;
+		}
+		/**
+		 * CharsetEncoderでの追加(一定量ずつ入力に移してエンコード).
+		 */
+		private void addEncode(CharSequence s, int begin, int end) {
+			while (begin < end) {
+				int n = Math.min(staging.remaining(), end - begin);
+				for (int i = 0; i < n; i++) {
+					staging.put(s.charAt(begin + i));
+				}
+				begin += n;
+				staging.flip();
+				total += encode(encoder, staging, out, false);
+				// 未処理の文字(途中のサロゲート等)は次回に持ち越す
+				staging.compact();
+			}
+		}
+	}
+}
@@ -0,0 +1,497 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 項目編集のパイプライン.
+ * trim → カット → Padding → チェック のようなStringUtilsの処理の組み合わせを一度定義し、
+ * 途中の文字列を生成せずに処理する。
+ * <ul>
+ * <li>trim・カット:入力文字列の残す範囲(開始・終了オフセット)のみ求める</li>
+ * <li>Padding:残す範囲の文字数又はバイト長からPadding文字数のみ求める</li>
+ * <li>チェック:残す範囲(又はPadding後)をFieldValidatorでチェックする(エラー時は例外発生)</li>
+ * <li>出力:最後に１回だけ作成する(char[]・Appendableへの書き込みの場合は文字列を生成しない)</li>
+ * </ul>
+ * 結果は各処理を順にStringUtilsで行った場合と同じ(入力のnullは空文字として扱う)。
+ * Paddingは１つのみ、trim・カットより後に指定する。
+ * インスタンスは不変なので複数スレッドで共有できる。
+ * <pre>
+ * FieldPipeline name = FieldPipeline.builder()
+ *     .trim()
+ *     .cutStringByte(20)
+ *     .rPadByte(20)
+ *     .build();
+ * String out = name.apply(in);
+ * </pre>
+ */
+public final class FieldPipeline {
+	/** 処理:trim(StringUtils.trim) */
+	private static final int TRIM = 1;
+	/** 処理:右trim(StringUtils.rTrim) */
+	private static final int R_TRIM = 2;
+	/** 処理:文字数でカット(StringUtils.cutString) */
+	private static final int CUT = 3;
+	/** 処理:バイト長でカット(StringUtils.cutStringByte) */
+	private static final int CUT_BYTE = 4;
+	/** Padding:なし */
+	private static final int NONE = 0;
+	/** Padding:右Padding(StringUtils.rPad) */
+	private static final int R_PAD = 1;
+	/** Padding:左Padding(StringUtils.lPad) */
+	private static final int L_PAD = 2;
+	/** Padding:右Padding(StringUtils.rPadByte) */
+	private static final int R_PAD_BYTE = 3;
+	/** Padding:左Padding(StringUtils.lPadByte) */
+	private static final int L_PAD_BYTE = 4;
+
+	/** trim・カットの処理 */
+	private final int[] ops;
+	/** trim・カットの引数(文字数・バイト長) */
+	private final int[] args;
+	/** Paddingの種類 */
+	private final int pad;
+	/** Paddingの最終文字数・最終バイト長 */
+	private final int padLength;
+	/** Padding文字 */
+	private final char padChar;
+	/** バイト長のモデル */
+	private final ByteWidthModel model;
+	/** チェック */
+	private final FieldValidator[] validators;
+	/** チェックの項目番号 */
+	private final int[] validatorIndexes;
+	/** true:Padding後をチェック */
+	private final boolean[] afterPad;
+
+	/**
+	 * コンストラクタ(builder()から生成する).
+	 */
+	private FieldPipeline(Builder b) {
+		int n = b.ops.size();
+		this.ops = new int[n];
+		this.args = new int[n];
+		for (int i = 0; i < n; i++) {
+			this.ops[i] = b.ops.get(i);
+			this.args[i] = b.args.get(i);
+		}
+		this.pad = b.pad;
+		this.padLength = b.padLength;
+		this.padChar = b.padChar;
+		this.model = b.model;
+		int v = b.validators.size();
+		this.validators = b.validators.toArray(new FieldValidator[v]);
+		this.validatorIndexes = new int[v];
+		this.afterPad = new boolean[v];
+		for (int i = 0; i < v; i++) {
+			this.validatorIndexes[i] = b.validatorIndexes.get(i);
+			this.afterPad[i] = b.afterPad.get(i);
+		}
+	}
+	/**
+	 * Builder取得.
+	 * @return Builder
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	//--------------------------------------------------------------------------
+	// 実行
+	//--------------------------------------------------------------------------
+	/**
+	 * 実行.
+	 * @param s 入力文字列(nullの場合は空文字)
+	 * @return 処理後の文字列(範囲・Paddingとも変わらない場合はsをそのまま返す)
+	 */
+	public String apply(String s) {
+		if (s == null) {
+			s = "";
+		}
+		long range = range(s);
+		int begin = begin(range);
+		int end = end(range);
+		int padCount = padCount(s, begin, end);
+		validate(s, begin, end, padCount);
+		if (padCount == 0) {
+			return begin == 0 && end == s.length() ? s : s.substring(begin, end);
+		}
+		if (begin == 0 && end == s.length()) {
+			return pad == R_PAD || pad == R_PAD_BYTE
+				? PadEngine.rPad(s, padCount, padChar)
+				: PadEngine.lPad(s, padCount, padChar);
+		}
+		char[] buf = new char[end - begin + padCount];
+		write(s, begin, end, padCount, buf, 0);
+		return new String(buf);
+	}
+	/**
+	 * 実行してdstに書き込む(文字列を生成しない).
+	 * @param s 入力文字列(nullの場合は空文字)
+	 * @param dst 書き込み先(領域不足の場合はException)
+	 * @param offset 書き込み開始位置
+	 * @return 書き込んだ文字数
+	 */
+	public int apply(String s, char[] dst, int offset) {
+		if (s == null) {
+			s = "";
+		}
+		long range = range(s);
+		int begin = begin(range);
+		int end = end(range);
+		int padCount = padCount(s, begin, end);
+		validate(s, begin, end, padCount);
+		return write(s, begin, end, padCount, dst, offset);
+	}
+	/**
+	 * 実行してoutに追加(文字列を生成しない).
+	 * @param s 入力文字列(nullの場合は空文字)
+	 * @param out 追加先
+	 * @return 追加した文字数
+	 * @throws IOException outへの追加エラー
+	 */
+	public int apply(String s, Appendable out) throws IOException {
+		if (s == null) {
+			s = "";
+		}
+		long range = range(s);
+		int begin = begin(range);
+		int end = end(range);
+		int padCount = padCount(s, begin, end);
+		validate(s, begin, end, padCount);
+		boolean left = pad == L_PAD || pad == L_PAD_BYTE;
+		if (left) {
+			PadEngine.append(out, padChar, padCount);
+		}
+		out.append(s, begin, end);
+		if (!left) {
+			PadEngine.append(out, padChar, padCount);
+		}
+		return end - begin + padCount;
+	}
+	/**
+	 * 実行してoutに追加(文字列を生成しない).
+	 * @param s 入力文字列(nullの場合は空文字)
+	 * @param out 追加先
+	 * @return 追加した文字数
+	 */
+	public int apply(String s, StringBuilder out) {
+		try {
+			return apply(s, (Appendable) out);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+	/**
+	 * 処理後の文字数取得(出力せずに長さのみ求める).
+	 * @param s 入力文字列(nullの場合は空文字)
+	 * @return 処理後の文字数
+	 */
+	public int length(String s) {
+		if (s == null) {
+			s = "";
+		}
+		long range = range(s);
+		int begin = begin(range);
+		int end = end(range);
+		return end - begin + padCount(s, begin, end);
+	}
+
+	//--------------------------------------------------------------------------
+	// 処理本体
+	//--------------------------------------------------------------------------
+	/**
+	 * trim・カットで残す範囲取得.
+	 * @return 上位32ビット:開始オフセット、下位32ビット:終了オフセット
+	 */
+	private long range(String s) {
+		int begin = 0;
+		int end = s.length();
+		for (int i = 0; i < ops.length; i++) {
+			switch (ops[i]) {
+				case TRIM:
+					end = CharScanKernel.rTrimOffset(s, begin, end);
+					begin = CharScanKernel.lTrimOffset(s, begin, end);
+					break;
+				case R_TRIM:
+					end = CharScanKernel.rTrimOffset(s, begin, end);
+					break;
+				case CUT:
+					end = Math.min(end, begin + args[i]);
+					break;
+				default:
+					end = model.cutIndex(s, begin, end, args[i]);
+					break;
+			}
+		}
+		return ((long) begin << 32) | end;
+	}
+	/**
+	 * 開始オフセット取得.
+	 */
+	private static int begin(long range) {
+		return (int) (range >>> 32);
+	}
+	/**
+	 * 終了オフセット取得.
+	 */
+	private static int end(long range) {
+		return (int) range;
+	}
+	/**
+	 * Padding文字数取得(StringUtilsのPaddingと同じ計算).
+	 */
+	private int padCount(String s, int begin, int end) {
+		switch (pad) {
+			case R_PAD:
+			case L_PAD:
+				return Math.max(0, padLength - (end - begin));
+			case R_PAD_BYTE:
+			case L_PAD_BYTE:
+				//もう既に文字長＞＝最終バイト長ならば、Paddingなし
+				if (model.atLeast(end - begin, padLength)) {
+					return 0;
+				}
+				int bytes = model.length(s, begin, end);
+				return bytes >= padLength ? 0 : (padLength - bytes) / model.width(padChar);
+			default:
+				return 0;
+		}
+	}
+	/**
+	 * チェック(エラー時は例外発生).
+	 */
+	private void validate(String s, int begin, int end, int padCount) {
+		for (int i = 0; i < validators.length; i++) {
+			FieldValidator v = validators[i];
+			int index = validatorIndexes[i];
+			int errors;
+			if (afterPad[i] && padCount > 0) {
+				boolean left = pad == L_PAD || pad == L_PAD_BYTE;
+				CharSequence view = new PaddedView(
+					new StringSlice(s, begin, end),
+					left ? padCount : 0,
+					left ? 0 : padCount,
+					padChar);
+				errors = v.validate(index, view, 0, view.length());
+			} else {
+				errors = v.validate(index, s, begin, end);
+			}
+			if (errors != 0) {
+				throw new RuntimeException(
+					"項目チェックエラー:name="
+						+ v.getName(index)
+						+ ",errors="
+						+ errors
+						+ ",s=["
+						+ s
+						+ "]");
+			}
+		}
+	}
+	/**
+	 * 範囲とPaddingをdstに書き込む.
+	 * @return 書き込んだ文字数
+	 */
+	private int write(String s, int begin, int end, int padCount, char[] dst, int offset) {
+		int len = end - begin;
+		if (pad == L_PAD || pad == L_PAD_BYTE) {
+			Arrays.fill(dst, offset, offset + padCount, padChar);
+			s.getChars(begin, end, dst, offset + padCount);
+		} else {
+			s.getChars(begin, end, dst, offset);
+			Arrays.fill(dst, offset + len, offset + len + padCount, padChar);
+		}
+		return len + padCount;
+	}
+
+	/**
+	 * FieldPipelineのBuilder.
+	 * trim・カットは指定順に処理し、Paddingは最後に１つのみ指定できる。
+	 */
+	public static final class Builder {
+		/** trim・カットの処理 */
+		private final List<Integer> ops = new ArrayList<Integer>();
+		/** trim・カットの引数 */
+		private final List<Integer> args = new ArrayList<Integer>();
+		/** Paddingの種類 */
+		private int pad = NONE;
+		/** Paddingの最終文字数・最終バイト長 */
+		private int padLength;
+		/** Padding文字 */
+		private char padChar;
+		/** バイト長のモデル */
+		private ByteWidthModel model = ByteWidthModel.LEGACY;
+		/** チェック */
+		private final List<FieldValidator> validators = new ArrayList<FieldValidator>();
+		/** チェックの項目番号 */
+		private final List<Integer> validatorIndexes = new ArrayList<Integer>();
+		/** true:Padding後をチェック */
+		private final List<Boolean> afterPad = new ArrayList<Boolean>();
+
+		/**
+		 * コンストラクタ(FieldPipeline.builder()から生成する).
+		 */
+		private Builder() {
+		}
+		/**
+		 * バイト長のモデル指定(デフォルトはByteWidthModel.LEGACY).
+		 * @param model 文字毎のバイト長のモデル
+		 * @return this
+		 */
+		public Builder model(ByteWidthModel model) {
+			if (model == null) {
+				throw new RuntimeException("パイプライン定義エラー:model=null");
+			}
+			this.model = model;
+			return this;
+		}
+		/**
+		 * trim追加(StringUtils.trim).
+		 * @return this
+		 */
+		public Builder trim() {
+			return range(TRIM, 0);
+		}
+		/**
+		 * 右trim追加(StringUtils.rTrim).
+		 * @return this
+		 */
+		public Builder rTrim() {
+			return range(R_TRIM, 0);
+		}
+		/**
+		 * 文字数でカット追加(StringUtils.cutString).
+		 * @param length 文字数
+		 * @return this
+		 */
+		public Builder cutString(int length) {
+			return range(CUT, length);
+		}
+		/**
+		 * バイト長でカット追加(StringUtils.cutStringByte).
+		 * @param byteLength バイト長
+		 * @return this
+		 */
+		public Builder cutStringByte(int byteLength) {
+			return range(CUT_BYTE, byteLength);
+		}
+		/**
+		 * 右半角スペースPadding追加(StringUtils.rPad).
+		 * @param charLength 最終文字数
+		 * @return this
+		 */
+		public Builder rPad(int charLength) {
+			return pad(R_PAD, charLength, ' ');
+		}
+		/**
+		 * 右Padding追加(StringUtils.rPad).
+		 * @param charLength 最終文字数
+		 * @param c Padding文字
+		 * @return this
+		 */
+		public Builder rPad(int charLength, char c) {
+			return pad(R_PAD, charLength, c);
+		}
+		/**
+		 * 左半角スペースPadding追加(StringUtils.lPad).
+		 * @param charLength 最終文字数
+		 * @return this
+		 */
+		public Builder lPad(int charLength) {
+			return pad(L_PAD, charLength, ' ');
+		}
+		/**
+		 * 左Padding追加(StringUtils.lPad).
+		 * @param charLength 最終文字数
+		 * @param c Padding文字
+		 * @return this
+		 */
+		public Builder lPad(int charLength, char c) {
+			return pad(L_PAD, charLength, c);
+		}
+		/**
+		 * 右半角スペースPadding(バイト長)追加(StringUtils.rPadByte).
+		 * @param byteLength 最終バイト長
+		 * @return this
+		 */
+		public Builder rPadByte(int byteLength) {
+			return pad(R_PAD_BYTE, byteLength, ' ');
+		}
+		/**
+		 * 右Padding(バイト長)追加(StringUtils.rPadByte).
+		 * @param byteLength 最終バイト長
+		 * @param c Padding文字
+		 * @return this
+		 */
+		public Builder rPadByte(int byteLength, char c) {
+			return pad(R_PAD_BYTE, byteLength, c);
+		}
+		/**
+		 * 左半角スペースPadding(バイト長)追加(StringUtils.lPadByte).
+		 * @param byteLength 最終バイト長
+		 * @return this
+		 */
+		public Builder lPadByte(int byteLength) {
+			return pad(L_PAD_BYTE, byteLength, ' ');
+		}
+		/**
+		 * 左Padding(バイト長)追加(StringUtils.lPadByte).
+		 * @param byteLength 最終バイト長
+		 * @param c Padding文字
+		 * @return this
+		 */
+		public Builder lPadByte(int byteLength, char c) {
+			return pad(L_PAD_BYTE, byteLength, c);
+		}
+		/**
+		 * チェック追加.
+		 * Padding前に指定した場合はtrim・カット後の値を、Padding後に指定した場合はPadding後の値をチェックする。
+		 * @param validator 項目チェック
+		 * @param index チェックする項目番号(0始まり)
+		 * @return this
+		 */
+		public Builder validate(FieldValidator validator, int index) {
+			if (validator == null || index < 0 || index >= validator.size()) {
+				throw new RuntimeException("パイプライン定義エラー:validator=" + validator + ",index=" + index);
+			}
+			validators.add(validator);
+			validatorIndexes.add(index);
+			afterPad.add(pad != NONE);
+			return this;
+		}
+		/**
+		 * FieldPipeline生成.
+		 * @return FieldPipeline
+		 */
+		public FieldPipeline build() {
+			return new FieldPipeline(this);
+		}
+		/**
+		 * trim・カット追加.
+		 */
+		private Builder range(int op, int arg) {
+			if (pad != NONE) {
+				throw new RuntimeException("パイプライン定義エラー:trim・カットはPaddingより前に指定してください");
+			}
+			if (arg < 0) {
+				throw new RuntimeException("パイプライン定義エラー:length=" + arg);
+			}
+			ops.add(op);
+			args.add(arg);
+			return this;
+		}
+		/**
+		 * Padding指定.
+		 */
+		private Builder pad(int kind, int length, char c) {
+			if (pad != NONE) {
+				throw new RuntimeException("パイプライン定義エラー:Paddingは１つのみ指定できます");
+			}
+			pad = kind;
+			padLength = length;
+			padChar = c;
+			return this;
+		}
+	}
+}
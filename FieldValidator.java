@@ -0,0 +1,515 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 項目チェック.
+ * 項目毎のチェック内容(必須、半角数字、桁数、バイト長、日付・時刻形式)を一度定義し、
+ * 各項目を１回の走査でまとめてチェックする。結果は最初のエラーで止めず、
+ * 全項目のエラーを再利用可能なErrorsに格納する。
+ * 各チェックの判断はStringUtilsのis*メソッドと同じ(空文字は必須NG、半角数字OK、日付・時刻形式NG)。
+ * 日付・時刻形式はDateEngineで判断し、Dateを生成しない。
+ * インスタンスは不変なので複数スレッドで共有できる(Errorsはスレッド毎に用意すること)。
+ * <pre>
+ * FieldValidator validator = FieldValidator.builder()
+ *     .field("code").required().halfSizeInt().length(4, 4)
+ *     .field("name").byteLength(0, 40)
+ *     .field("date").yyyyMMdd()
+ *     .build();
+ * FieldValidator.Errors errors = validator.newErrors();
+ * if (!validator.validate(values, errors)) {
+ *     if (errors.has(2, FieldValidator.YYYYMMDD)) { ... }
+ * }
+ * </pre>
+ */
+public final class FieldValidator {
+	/** 必須チェック(StringUtils.isRequired) */
+	public static final int REQUIRED = 1;
+	/** 全て半角数字チェック(StringUtils.isHalfSizeInt) */
+	public static final int HALF_SIZE_INT = 1 << 1;
+	/** MIN桁数＆MAX桁数チェック(StringUtils.isMinMaxLength) */
+	public static final int LENGTH = 1 << 2;
+	/** MINバイト長＆MAXバイト長チェック(StringUtils.byteLength) */
+	public static final int BYTE_LENGTH = 1 << 3;
+	/** yyyyMMddHHmmss形式チェック(StringUtils.isYYYYMMDDHHMMSS) */
+	public static final int YYYYMMDDHHMMSS = 1 << 4;
+	/** yyyyMMdd形式チェック(StringUtils.isYYYYMMDD) */
+	public static final int YYYYMMDD = 1 << 5;
+	/** HHmmss形式チェック(StringUtils.isHHMMSS) */
+	public static final int HHMMSS = 1 << 6;
+	/** HHmm形式チェック(StringUtils.isHHMM) */
+	public static final int HHMM = 1 << 7;
+	/** 日付・時刻形式チェック */
+	private static final int FORMATS = YYYYMMDDHHMMSS | YYYYMMDD | HHMMSS | HHMM;
+	/** 1970/01/01(時刻のみの形式の日付) */
+	private static final int EPOCH_YMD = 19700101;
+
+	/** 項目名 */
+	private final String[] names;
+	/** 項目毎のチェック内容(REQUIRED等の論理和) */
+	private final int[] rules;
+	/** MIN桁数 */
+	private final int[] minLengths;
+	/** MAX桁数 */
+	private final int[] maxLengths;
+	/** MINバイト長 */
+	private final int[] minByteLengths;
+	/** MAXバイト長 */
+	private final int[] maxByteLengths;
+
+	/**
+	 * コンストラクタ(builder()から生成する).
+	 */
+	private FieldValidator(List<Builder.Field> fields) {
+		int n = fields.size();
+		this.names = new String[n];
+		this.rules = new int[n];
+		this.minLengths = new int[n];
+		this.maxLengths = new int[n];
+		this.minByteLengths = new int[n];
+		this.maxByteLengths = new int[n];
+		for (int i = 0; i < n; i++) {
+			Builder.Field f = fields.get(i);
+			names[i] = f.name;
+			rules[i] = f.rules;
+			minLengths[i] = f.minLength;
+			maxLengths[i] = f.maxLength;
+			minByteLengths[i] = f.minByteLength;
+			maxByteLengths[i] = f.maxByteLength;
+		}
+	}
+	/**
+	 * Builder取得.
+	 * @return Builder
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+	/**
+	 * 項目数取得.
+	 * @return 項目数
+	 */
+	public int size() {
+		return names.length;
+	}
+	/**
+	 * 項目名取得.
+	 * @param index 項目番号(0始まり)
+	 * @return 項目名
+	 */
+	public String getName(int index) {
+		return names[index];
+	}
+	/**
+	 * 結果の格納先を生成.
+	 * @return 結果の格納先
+	 */
+	public Errors newErrors() {
+		return new Errors(this);
+	}
+
+	//--------------------------------------------------------------------------
+	// チェック
+	//--------------------------------------------------------------------------
+	/**
+	 * 全項目チェック.
+	 * @param values 項目の値(項目数と同じ長さ、nullの要素はException)
+	 * @param errors 結果の格納先(前回の結果はクリアする)
+	 * @return true:全項目チェックOK
+	 */
+	public boolean validate(String[] values, Errors errors) {
+		checkSize(values.length, errors);
+		for (int i = 0; i < names.length; i++) {
+			String s = values[i];
+			assertNotNull(i, s);
+			errors.set(i, validate(i, s, 0, s.length()));
+		}
+		return errors.isValid();
+	}
+	/**
+	 * 全項目チェック.
+	 * @param values 項目の値(項目数と同じ長さ、nullの要素はException)
+	 * @param errors 結果の格納先(前回の結果はクリアする)
+	 * @return true:全項目チェックOK
+	 */
+	public boolean validate(List<String> values, Errors errors) {
+		checkSize(values.size(), errors);
+		for (int i = 0; i < names.length; i++) {
+			String s = values.get(i);
+			assertNotNull(i, s);
+			errors.set(i, validate(i, s, 0, s.length()));
+		}
+		return errors.isValid();
+	}
+	/**
+	 * 固定長レコードの分割結果を全項目チェック(項目の文字列を生成しない).
+	 * @param record 分割結果(項目数が同じであること)
+	 * @param errors 結果の格納先(前回の結果はクリアする)
+	 * @return true:全項目チェックOK
+	 */
+	public boolean validate(RecordLayout.Result record, Errors errors) {
+		String s = record.getRecord();
+		assertNotNull(-1, s);
+		checkSize(names.length, errors);
+		for (int i = 0; i < names.length; i++) {
+			errors.set(i, validate(i, s, record.getBegin(i), record.getEnd(i)));
+		}
+		return errors.isValid();
+	}
+	/**
+	 * １項目チェック.
+	 * @param index 項目番号(0始まり)
+	 * @param value 項目の値(nullの場合はException)
+	 * @return エラーのチェック内容(REQUIRED等の論理和、0時チェックOK)
+	 */
+	public int validate(int index, CharSequence value) {
+		assertNotNull(index, value);
+		return validate(index, value, 0, value.length());
+	}
+	/**
+	 * １項目チェック(begin～endの範囲を１回走査、FieldPipelineからも使用).
+	 * @return エラーのチェック内容(0時チェックOK)
+	 */
+	int validate(int index, CharSequence s, int begin, int end) {
+		int rule = rules[index];
+		int len = end - begin;
+		boolean countBytes = (rule & BYTE_LENGTH) != 0;
+		//半角数字チェックとバイト長計算を同時に行う
+		boolean halfSizeInt = true;
+		int bytes = 0;
+		for (int i = begin; i < end; i++) {
+			char c = s.charAt(i);
+			if (c < '0' || c > '9') {
+				halfSizeInt = false;
+				if (!countBytes) {
+					break;
+				}
+			}
+			if (countBytes) {
+				bytes += StringUtils.byteLength(c);
+			}
+		}
+		int rtn = 0;
+		if ((rule & REQUIRED) != 0 && len == 0) {
+			rtn |= REQUIRED;
+		}
+		if ((rule & HALF_SIZE_INT) != 0 && !halfSizeInt) {
+			rtn |= HALF_SIZE_INT;
+		}
+		if ((rule & LENGTH) != 0 && (len < minLengths[index] || len > maxLengths[index])) {
+			rtn |= LENGTH;
+		}
+		if (countBytes && (bytes < minByteLengths[index] || bytes > maxByteLengths[index])) {
+			rtn |= BYTE_LENGTH;
+		}
+		int format = rule & FORMATS;
+		if (format != 0 && !(halfSizeInt && isFormat(format, s, begin, len))) {
+			rtn |= format;
+		}
+		return rtn;
+	}
+	/**
+	 * 日付・時刻形式判断(半角数字チェック済).
+	 */
+	private static boolean isFormat(int format, CharSequence s, int begin, int len) {
+		switch (format) {
+			case YYYYMMDDHHMMSS:
+				if (len != 14) {
+					return false;
+				}
+				int ymd = DateEngine.parseYYYYMMDD(s, begin);
+				int secondOfDay = DateEngine.parseHHMMSS(s, begin + 8);
+				return ymd != DateEngine.INVALID
+					&& secondOfDay != DateEngine.INVALID
+					&& DateEngine.toEpochMilli(ymd, secondOfDay, true) != Long.MIN_VALUE;
+			case YYYYMMDD:
+				if (len != 8) {
+					return false;
+				}
+				int date = DateEngine.parseYYYYMMDD(s, begin);
+				//0時がタイムゾーンの切替で存在しない日はNG(StringUtils.isYYYYMMDDと同じ)
+				return date != DateEngine.INVALID
+					&& DateEngine.toEpochMilli(date, 0, true) != Long.MIN_VALUE;
+			case HHMMSS:
+				return len == 6 && isTime(DateEngine.parseHHMMSS(s, begin));
+			default:
+				return len == 4 && isTime(DateEngine.parseHHMM(s, begin));
+		}
+	}
+	/**
+	 * 時刻判断(StringUtils.parseHHMMSSと同じく1970/01/01の時刻として存在するか).
+	 */
+	private static boolean isTime(int secondOfDay) {
+		return secondOfDay != DateEngine.INVALID
+			&& DateEngine.toEpochMilli(EPOCH_YMD, secondOfDay, true) != Long.MIN_VALUE;
+	}
+	/**
+	 * 項目数チェック及び結果のクリア.
+	 */
+	private void checkSize(int size, Errors errors) {
+		if (size != names.length || errors.validator != this) {
+			throw StringUtilsException.fieldCount(names.length, size);
+		}
+		errors.clear();
+	}
+	/**
+	 * nullチェック(StringUtils.is*と同じくException).
+	 */
+	private void assertNotNull(int index, Object value) {
+		if (value == null) {
+			throw StringUtilsException.notNull(index < 0 ? "record" : names[index]);
+		}
+	}
+
+	/**
+	 * チェック結果.
+	 * 項目毎のエラーのチェック内容を保持し、再利用できる。
+	 */
+	public static final class Errors {
+		/** チェック内容 */
+		private final FieldValidator validator;
+		/** 項目毎のエラーのチェック内容(0時チェックOK) */
+		private final int[] violations;
+		/** エラーの項目数 */
+		private int count;
+
+		/**
+		 * コンストラクタ(FieldValidator.newErrors()から生成する).
+		 */
+		private Errors(FieldValidator validator) {
+			this.validator = validator;
+			this.violations = new int[validator.size()];
+		}
+		/**
+		 * クリア.
+		 */
+		void clear() {
+			Arrays.fill(violations, 0);
+			count = 0;
+		}
+		/**
+		 * 項目のエラー設定.
+		 */
+		void set(int index, int violation) {
+			violations[index] = violation;
+			if (violation != 0) {
+				count++;
+			}
+		}
+		/**
+		 * 全項目チェックOK判断.
+		 * @return true:エラーなし
+		 */
+		public boolean isValid() {
+			return count == 0;
+		}
+		/**
+		 * エラーの項目数取得.
+		 * @return エラーの項目数
+		 */
+		public int getErrorCount() {
+			return count;
+		}
+		/**
+		 * 項目のエラー取得.
+		 * @param index 項目番号(0始まり)
+		 * @return エラーのチェック内容(REQUIRED等の論理和、0時チェックOK)
+		 */
+		public int get(int index) {
+			return violations[index];
+		}
+		/**
+		 * 項目のエラー判断.
+		 * @param index 項目番号(0始まり)
+		 * @param rule チェック内容(REQUIRED等)
+		 * @return true:指定のチェックがエラー
+		 */
+		public boolean has(int index, int rule) {
+			return (violations[index] & rule) != 0;
+		}
+		/**
+		 * 次のエラー項目取得.
+		 * <pre>
+		 * for (int i = errors.nextError(0); i &gt;= 0; i = errors.nextError(i + 1)) { ... }
+		 * </pre>
+		 * @param fromIndex 検索開始の項目番号
+		 * @return エラーの項目番号(-1時、なし)
+		 */
+		public int nextError(int fromIndex) {
+			for (int i = Math.max(fromIndex, 0); i < violations.length; i++) {
+				if (violations[i] != 0) {
+					return i;
+				}
+			}
+			return -1;
+		}
+		/**
+		 * エラーの項目名一覧取得.
+		 * @return 項目名
+		 */
+		public List<String> getErrorNames() {
+			List<String> rtn = new ArrayList<String>(count);
+			for (int i = nextError(0); i >= 0; i = nextError(i + 1)) {
+				rtn.add(validator.getName(i));
+			}
+			return rtn;
+		}
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder("Errors[");
+			for (int i = nextError(0); i >= 0; i = nextError(i + 1)) {
+				if (sb.length() > 7) {
+					sb.append(',');
+				}
+				sb.append(validator.getName(i)).append('=').append(Integer.toBinaryString(violations[i]));
+			}
+			return sb.append(']').toString();
+		}
+	}
+
+	/**
+	 * FieldValidatorのBuilder.
+	 * field()で項目を追加し、続けてその項目のチェック内容を指定する。
+	 */
+	public static final class Builder {
+		/** 項目定義 */
+		private final List<Field> fields = new ArrayList<Field>();
+
+		/**
+		 * コンストラクタ(FieldValidator.builder()から生成する).
+		 */
+		private Builder() {
+		}
+		/**
+		 * 項目追加.
+		 * @param name 項目名(nullの場合はException)
+		 * @return this
+		 */
+		public Builder field(String name) {
+			if (name == null) {
+				throw new RuntimeException("項目定義エラー:name=null");
+			}
+			fields.add(new Field(name));
+			return this;
+		}
+		/**
+		 * 必須チェック追加.
+		 * @return this
+		 */
+		public Builder required() {
+			current().rules |= REQUIRED;
+			return this;
+		}
+		/**
+		 * 全て半角数字チェック追加.
+		 * @return this
+		 */
+		public Builder halfSizeInt() {
+			current().rules |= HALF_SIZE_INT;
+			return this;
+		}
+		/**
+		 * MIN桁数(文字数)＆MAX桁数(文字数)チェック追加.
+		 * @param minLength MIN桁数
+		 * @param maxLength MAX桁数
+		 * @return this
+		 */
+		public Builder length(int minLength, int maxLength) {
+			Field f = current();
+			f.rules |= LENGTH;
+			f.minLength = minLength;
+			f.maxLength = maxLength;
+			return this;
+		}
+		/**
+		 * MINバイト長＆MAXバイト長チェック追加.
+		 * @param minByteLength MINバイト長
+		 * @param maxByteLength MAXバイト長
+		 * @return this
+		 */
+		public Builder byteLength(int minByteLength, int maxByteLength) {
+			Field f = current();
+			f.rules |= BYTE_LENGTH;
+			f.minByteLength = minByteLength;
+			f.maxByteLength = maxByteLength;
+			return this;
+		}
+		/**
+		 * yyyyMMddHHmmss形式チェック追加.
+		 * @return this
+		 */
+		public Builder yyyyMMddHHmmss() {
+			return format(YYYYMMDDHHMMSS);
+		}
+		/**
+		 * yyyyMMdd形式チェック追加.
+		 * @return this
+		 */
+		public Builder yyyyMMdd() {
+			return format(YYYYMMDD);
+		}
+		/**
+		 * HHmmss形式チェック追加.
+		 * @return this
+		 */
+		public Builder hhmmss() {
+			return format(HHMMSS);
+		}
+		/**
+		 * HHmm形式チェック追加.
+		 * @return this
+		 */
+		public Builder hhmm() {
+			return format(HHMM);
+		}
+		/**
+		 * FieldValidator生成.
+		 * @return FieldValidator
+		 */
+		public FieldValidator build() {
+			return new FieldValidator(fields);
+		}
+		/**
+		 * 日付・時刻形式チェック追加(１項目に１つ).
+		 */
+		private Builder format(int format) {
+			Field f = current();
+			if ((f.rules & FORMATS) != 0) {
+				throw new RuntimeException("項目定義エラー:日付・時刻形式は１項目に１つです。name=" + f.name);
+			}
+			f.rules |= format;
+			return this;
+		}
+		/**
+		 * 最後に追加した項目取得.
+		 */
+		private Field current() {
+			if (fields.isEmpty()) {
+				throw new RuntimeException("項目定義エラー:field()で項目を追加してください。");
+			}
+			return fields.get(fields.size() - 1);
+		}
+
+		/**
+		 * 項目定義.
+		 */
+		private static final class Field {
+			/** 項目名 */
+			final String name;
+			/** チェック内容 */
+			int rules;
+			/** MIN桁数 */
+			int minLength;
+			/** MAX桁数 */
+			int maxLength;
+			/** MINバイト長 */
+			int minByteLength;
+			/** MAXバイト長 */
+			int maxByteLength;
+
+			Field(String name) {
+				this.name = name;
+			}
+		}
+	}
+}
@@ -0,0 +1,626 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 固定長・CSVファイルの項目単位の一括変換.
+ * 入力ファイルをメモリマップし、レコード境界(改行)で区切ったチャンク単位にfork/joinで並列に変換して、
+ * 出力ファイルにFileChannelで入力と同じ順に書き込む。
+ * 各項目には列毎に指定した処理(StringUtilsのメソッド等)を適用し、処理を指定しない項目はそのまま出力する。
+ * <ul>
+ * <li>固定長:RecordLayoutで項目に分割し、各項目の結果を連結して出力(区切りなし)。
+ * レイアウトのバイト長より長い行は、最後の項目より後をそのまま出力する(短い行は例外)</li>
+ * <li>CSV:区切り文字で項目に分割し、各項目の結果を同じ区切り文字で連結して出力</li>
+ * </ul>
+ * 改行(LF又はCRLF)は入力のまま出力し、空行は処理せずにそのまま出力する。
+ * チェックポイントファイルを指定した場合、チャンクを書き込む毎に入力・出力の位置を記録し、
+ * 中断後に同じ指定で実行すると記録した位置から再開する(正常終了時はチェックポイントファイルを削除)。
+ * インスタンスは不変なので複数スレッドで共有できる。
+ * <pre>
+ * FileNormalizer normalizer = FileNormalizer.builder()
+ *     .csv(',')
+ *     .column(0, StringUtils::trim)
+ *     .column(2, StringUtils::edtDate)
+ *     .column(3, StringUtils::addComma)
+ *     .progress(stats -&gt; log.info(stats.toString()))
+ *     .build();
+ * FileNormalizer.Stats stats = normalizer.normalize(in, out, checkpoint);
+ * </pre>
+ * (注)改行(0x0A)を他の文字のバイトに含まない文字コード(MS932、EUC-JP、UTF-8等)のみ。CSVの引用符は扱わない
+ * (注)処理は複数スレッドから同時に呼ばれるため、スレッドセーフであること
+ */
+public final class FileNormalizer {
+	/** デフォルトのチャンクのバイト長 */
+	public static final int DEFAULT_CHUNK_SIZE = 4 << 20;
+	/** １スレッドあたりの同時処理チャンク数(書き込み待ちの間も変換を続ける) */
+	private static final int CHUNKS_PER_THREAD = 2;
+
+	/** 固定長のレイアウト(CSVの場合はnull) */
+	private final RecordLayout layout;
+	/** CSVの区切り文字 */
+	private final char delimiter;
+	/** 列毎の処理(処理なしの列はnull) */
+	private final Function<String, String>[] ops;
+	/** 文字コード */
+	private final Charset charset;
+	/** チャンクのバイト長 */
+	private final int chunkSize;
+	/** 実行するプール */
+	private final ForkJoinPool pool;
+	/** 進捗の通知先(なしの場合はnull) */
+	private final Consumer<Stats> listener;
+
+	/**
+	 * コンストラクタ(builder()から生成する).
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private FileNormalizer(Builder b) {
+		this.layout = b.layout;
+		this.delimiter = b.delimiter;
+		this.ops = b.ops.toArray(new Function[b.ops.size()]);
+		this.charset = b.charset;
+		this.chunkSize = b.chunkSize;
+		this.pool = b.pool;
+		this.listener = b.listener;
+	}
+	/**
+	 * Builder取得.
+	 * @return Builder
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	//--------------------------------------------------------------------------
+	// 実行
+	//--------------------------------------------------------------------------
+	/**
+	 * 変換(チェックポイントなし).
+	 * @param in 入力ファイル
+	 * @param out 出力ファイル(既存の場合は上書き)
+	 * @return 処理結果
+	 * @throws IOException 入出力エラー
+	 */
+	public Stats normalize(Path in, Path out) throws IOException {
+		return normalize(in, out, null);
+	}
+	/**
+	 * 変換.
+	 * チェックポイントファイルが存在する場合は記録した位置から再開し、出力ファイルを記録した位置で切り詰めて続きを書き込む。
+	 * @param in 入力ファイル
+	 * @param out 出力ファイル(チェックポイントファイルがない場合は上書き)
+	 * @param checkpoint チェックポイントファイル(nullの場合はチェックポイントなし)
+	 * @return 処理結果
+	 * @throws IOException 入出力エラー
+	 */
+	public Stats normalize(Path in, Path out, Path checkpoint) throws IOException {
+		long startNanos = System.nanoTime();
+		long[] resume = checkpoint != null && Files.exists(checkpoint) ? readCheckpoint(checkpoint) : null;
+		long inputOffset = resume == null ? 0 : resume[0];
+		long outputOffset = resume == null ? 0 : resume[1];
+		long records = resume == null ? 0 : resume[2];
+		long resumedRecords = records;
+		Stats stats;
+		try (FileChannel src = FileChannel.open(in, StandardOpenOption.READ);
+			FileChannel dst = resume == null
+				? FileChannel.open(out, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)
+				: FileChannel.open(out, StandardOpenOption.WRITE)) {
+			long inputSize = src.size();
+			if (inputOffset > inputSize || outputOffset > dst.size()) {
+				throw new RuntimeException(
+					"チェックポイントがファイルと一致しません。checkpoint="
+						+ checkpoint
+						+ ",inputOffset="
+						+ inputOffset
+						+ ",inputSize="
+						+ inputSize
+						+ ",outputOffset="
+						+ outputOffset
+						+ ",outputSize="
+						+ dst.size());
+			}
+			dst.truncate(outputOffset);
+			stats = new Stats(records, 0, inputOffset, inputSize, outputOffset, System.nanoTime() - startNanos);
+			ConcurrentLinkedQueue<ByteBuffer> buffers = new ConcurrentLinkedQueue<ByteBuffer>();
+			ArrayDeque<ChunkTask> inFlight = new ArrayDeque<ChunkTask>();
+			int maxInFlight = pool.getParallelism() * CHUNKS_PER_THREAD;
+			long next = inputOffset;
+			try {
+				while (next < inputSize || !inFlight.isEmpty()) {
+					//先読みして変換を投入し、先頭のチャンクから順に書き込む
+					while (next < inputSize && inFlight.size() < maxInFlight) {
+						MappedByteBuffer chunk = mapChunk(src, next, inputSize);
+						ChunkTask task = new ChunkTask(chunk, next, buffers);
+						pool.execute(task);
+						inFlight.add(task);
+						next += task.length;
+					}
+					ChunkTask task = inFlight.poll();
+					task.join();
+					ByteBuffer output = task.output;
+					while (output.hasRemaining()) {
+						outputOffset += dst.write(output, outputOffset);
+					}
+					output.clear();
+					buffers.offer(output);
+					records += task.records;
+					inputOffset = task.offset + task.length;
+					if (checkpoint != null) {
+						//出力を確定してから位置を記録する
+						dst.force(false);
+						writeCheckpoint(checkpoint, inputOffset, outputOffset, records);
+					}
+					stats = new Stats(
+						records,
+						records - resumedRecords,
+						inputOffset,
+						inputSize,
+						outputOffset,
+						System.nanoTime() - startNanos);
+					if (listener != null) {
+						listener.accept(stats);
+					}
+				}
+			} finally {
+				for (ChunkTask task : inFlight) {
+					task.cancel(false);
+				}
+			}
+		}
+		if (checkpoint != null) {
+			Files.deleteIfExists(checkpoint);
+		}
+		return stats;
+	}
+
+	//--------------------------------------------------------------------------
+	// 処理本体
+	//--------------------------------------------------------------------------
+	/**
+	 * 指定位置からチャンクのバイト長以内でレコード境界(最後の改行の直後)までをマップ.
+	 * チャンク内に改行がない場合(１レコードがチャンクより長い場合)は範囲を広げる。
+	 * @return マップしたバッファ(limitがチャンクの終了位置)
+	 */
+	private MappedByteBuffer mapChunk(FileChannel src, long position, long size) throws IOException {
+		long length = Math.min(chunkSize, size - position);
+		while (true) {
+			MappedByteBuffer buf = src.map(FileChannel.MapMode.READ_ONLY, position, length);
+			if (position + length == size) {
+				return buf;
+			}
+			for (int i = (int) length - 1; i >= 0; i--) {
+				if (buf.get(i) == '\n') {
+					buf.limit(i + 1);
+					return buf;
+				}
+			}
+			if (length >= Integer.MAX_VALUE / 2) {
+				throw new RuntimeException("レコードが長すぎます。position=" + position);
+			}
+			length = Math.min(length * 2, size - position);
+		}
+	}
+	/**
+	 * チャンク内の全レコードを変換してoutに追加.
+	 * @param chars チャンクの文字
+	 * @param length 文字数
+	 * @param out 追加先
+	 * @return レコード数
+	 */
+	private int normalizeChunk(char[] chars, int length, StringBuilder out) {
+		RecordLayout.Result result = layout == null ? null : layout.newResult();
+		int records = 0;
+		int p = 0;
+		while (p < length) {
+			int lineEnd = p;
+			while (lineEnd < length && chars[lineEnd] != '\n') {
+				lineEnd++;
+			}
+			int next = lineEnd < length ? lineEnd + 1 : length;
+			int end = lineEnd > p && chars[lineEnd - 1] == '\r' ? lineEnd - 1 : lineEnd;
+			if (end > p) {
+				if (layout != null) {
+					normalizeFixed(new String(chars, p, end - p), result, out);
+				} else {
+					normalizeCsv(chars, p, end, out);
+				}
+				records++;
+			}
+			//改行は入力のまま
+			out.append(chars, end, next - end);
+			p = next;
+		}
+		return records;
+	}
+	/**
+	 * 固定長レコードの変換.
+	 */
+	private void normalizeFixed(String record, RecordLayout.Result result, StringBuilder out) {
+		layout.decode(record, result);
+		for (int f = 0; f < layout.size(); f++) {
+			Function<String, String> op = f < ops.length ? ops[f] : null;
+			if (op == null) {
+				result.appendTo(f, out);
+			} else {
+				out.append(op.apply(result.getString(f)));
+			}
+		}
+		//最後の項目より後はそのまま
+		out.append(record, result.getDecodedLength(), record.length());
+	}
+	/**
+	 * CSVレコードの変換.
+	 */
+	private void normalizeCsv(char[] chars, int begin, int end, StringBuilder out) {
+		int f = 0;
+		int p = begin;
+		while (true) {
+			int d = p;
+			while (d < end && chars[d] != delimiter) {
+				d++;
+			}
+			Function<String, String> op = f < ops.length ? ops[f] : null;
+			if (op == null) {
+				out.append(chars, p, d - p);
+			} else {
+				out.append(op.apply(new String(chars, p, d - p)));
+			}
+			if (d == end) {
+				return;
+			}
+			out.append(delimiter);
+			p = d + 1;
+			f++;
+		}
+	}
+	/**
+	 * 文字をエンコードしてbufに書き込む(不足の場合はbufを拡張).
+	 * @return 書き込んだバッファ(flip済み)
+	 */
+	private ByteBuffer encode(char[] chars, int length, ByteBuffer buf) throws CharacterCodingException {
+		CharsetEncoder encoder = charset.newEncoder()
+			.onMalformedInput(CodingErrorAction.REPORT)
+			.onUnmappableCharacter(CodingErrorAction.REPORT);
+		CharBuffer in = CharBuffer.wrap(chars, 0, length);
+		boolean flushing = false;
+		while (true) {
+			CoderResult r = flushing ? encoder.flush(buf) : encoder.encode(in, buf, true);
+			if (r.isUnderflow()) {
+				if (flushing) {
+					break;
+				}
+				flushing = true;
+			} else if (r.isOverflow()) {
+				ByteBuffer bigger = ByteBuffer.allocateDirect(buf.capacity() * 2);
+				buf.flip();
+				bigger.put(buf);
+				buf = bigger;
+			} else {
+				r.throwException();
+			}
+		}
+		buf.flip();
+		return buf;
+	}
+	/**
+	 * チェックポイント読み込み.
+	 * @return {入力の位置, 出力の位置, レコード数}
+	 */
+	private static long[] readCheckpoint(Path checkpoint) throws IOException {
+		String s = new String(Files.readAllBytes(checkpoint), StandardCharsets.US_ASCII).trim();
+		String[] values = s.split(",");
+		try {
+			if (values.length == 3) {
+				return new long[] {Long.parseLong(values[0]), Long.parseLong(values[1]), Long.parseLong(values[2])};
+			}
+		} catch (NumberFormatException e) {
+			//下でエラー
+		}
+		throw new RuntimeException("チェックポイントエラー:checkpoint=" + checkpoint + ",s=[" + s + "]");
+	}
+	/**
+	 * チェックポイント書き込み(一時ファイルに書いて置き換える).
+	 */
+	private static void writeCheckpoint(Path checkpoint, long inputOffset, long outputOffset, long records) throws IOException {
+		Path tmp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+		String s = inputOffset + "," + outputOffset + "," + records;
+		Files.write(tmp, s.getBytes(StandardCharsets.US_ASCII));
+		Files.move(tmp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * チャンクの変換タスク.
+	 */
+	private final class ChunkTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		/** チャンク */
+		private final transient MappedByteBuffer chunk;
+		/** チャンクの入力ファイル上の位置 */
+		private final long offset;
+		/** チャンクのバイト長 */
+		private final int length;
+		/** 出力バッファの再利用プール */
+		private final transient ConcurrentLinkedQueue<ByteBuffer> buffers;
+		/** 変換結果(flip済み) */
+		private transient ByteBuffer output;
+		/** レコード数 */
+		private int records;
+
+		ChunkTask(MappedByteBuffer chunk, long offset, ConcurrentLinkedQueue<ByteBuffer> buffers) {
+			this.chunk = chunk;
+			this.offset = offset;
+			this.length = chunk.limit();
+			this.buffers = buffers;
+		}
+		@Override
+		protected void compute() {
+			try {
+				CharBuffer chars = charset.newDecoder()
+					.onMalformedInput(CodingErrorAction.REPORT)
+					.onUnmappableCharacter(CodingErrorAction.REPORT)
+					.decode(chunk);
+				StringBuilder out = new StringBuilder(chars.remaining() + (chars.remaining() >>> 3));
+				records = normalizeChunk(chars.array(), chars.limit(), out);
+				char[] converted = new char[out.length()];
+				out.getChars(0, converted.length, converted, 0);
+				ByteBuffer buf = buffers.poll();
+				if (buf == null) {
+					buf = ByteBuffer.allocateDirect(Math.max(length + (length >>> 2), 1024));
+				}
+				output = encode(converted, converted.length, buf);
+			} catch (CharacterCodingException e) {
+				throw new RuntimeException("文字コード変換エラー:charset=" + charset + ",offset=" + offset, e);
+			}
+		}
+	}
+
+	/**
+	 * 処理結果(進捗).
+	 */
+	public static final class Stats {
+		/** 処理済みのレコード数(再開前を含む) */
+		private final long records;
+		/** 今回処理したレコード数 */
+		private final long runRecords;
+		/** 処理済みの入力の位置 */
+		private final long inputOffset;
+		/** 入力ファイルのバイト長 */
+		private final long inputSize;
+		/** 出力の位置 */
+		private final long outputOffset;
+		/** 今回の経過時間 */
+		private final long elapsedNanos;
+
+		Stats(long records, long runRecords, long inputOffset, long inputSize, long outputOffset, long elapsedNanos) {
+			this.records = records;
+			this.runRecords = runRecords;
+			this.inputOffset = inputOffset;
+			this.inputSize = inputSize;
+			this.outputOffset = outputOffset;
+			this.elapsedNanos = elapsedNanos;
+		}
+		/**
+		 * 処理済みのレコード数取得(再開前を含む).
+		 * @return レコード数
+		 */
+		public long getRecords() {
+			return records;
+		}
+		/**
+		 * 今回処理したレコード数取得.
+		 * @return レコード数
+		 */
+		public long getRunRecords() {
+			return runRecords;
+		}
+		/**
+		 * 処理済みの入力のバイト長取得.
+		 * @return 入力の位置
+		 */
+		public long getInputOffset() {
+			return inputOffset;
+		}
+		/**
+		 * 入力ファイルのバイト長取得.
+		 * @return バイト長
+		 */
+		public long getInputSize() {
+			return inputSize;
+		}
+		/**
+		 * 出力済みのバイト長取得.
+		 * @return 出力の位置
+		 */
+		public long getOutputOffset() {
+			return outputOffset;
+		}
+		/**
+		 * 今回の経過時間取得.
+		 * @return ナノ秒
+		 */
+		public long getElapsedNanos() {
+			return elapsedNanos;
+		}
+		/**
+		 * 今回の１秒あたりのレコード数取得.
+		 * @return レコード数/秒
+		 */
+		public double getRecordsPerSecond() {
+			return elapsedNanos == 0 ? 0 : runRecords * 1e9 / elapsedNanos;
+		}
+		@Override
+		public String toString() {
+			return "records="
+				+ records
+				+ ",records/s="
+				+ (long) getRecordsPerSecond()
+				+ ",input="
+				+ inputOffset
+				+ "/"
+				+ inputSize
+				+ ",output="
+				+ outputOffset;
+		}
+	}
+
+	/**
+	 * FileNormalizerのBuilder.
+	 * 固定長(fixedWidth)又はCSV(csv)のどちらかを指定する。
+	 */
+	public static final class Builder {
+		/** 固定長のレイアウト */
+		private RecordLayout layout;
+		/** CSVの区切り文字 */
+		private char delimiter;
+		/** true:CSV */
+		private boolean csv;
+		/** 列毎の処理 */
+		private final List<Function<String, String>> ops = new ArrayList<Function<String, String>>();
+		/** 文字コード */
+		private Charset charset = Ms932Bytes.MS932;
+		/** チャンクのバイト長 */
+		private int chunkSize = DEFAULT_CHUNK_SIZE;
+		/** 実行するプール */
+		private ForkJoinPool pool = ForkJoinPool.commonPool();
+		/** 進捗の通知先 */
+		private Consumer<Stats> listener;
+
+		/**
+		 * コンストラクタ(FileNormalizer.builder()から生成する).
+		 */
+		private Builder() {
+		}
+		/**
+		 * 固定長指定.
+		 * @param layout レコードのレイアウト(項目のtrimを指定した場合はtrim後の値を出力する)
+		 * @return this
+		 */
+		public Builder fixedWidth(RecordLayout layout) {
+			if (layout == null || csv) {
+				throw new RuntimeException("FileNormalizer定義エラー:layout=" + layout + ",csv=" + csv);
+			}
+			this.layout = layout;
+			return this;
+		}
+		/**
+		 * CSV指定.
+		 * @param delimiter 区切り文字
+		 * @return this
+		 */
+		public Builder csv(char delimiter) {
+			if (layout != null || delimiter == '\r' || delimiter == '\n') {
+				throw new RuntimeException("FileNormalizer定義エラー:layout=" + layout + ",delimiter=" + (int) delimiter);
+			}
+			this.csv = true;
+			this.delimiter = delimiter;
+			return this;
+		}
+		/**
+		 * 列の処理追加.
+		 * 同じ列に複数指定した場合は指定順に処理する。
+		 * @param index 列番号(0始まり)
+		 * @param op 処理(例:StringUtils::trim)
+		 * @return this
+		 */
+		public Builder column(int index, Function<? super String, String> op) {
+			if (index < 0 || op == null || (layout != null && index >= layout.size())) {
+				throw new RuntimeException("FileNormalizer定義エラー:index=" + index + ",op=" + op);
+			}
+			while (ops.size() <= index) {
+				ops.add(null);
+			}
+			Function<String, String> prev = ops.get(index);
+			ops.set(index, prev == null ? op::apply : prev.andThen(op));
+			return this;
+		}
+		/**
+		 * 列の処理追加(固定長のみ).
+		 * @param name 項目名(RecordLayoutの項目名)
+		 * @param op 処理
+		 * @return this
+		 */
+		public Builder column(String name, Function<? super String, String> op) {
+			int index = layout == null ? -1 : layout.indexOf(name);
+			if (index < 0) {
+				throw new RuntimeException("FileNormalizer定義エラー:項目が存在しません。name=" + name);
+			}
+			return column(index, op);
+		}
+		/**
+		 * 文字コード指定(デフォルトはMS932).
+		 * @param charset 文字コード(改行を他の文字のバイトに含まないもの)
+		 * @return this
+		 */
+		public Builder charset(Charset charset) {
+			if (charset == null) {
+				throw new RuntimeException("FileNormalizer定義エラー:charset=null");
+			}
+			this.charset = charset;
+			return this;
+		}
+		/**
+		 * チャンクのバイト長指定(デフォルトはDEFAULT_CHUNK_SIZE).
+		 * @param chunkSize バイト長(1以上)
+		 * @return this
+		 */
+		public Builder chunkSize(int chunkSize) {
+			if (chunkSize < 1) {
+				throw new RuntimeException("FileNormalizer定義エラー:chunkSize=" + chunkSize);
+			}
+			this.chunkSize = chunkSize;
+			return this;
+		}
+		/**
+		 * 実行するプール指定(デフォルトは共通プール).
+		 * @param pool プール
+		 * @return this
+		 */
+		public Builder pool(ForkJoinPool pool) {
+			if (pool == null) {
+				throw new RuntimeException("FileNormalizer定義エラー:pool=null");
+			}
+			this.pool = pool;
+			return this;
+		}
+		/**
+		 * 進捗の通知先指定.
+		 * チャンクを書き込む毎に、書き込みを行うスレッドから呼ばれる。
+		 * @param listener 通知先
+		 * @return this
+		 */
+		public Builder progress(Consumer<Stats> listener) {
+			this.listener = listener;
+			return this;
+		}
+		/**
+		 * FileNormalizer生成.
+		 * @return FileNormalizer
+		 */
+		public FileNormalizer build() {
+			if (layout == null && !csv) {
+				throw new RuntimeException("FileNormalizer定義エラー:fixedWidth又はcsvを指定してください");
+			}
+			return new FileNormalizer(this);
+		}
+	}
+}
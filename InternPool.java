@@ -0,0 +1,291 @@
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 文字列の共有(intern)プール.
+ * trim・escNull・zeroPad等の結果のように種類の少ない値を、同じ内容の１つのインスタンスに共有し、
+ * 重複したStringをヒープに残さない。
+ * 文字列の範囲(String・char[]・StringSlice)で検索し、登録済みの場合は部分文字列を生成しない。
+ * <ul>
+ * <li>容量固定の4way セットアソシアティブ、セット内はCLOCK(参照ビット)で追い出す</li>
+ * <li>参照はロックなし(参照ビットは落ちている場合のみ書き込む)、登録はスロット単位のCAS(ClockTable)</li>
+ * <li>maxLengthより長い値は登録せずにそのまま文字列を返す(コード値以外で表を埋めない)</li>
+ * </ul>
+ * String.intern()と異なり、容量を超えた値は追い出されてGCの対象になる。
+ * <pre>
+ * InternPool pool = new InternPool(1024);
+ * String code = pool.trim(in);              // StringUtils.trim(in)と同じ内容
+ * String name = pool.intern(record, 4, 24);  // record.substring(4, 24)と同じ内容
+ * </pre>
+ */
+public final class InternPool {
+	/** デフォルトの容量 */
+	public static final int DEFAULT_CAPACITY = 4096;
+	/** デフォルトの登録する最大文字数 */
+	public static final int DEFAULT_MAX_LENGTH = 64;
+
+	/** 登録内容 */
+	private final ClockTable<String> table;
+	/** 登録する最大文字数 */
+	private final int maxLength;
+	/** ヒット数 */
+	private final LongAdder hits = new LongAdder();
+	/** ミス数 */
+	private final LongAdder misses = new LongAdder();
+	/** 追い出し数 */
+	private final LongAdder evictions = new LongAdder();
+	/** 登録対象外(maxLength超)の数 */
+	private final LongAdder rejects = new LongAdder();
+
+	/**
+	 * コンストラクタ(容量はDEFAULT_CAPACITY、最大文字数はDEFAULT_MAX_LENGTH).
+	 */
+	public InternPool() {
+		this(DEFAULT_CAPACITY, DEFAULT_MAX_LENGTH);
+	}
+	/**
+	 * コンストラクタ(最大文字数はDEFAULT_MAX_LENGTH).
+	 * @param capacity 容量(件数、4の倍数の2のべき乗に切り上げ)
+	 */
+	public InternPool(int capacity) {
+		this(capacity, DEFAULT_MAX_LENGTH);
+	}
+	/**
+	 * コンストラクタ.
+	 * @param capacity 容量(件数、4の倍数の2のべき乗に切り上げ)
+	 * @param maxLength 登録する最大文字数(これより長い値は登録しない)
+	 */
+	public InternPool(int capacity, int maxLength) {
+		if (capacity < 1 || capacity > (1 << 28) || maxLength < 0) {
+			throw new RuntimeException("InternPool()エラー:capacity=" + capacity + ",maxLength=" + maxLength);
+		}
+		this.table = new ClockTable<String>(capacity);
+		this.maxLength = maxLength;
+	}
+	/**
+	 * 容量取得.
+	 * @return 容量(件数)
+	 */
+	public int capacity() {
+		return table.capacity();
+	}
+	/**
+	 * 登録する最大文字数取得.
+	 * @return 最大文字数
+	 */
+	public int getMaxLength() {
+		return maxLength;
+	}
+
+	//--------------------------------------------------------------------------
+	// 共有
+	//--------------------------------------------------------------------------
+	/**
+	 * 共有.
+	 * @param s 文字列(nullの場合はnull)
+	 * @return 同じ内容の共有インスタンス(未登録の場合はsを登録して返す)
+	 */
+	public String intern(String s) {
+		if (s == null) {
+			return null;
+		}
+		return intern(s, 0, s.length());
+	}
+	/**
+	 * 範囲の共有(登録済みの場合は部分文字列を生成しない).
+	 * @param s 文字列(nullの場合はException)
+	 * @param begin 開始インデックス (この値を含む)
+	 * @param end 終了インデックス (この値を含まない)
+	 * @return s.substring(begin, end)と同じ内容の共有インスタンス
+	 */
+	public String intern(String s, int begin, int end) {
+		if (begin < 0 || end > s.length() || begin > end) {
+			throw new StringIndexOutOfBoundsException(
+				"begin " + begin + ", end " + end + ", length " + s.length());
+		}
+		int len = end - begin;
+		if (len > maxLength) {
+			rejects.increment();
+			return s.substring(begin, end);
+		}
+		int h = 0;
+		for (int i = begin; i < end; i++) {
+			h = 31 * h + s.charAt(i);
+		}
+		return get(h, s, null, begin, len);
+	}
+	/**
+	 * 範囲の共有(登録済みの場合は文字列を生成しない).
+	 * @param chars 文字(nullの場合はException)
+	 * @param offset 開始位置
+	 * @param length 文字数
+	 * @return new String(chars, offset, length)と同じ内容の共有インスタンス
+	 */
+	public String intern(char[] chars, int offset, int length) {
+		if (offset < 0 || length < 0 || offset > chars.length - length) {
+			throw new StringIndexOutOfBoundsException(
+				"offset " + offset + ", length " + length + ", array length " + chars.length);
+		}
+		if (length > maxLength) {
+			rejects.increment();
+			return new String(chars, offset, length);
+		}
+		int h = 0;
+		for (int i = offset; i < offset + length; i++) {
+			h = 31 * h + chars[i];
+		}
+		return get(h, null, chars, offset, length);
+	}
+	/**
+	 * ビューの共有(登録済みの場合は文字列を生成しない).
+	 * ハッシュ値はビューで計算済みの値を使う。
+	 * @param slice ビュー(nullの場合はnull)
+	 * @return slice.toString()と同じ内容の共有インスタンス
+	 */
+	public String intern(StringSlice slice) {
+		if (slice == null) {
+			return null;
+		}
+		int len = slice.length();
+		if (len > maxLength) {
+			rejects.increment();
+			return slice.toString();
+		}
+		return get(slice.hashCode(), slice.getSource(), null, slice.getBegin(), len);
+	}
+	/**
+	 * 両側Trimして共有(StringUtils.trimと同じ内容、trim後の部分文字列を生成しない).
+	 * @param s 入力文字列(nullの場合は空文字)
+	 * @return trim後の共有インスタンス
+	 */
+	public String trim(String s) {
+		if (s == null) {
+			return "";
+		}
+		int end = CharScanKernel.rTrimOffset(s, 0, s.length());
+		return intern(s, CharScanKernel.lTrimOffset(s, 0, end), end);
+	}
+	/**
+	 * 右Trimして共有(StringUtils.rTrimと同じ内容、trim後の部分文字列を生成しない).
+	 * @param s 入力文字列(nullの場合は空文字)
+	 * @return trim後の共有インスタンス
+	 */
+	public String rTrim(String s) {
+		if (s == null) {
+			return "";
+		}
+		return intern(s, 0, CharScanKernel.rTrimOffset(s, 0, s.length()));
+	}
+
+	//--------------------------------------------------------------------------
+	// 統計
+	//--------------------------------------------------------------------------
+	/**
+	 * ヒット数取得.
+	 * @return ヒット数
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+	/**
+	 * ミス数取得.
+	 * @return ミス数
+	 */
+	public long getMissCount() {
+		return misses.sum();
+	}
+	/**
+	 * 追い出し数取得.
+	 * @return 追い出し数
+	 */
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+	/**
+	 * 登録対象外(最大文字数超)の数取得.
+	 * @return 登録対象外の数
+	 */
+	public long getRejectCount() {
+		return rejects.sum();
+	}
+	/**
+	 * ヒット率取得(登録対象外は含まない).
+	 * @return ヒット率(0～1、呼び出しなしの場合は0)
+	 */
+	public double getHitRate() {
+		long h = hits.sum();
+		long total = h + misses.sum();
+		return total == 0 ? 0 : (double) h / total;
+	}
+	/**
+	 * 登録件数取得(全スロットを数える).
+	 * @return 登録件数
+	 */
+	public int size() {
+		return table.size();
+	}
+	/**
+	 * 全件削除(統計はクリアしない).
+	 */
+	public void clear() {
+		table.clear();
+	}
+	@Override
+	public String toString() {
+		return "InternPool[capacity=" + capacity()
+			+ ",hits=" + getHitCount()
+			+ ",misses=" + getMissCount()
+			+ ",evictions=" + getEvictionCount()
+			+ ",rejects=" + getRejectCount() + "]";
+	}
+
+	//--------------------------------------------------------------------------
+	// プール
+	//--------------------------------------------------------------------------
+	/**
+	 * 共有インスタンス取得(未登録の場合は生成して登録).
+	 * 範囲はs又はcharsのどちらか一方で指定する。
+	 * @param h 範囲のハッシュ値(String.hashCode()と同じ計算)
+	 */
+	private String get(int h, String s, char[] chars, int begin, int len) {
+		int base = table.base(spread(h));
+		for (int i = base; i < base + ClockTable.WAYS; i++) {
+			String e = table.get(i);
+			if (e != null && e.length() == len && e.hashCode() == h
+				&& (s != null ? e.regionMatches(0, s, begin, len) : equals(e, chars, begin, len))) {
+				table.touch(i);
+				hits.increment();
+				return e;
+			}
+		}
+		misses.increment();
+		String value;
+		if (s == null) {
+			value = new String(chars, begin, len);
+		} else if (begin == 0 && len == s.length()) {
+			value = s;
+		} else {
+			value = s.substring(begin, begin + len);
+		}
+		if (table.put(base, value)) {
+			evictions.increment();
+		}
+		return value;
+	}
+	/**
+	 * 文字列と文字の範囲の比較.
+	 */
+	private static boolean equals(String e, char[] chars, int offset, int len) {
+		for (int i = 0; i < len; i++) {
+			if (e.charAt(i) != chars[offset + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+	/**
+	 * ハッシュの上位ビットを下位に混ぜる(セット番号用).
+	 */
+	private static int spread(int h) {
+		return h ^ (h >>> 16);
+	}
+}
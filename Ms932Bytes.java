@@ -0,0 +1,242 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * MS932(Windows-31J)でエンコードされたバイト列の操作.
+ * StringUtilsの*Byte系メソッドと同じ操作を、Stringにデコードせずにバイト列上で行う。
+ * 先行バイト(0x81～0x9F、0xE0～0xFC)と後続バイトの組を１文字として扱い、結果はバイト範囲で返す。
+ * 必要な項目だけdecode()で文字列にする。
+ * <p>
+ * 位置は全てByteBufferの絶対インデックスで指定し、ByteBufferのposition/limitは変更しない。
+ * MS932は後続バイトが先行バイトや半角文字と重なるため、文字境界は必ず既知の境界(項目の先頭)から前方に走査して求める。
+ */
+public final class Ms932Bytes {
+	/** コンストラクタ(全てstaticメソッドのクラスなのでインスタンス化なし) */
+	private Ms932Bytes() {
+	}
+	/** MS932 */
+	public static final Charset MS932 = Charset.forName("windows-31j");
+	/** 全角スペース(MS932) */
+	private static final int FULL_WIDTH_SPACE_1 = 0x81;
+	/** 全角スペースの２バイト目(MS932) */
+	private static final int FULL_WIDTH_SPACE_2 = 0x40;
+
+	/**
+	 * 先行バイト判断.
+	 * @param b バイト
+	 * @return true:２バイト文字の１バイト目
+	 */
+	public static boolean isLeadByte(byte b) {
+		int x = b & 0xFF;
+		return (x >= 0x81 && x <= 0x9F) || (x >= 0xE0 && x <= 0xFC);
+	}
+	/**
+	 * 指定位置の文字のバイト長取得.
+	 * 範囲の最後のバイトが先行バイトの場合(文字の途中で切れている場合)は1とする。
+	 * @param buf バイト列
+	 * @param pos 文字の開始位置
+	 * @param to 範囲の終了位置(この値を含まない)
+	 * @return バイト長(1又は2)
+	 */
+	public static int charLength(ByteBuffer buf, int pos, int to) {
+		return isLeadByte(buf.get(pos)) && pos + 1 < to ? 2 : 1;
+	}
+	/**
+	 * 範囲の文字数取得.
+	 * @param buf バイト列
+	 * @param from 範囲の開始位置(文字境界)
+	 * @param to 範囲の終了位置(この値を含まない)
+	 * @return 文字数
+	 */
+	public static int charCount(ByteBuffer buf, int from, int to) {
+		int rtn = 0;
+		for (int i = from; i < to; i += charLength(buf, i, to)) {
+			rtn++;
+		}
+		return rtn;
+	}
+	/**
+	 * 文字境界判断.
+	 * @param buf バイト列
+	 * @param from 範囲の開始位置(文字境界)
+	 * @param to 範囲の終了位置(この値を含まない)
+	 * @param pos 判断する位置(from～to)
+	 * @return true:文字境界
+	 */
+	public static boolean isBoundary(ByteBuffer buf, int from, int to, int pos) {
+		if (pos < from || pos > to) {
+			return false;
+		}
+		int i = from;
+		while (i < pos) {
+			i += charLength(buf, i, to);
+		}
+		return i == pos;
+	}
+	/**
+	 * 指定バイト長でカットする位置取得(StringUtils.cutStringByteと同じ).
+	 * バイト長境界が文字境界でない場合(２バイト文字の場合)、直前の文字境界でカット。
+	 * @param buf バイト列
+	 * @param from 範囲の開始位置(文字境界)
+	 * @param to 範囲の終了位置(この値を含まない)
+	 * @param byteLength バイト長
+	 * @return カット位置(この値を含まない)
+	 */
+	public static int cutIndex(ByteBuffer buf, int from, int to, int byteLength) {
+		if (byteLength <= 0) {
+			return from;
+		}
+		long limit = (long) from + byteLength;
+		if (limit >= to) {
+			return to;
+		}
+		int i = from;
+		while (i < to) {
+			int next = i + charLength(buf, i, to);
+			if (next > limit) {
+				break;
+			}
+			i = next;
+		}
+		return i;
+	}
+	/**
+	 * バイトオフセットによる部分範囲取得(StringUtils.substringByteと同じ).
+	 * 結果はコピーせず、bufを共有するByteBuffer(position=0、limit=長さ)で返す。
+	 * (注)指定オフセットが文字境界でない場合、例外発生
+	 * @param buf バイト列
+	 * @param from 範囲の開始位置(文字境界)
+	 * @param to 範囲の終了位置(この値を含まない)
+	 * @param beginByteIndex fromからの開始インデックス (この値を含む)
+	 * @param endByteIndex fromからの終了インデックス (この値を含まない)
+	 * @return 部分範囲
+	 */
+	public static ByteBuffer substringByte(ByteBuffer buf, int from, int to, int beginByteIndex, int endByteIndex) {
+		int begin = from + beginByteIndex;
+		int end = from + endByteIndex;
+		//エラーチェック
+		if (!isBoundary(buf, from, to, begin) || !isBoundary(buf, begin, to, end)) {
+			throw new RuntimeException(
+				"指定INDEXは文字境界ではありません。"
+					+ "beginByteIndex="
+					+ beginByteIndex
+					+ ",endByteIndex="
+					+ endByteIndex);
+		}
+		return buf.duplicate().position(begin).limit(end).slice();
+	}
+	/**
+	 * 右Trimで残す終了位置取得(StringUtils.rTrimと同じく半角スペース以下の文字及び全角スペースを削除).
+	 * @param buf バイト列
+	 * @param from 範囲の開始位置(文字境界)
+	 * @param to 範囲の終了位置(この値を含まない)
+	 * @return 終了位置(この値を含まない)
+	 */
+	public static int rTrimIndex(ByteBuffer buf, int from, int to) {
+		int rtn = from;
+		int i = from;
+		while (i < to) {
+			int len = charLength(buf, i, to);
+			if (!isTrimChar(buf, i, len)) {
+				rtn = i + len;
+			}
+			i += len;
+		}
+		return rtn;
+	}
+	/**
+	 * 左Trimで残す開始位置取得(StringUtils.trimと同じく半角スペース以下の文字及び全角スペースを削除).
+	 * trimする場合は、先にrTrimIndex()で求めた終了位置をtoに指定する。
+	 * @param buf バイト列
+	 * @param from 範囲の開始位置(文字境界)
+	 * @param to 範囲の終了位置(この値を含まない)
+	 * @return 開始位置(この値を含む)
+	 */
+	public static int lTrimIndex(ByteBuffer buf, int from, int to) {
+		int i = from;
+		while (i < to) {
+			int len = charLength(buf, i, to);
+			if (!isTrimChar(buf, i, len)) {
+				break;
+			}
+			i += len;
+		}
+		return i;
+	}
+	/**
+	 * 右Padding(StringUtils.rPadByteと同じ).
+	 * srcの範囲をdstのpositionに書き込み、byteLengthになるまでpadを付加する。
+	 * 範囲のバイト長＞＝最終バイト長のときは、範囲をそのまま書き込む。
+	 * @param src 入力バイト列
+	 * @param from 範囲の開始位置
+	 * @param to 範囲の終了位置(この値を含まない)
+	 * @param dst 出力先(positionから書き込み、positionを進める)
+	 * @param byteLength 最終バイト長
+	 * @param pad Padding文字のバイト列(半角スペースは{0x20}、全角スペースは{0x81, 0x40})
+	 * @return 書き込んだバイト数
+	 */
+	public static int rPadByte(ByteBuffer src, int from, int to, ByteBuffer dst, int byteLength, byte[] pad) {
+		int len = to - from;
+		dst.put(src.duplicate().position(from).limit(to));
+		int n = padCount(len, byteLength, pad);
+		for (int i = 0; i < n; i++) {
+			dst.put(pad);
+		}
+		return len + n * pad.length;
+	}
+	/**
+	 * 左Padding(StringUtils.lPadByteと同じ).
+	 * byteLengthになるまでpadをdstのpositionに書き込み、srcの範囲を書き込む。
+	 * 範囲のバイト長＞＝最終バイト長のときは、範囲をそのまま書き込む。
+	 * @param src 入力バイト列
+	 * @param from 範囲の開始位置
+	 * @param to 範囲の終了位置(この値を含まない)
+	 * @param dst 出力先(positionから書き込み、positionを進める)
+	 * @param byteLength 最終バイト長
+	 * @param pad Padding文字のバイト列(半角スペースは{0x20}、全角スペースは{0x81, 0x40})
+	 * @return 書き込んだバイト数
+	 */
+	public static int lPadByte(ByteBuffer src, int from, int to, ByteBuffer dst, int byteLength, byte[] pad) {
+		int len = to - from;
+		int n = padCount(len, byteLength, pad);
+		for (int i = 0; i < n; i++) {
+			dst.put(pad);
+		}
+		dst.put(src.duplicate().position(from).limit(to));
+		return len + n * pad.length;
+	}
+	/**
+	 * 範囲を文字列にデコード.
+	 * @param buf バイト列
+	 * @param from 範囲の開始位置
+	 * @param to 範囲の終了位置(この値を含まない)
+	 * @return 文字列
+	 */
+	public static String decode(ByteBuffer buf, int from, int to) {
+		if (buf.hasArray()) {
+			return new String(buf.array(), buf.arrayOffset() + from, to - from, MS932);
+		}
+		byte[] b = new byte[to - from];
+		buf.get(from, b);
+		return new String(b, MS932);
+	}
+	/**
+	 * trim対象文字(半角スペース以下の文字／全角スペース)判断.
+	 */
+	private static boolean isTrimChar(ByteBuffer buf, int pos, int len) {
+		int b = buf.get(pos) & 0xFF;
+		if (len == 1) {
+			return b <= 0x20;
+		}
+		return b == FULL_WIDTH_SPACE_1 && (buf.get(pos + 1) & 0xFF) == FULL_WIDTH_SPACE_2;
+	}
+	/**
+	 * Padding文字の個数取得.
+	 */
+	private static int padCount(int len, int byteLength, byte[] pad) {
+		if (len >= byteLength) {
+			return 0;
+		}
+		return (byteLength - len) / pad.length;
+	}
+}
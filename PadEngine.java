@@ -0,0 +1,112 @@
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Paddingの処理本体.
+ * Padding文字数を先に求め、作成済みのPadding文字列(半角スペース・"0"・全角スペース)と
+ * 入力文字列を１回で連結する(String.concatは連結後の長さで１回だけ領域を確保する)。
+ * 作成済みでない文字・長さの場合は最終文字数のchar[]にPadding文字と入力文字列を書き込む(一時文字列なし)。
+ */
+final class PadEngine {
+	/** コンストラクタ(全てstaticメソッドのクラスなのでインスタンス化なし) */
+	private PadEngine() {
+	}
+	/** 作成済みPadding文字列の最大文字数 */
+	static final int RUN_LENGTH = 128;
+	/** 半角スペースのPadding文字列(添字:文字数) */
+	private static final String[] SPACES = runs(' ');
+	/** "0"のPadding文字列(添字:文字数) */
+	private static final String[] ZEROS = runs('0');
+	/** 全角スペースのPadding文字列(添字:文字数) */
+	private static final String[] WIDE_SPACES = runs('　');
+
+	/**
+	 * 右Padding.
+	 * @param s 入力文字列
+	 * @param n Padding文字数(0以下の場合はsをそのまま返す)
+	 * @param c Padding文字
+	 * @return Padding後文字列
+	 */
+	static String rPad(String s, int n, char c) {
+		if (n <= 0) {
+			return s;
+		}
+		String[] runs = cached(c);
+		if (runs != null && n <= RUN_LENGTH) {
+			return s.concat(runs[n]);
+		}
+		int len = s.length();
+		char[] buf = new char[len + n];
+		s.getChars(0, len, buf, 0);
+		Arrays.fill(buf, len, len + n, c);
+		return new String(buf);
+	}
+	/**
+	 * 左Padding.
+	 * @param s 入力文字列
+	 * @param n Padding文字数(0以下の場合はsをそのまま返す)
+	 * @param c Padding文字
+	 * @return Padding後文字列
+	 */
+	static String lPad(String s, int n, char c) {
+		if (n <= 0) {
+			return s;
+		}
+		String[] runs = cached(c);
+		if (runs != null && n <= RUN_LENGTH) {
+			return runs[n].concat(s);
+		}
+		char[] buf = new char[n + s.length()];
+		Arrays.fill(buf, 0, n, c);
+		s.getChars(0, s.length(), buf, n);
+		return new String(buf);
+	}
+	/**
+	 * cをn文字outに追加(作成済みPadding文字列はまとめて追加).
+	 * @param out 追加先
+	 * @param c Padding文字
+	 * @param n 文字数
+	 * @return 追加した文字数(nが負の場合は0)
+	 * @throws IOException outへの追加エラー
+	 */
+	static int append(Appendable out, char c, int n) throws IOException {
+		String[] runs = cached(c);
+		if (runs == null) {
+			for (int i = 0; i < n; i++) {
+				out.append(c);
+			}
+		} else {
+			for (int rest = n; rest > 0; rest -= RUN_LENGTH) {
+				out.append(runs[Math.min(rest, RUN_LENGTH)]);
+			}
+		}
+		return Math.max(0, n);
+	}
+	/**
+	 * 作成済みPadding文字列の取得.
+	 * @return 作成済みPadding文字列(作成済みでない文字の場合はnull)
+	 */
+	private static String[] cached(char c) {
+		switch (c) {
+			case ' ':
+				return SPACES;
+			case '0':
+				return ZEROS;
+			case '　':
+				return WIDE_SPACES;
+			default:
+				return null;
+		}
+	}
+	/**
+	 * 0～RUN_LENGTH文字のPadding文字列作成.
+	 */
+	private static String[] runs(char c) {
+		String[] rtn = new String[RUN_LENGTH + 1];
+		String all = String.valueOf(c).repeat(RUN_LENGTH);
+		for (int n = 0; n <= RUN_LENGTH; n++) {
+			rtn[n] = all.substring(0, n);
+		}
+		return rtn;
+	}
+}
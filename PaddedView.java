@@ -0,0 +1,95 @@
+import java.util.Arrays;
+
+/**
+ * Paddingした文字列のビュー.
+ * 元の文字列の左右にPadding文字が並んでいるものとして振る舞い、Paddingを実体化しない。
+ * toString()を呼んだ時点で初めて文字列を生成する。
+ */
+public final class PaddedView implements CharSequence {
+	/** 元の文字列 */
+	private final CharSequence s;
+	/** 左Padding文字数 */
+	private final int left;
+	/** 右Padding文字数 */
+	private final int right;
+	/** Padding文字 */
+	private final char c;
+
+	/**
+	 * コンストラクタ.
+	 * @param s 元の文字列(nullの場合はException)
+	 * @param left 左Padding文字数
+	 * @param right 右Padding文字数
+	 * @param c Padding文字
+	 */
+	public PaddedView(CharSequence s, int left, int right, char c) {
+		if (s == null || left < 0 || right < 0) {
+			throw new RuntimeException("PaddedView()エラー:left=" + left + ",right=" + right);
+		}
+		this.s = s;
+		this.left = left;
+		this.right = right;
+		this.c = c;
+	}
+	/**
+	 * 左Padding文字数取得.
+	 * @return 左Padding文字数
+	 */
+	public int getLeftPadding() {
+		return left;
+	}
+	/**
+	 * 右Padding文字数取得.
+	 * @return 右Padding文字数
+	 */
+	public int getRightPadding() {
+		return right;
+	}
+	@Override
+	public int length() {
+		return left + s.length() + right;
+	}
+	@Override
+	public char charAt(int index) {
+		if (index < 0 || index >= length()) {
+			throw new StringIndexOutOfBoundsException(index);
+		}
+		int i = index - left;
+		if (i < 0 || i >= s.length()) {
+			return c;
+		}
+		return s.charAt(i);
+	}
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		if (start < 0 || end > length() || start > end) {
+			throw new StringIndexOutOfBoundsException(
+				"begin " + start + ", end " + end + ", length " + length());
+		}
+		int len = s.length();
+		int from = Math.min(Math.max(start - left, 0), len);
+		int to = Math.min(Math.max(end - left, 0), len);
+		int newLeft = Math.min(end, left) - Math.min(start, left);
+		int newRight = Math.max(end - left - len, 0) - Math.max(start - left - len, 0);
+		return new PaddedView(s.subSequence(from, to), newLeft, newRight, c);
+	}
+	/**
+	 * 文字列を生成.
+	 * @return Padding後文字列
+	 */
+	@Override
+	public String toString() {
+		char[] buf = new char[length()];
+		Arrays.fill(buf, 0, left, c);
+		int len = s.length();
+		if (s instanceof String) {
+			((String) s).getChars(0, len, buf, left);
+		} else {
+			for (int i = 0; i < len; i++) {
+				buf[left + i] = s.charAt(i);
+			}
+		}
+		Arrays.fill(buf, left + len, buf.length, c);
+		return new String(buf);
+	}
+}
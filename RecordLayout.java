@@ -0,0 +1,288 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 固定長レコードのレイアウト.
+ * 項目名とバイト長を一度定義し、レコード文字列を先頭から１回の走査で全項目に分割する。
+ * バイト長はStringUtils.byteLength(char)で計算する。
+ * インスタンスは不変なので複数スレッドで共有できる(Resultはスレッド毎に用意すること)。
+ * <pre>
+ * RecordLayout layout = RecordLayout.builder()
+ *     .field("code", 4)
+ *     .field("name", 20, true)
+ *     .build();
+ * RecordLayout.Result r = layout.newResult();
+ * layout.decode(record, r);
+ * String name = r.getString("name");
+ * </pre>
+ */
+public final class RecordLayout {
+	/** 項目名 */
+	private final String[] names;
+	/** 項目のバイト長 */
+	private final int[] widths;
+	/** 項目毎のtrim有無 */
+	private final boolean[] trims;
+	/** レコードのバイト長 */
+	private final int recordByteLength;
+
+	/**
+	 * コンストラクタ(builder()から生成する).
+	 */
+	private RecordLayout(List<String> names, List<Integer> widths, List<Boolean> trims) {
+		int n = names.size();
+		this.names = names.toArray(new String[n]);
+		this.widths = new int[n];
+		this.trims = new boolean[n];
+		int total = 0;
+		for (int i = 0; i < n; i++) {
+			this.widths[i] = widths.get(i);
+			this.trims[i] = trims.get(i);
+			total += this.widths[i];
+		}
+		this.recordByteLength = total;
+	}
+	/**
+	 * Builder取得.
+	 * @return Builder
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+	/**
+	 * 項目数取得.
+	 * @return 項目数
+	 */
+	public int size() {
+		return names.length;
+	}
+	/**
+	 * 項目名取得.
+	 * @param index 項目番号(0始まり)
+	 * @return 項目名
+	 */
+	public String getName(int index) {
+		return names[index];
+	}
+	/**
+	 * 項目番号取得.
+	 * @param name 項目名
+	 * @return 項目番号(0始まり、存在しない場合は-1)
+	 */
+	public int indexOf(String name) {
+		for (int i = 0; i < names.length; i++) {
+			if (names[i].equals(name)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+	/**
+	 * レコードのバイト長(全項目のバイト長の合計)取得.
+	 * @return バイト長
+	 */
+	public int getRecordByteLength() {
+		return recordByteLength;
+	}
+	/**
+	 * このレイアウト用の結果格納領域を生成.
+	 * @return 結果格納領域
+	 */
+	public Result newResult() {
+		return new Result(this);
+	}
+	/**
+	 * レコードを全項目に分割.
+	 * 結果には各項目の文字オフセットのみ格納し、項目毎の文字列は生成しない。
+	 * (注)項目境界が文字境界でない場合、例外発生(StringUtils.substringByteと同じ)。
+	 * 例外時のresultは未分割(getRecord()がnull)の状態になる
+	 * @param record レコード文字列(nullの場合はException)
+	 * @param result 結果格納領域(このレイアウトのnewResult()で生成したもの)
+	 * @return result
+	 */
+	public Result decode(String record, Result result) {
+		if (record == null || result == null || result.layout != this) {
+			throw StringUtilsException.decode(record, result);
+		}
+		//途中の項目で例外の場合に前のレコードと新しいオフセットが混在しないよう、未分割の状態にしておく
+		result.record = null;
+		int charIndex = 0;
+		int byteIndex = 0;
+		int len = record.length();
+		for (int f = 0; f < widths.length; f++) {
+			int begin = charIndex;
+			int endByte = byteIndex + widths[f];
+			while (byteIndex < endByte && charIndex < len) {
+				byteIndex += StringUtils.byteLength(record.charAt(charIndex));
+				charIndex++;
+			}
+			//エラーチェック
+			if (byteIndex != endByte) {
+				throw StringUtilsException.notBoundary(endByte - widths[f], endByte, len);
+			}
+			int end = charIndex;
+			if (trims[f]) {
+				while (end > begin && StringUtils.isTrimChar(record.charAt(end - 1))) {
+					end--;
+				}
+				while (begin < end && StringUtils.isTrimChar(record.charAt(begin))) {
+					begin++;
+				}
+			}
+			result.begins[f] = begin;
+			result.ends[f] = end;
+		}
+		result.decodedLength = charIndex;
+		result.record = record;
+		return result;
+	}
+	/**
+	 * レコードを全項目の文字列に分割.
+	 * @param record レコード文字列(nullの場合はException)
+	 * @return 項目の文字列の配列
+	 */
+	public String[] decode(String record) {
+		Result r = decode(record, newResult());
+		String[] rtn = new String[widths.length];
+		for (int i = 0; i < rtn.length; i++) {
+			rtn[i] = r.getString(i);
+		}
+		return rtn;
+	}
+
+	/**
+	 * 分割結果.
+	 * レコードと各項目の文字オフセットを保持し、再利用できる。
+	 */
+	public static final class Result {
+		/** レイアウト */
+		private final RecordLayout layout;
+		/** 項目の開始文字オフセット(この値を含む) */
+		private final int[] begins;
+		/** 項目の終了文字オフセット(この値を含まない) */
+		private final int[] ends;
+		/** 分割したレコード */
+		private String record;
+		/** 全項目の文字数(レコードのバイト長までの文字数) */
+		private int decodedLength;
+
+		/**
+		 * コンストラクタ(RecordLayout.newResult()から生成する).
+		 */
+		private Result(RecordLayout layout) {
+			this.layout = layout;
+			this.begins = new int[layout.size()];
+			this.ends = new int[layout.size()];
+		}
+		/**
+		 * 分割したレコード取得.
+		 * @return レコード文字列(未分割の場合はnull)
+		 */
+		public String getRecord() {
+			return record;
+		}
+		/**
+		 * 全項目の文字数取得.
+		 * レコードがレイアウトのバイト長より長い場合、この位置以降は項目に含まない。
+		 * @return 最後の項目の終了文字オフセット(trim前)
+		 */
+		public int getDecodedLength() {
+			return decodedLength;
+		}
+		/**
+		 * 項目の開始文字オフセット取得.
+		 * @param index 項目番号(0始まり)
+		 * @return 開始文字オフセット(この値を含む)
+		 */
+		public int getBegin(int index) {
+			return begins[index];
+		}
+		/**
+		 * 項目の終了文字オフセット取得.
+		 * @param index 項目番号(0始まり)
+		 * @return 終了文字オフセット(この値を含まない)
+		 */
+		public int getEnd(int index) {
+			return ends[index];
+		}
+		/**
+		 * 項目の文字列取得.
+		 * @param index 項目番号(0始まり)
+		 * @return 項目の文字列
+		 */
+		public String getString(int index) {
+			return record.substring(begins[index], ends[index]);
+		}
+		/**
+		 * 項目の文字列取得.
+		 * @param name 項目名
+		 * @return 項目の文字列
+		 */
+		public String getString(String name) {
+			int index = layout.indexOf(name);
+			if (index < 0) {
+				throw new RuntimeException("項目が存在しません。name=" + name);
+			}
+			return getString(index);
+		}
+		/**
+		 * 項目の文字列をbufに追加(文字列を生成しない).
+		 * @param index 項目番号(0始まり)
+		 * @param buf 追加先
+		 * @return buf
+		 */
+		public StringBuilder appendTo(int index, StringBuilder buf) {
+			return buf.append(record, begins[index], ends[index]);
+		}
+	}
+
+	/**
+	 * RecordLayoutのBuilder.
+	 */
+	public static final class Builder {
+		/** 項目名 */
+		private final List<String> names = new ArrayList<String>();
+		/** 項目のバイト長 */
+		private final List<Integer> widths = new ArrayList<Integer>();
+		/** 項目毎のtrim有無 */
+		private final List<Boolean> trims = new ArrayList<Boolean>();
+
+		/**
+		 * コンストラクタ(RecordLayout.builder()から生成する).
+		 */
+		private Builder() {
+		}
+		/**
+		 * 項目追加(trimなし).
+		 * @param name 項目名
+		 * @param byteWidth バイト長
+		 * @return this
+		 */
+		public Builder field(String name, int byteWidth) {
+			return field(name, byteWidth, false);
+		}
+		/**
+		 * 項目追加.
+		 * @param name 項目名(nullの場合はException)
+		 * @param byteWidth バイト長(0以下の場合はException)
+		 * @param trim true:項目の両側の半角スペース／全角スペースを除く(StringUtils.trimと同じ)
+		 * @return this
+		 */
+		public Builder field(String name, int byteWidth, boolean trim) {
+			if (name == null || byteWidth <= 0) {
+				throw new RuntimeException("項目定義エラー:name=" + name + ",byteWidth=" + byteWidth);
+			}
+			names.add(name);
+			widths.add(byteWidth);
+			trims.add(trim);
+			return this;
+		}
+		/**
+		 * RecordLayout生成.
+		 * @return RecordLayout
+		 */
+		public RecordLayout build() {
+			return new RecordLayout(names, widths, trims);
+		}
+	}
+}
@@ -0,0 +1,23 @@
+/**
+ * スレッド毎の作業領域.
+ * Stringの文字をブロック単位でchar[]にコピーして走査するカーネル(CharScanVector、ByteWidthVector等)で共有し、
+ * 呼び出し毎に配列を生成しない。
+ * (注)取得した配列は取得したメソッド内でのみ使い、同じ配列を使う他のカーネルを呼ぶ間は保持しないこと
+ */
+final class ScratchBuffer {
+	/** コンストラクタ(全てstaticメソッドのクラスなのでインスタンス化なし) */
+	private ScratchBuffer() {
+	}
+	/** ブロックの文字数(作業領域の大きさ) */
+	static final int BLOCK = 1024;
+	/** スレッド毎の作業領域 */
+	private static final ThreadLocal<char[]> CHARS = ThreadLocal.withInitial(() -> new char[BLOCK]);
+
+	/**
+	 * 作業領域取得.
+	 * @return 現在のスレッドの作業領域(BLOCK文字)
+	 */
+	static char[] chars() {
+		return CHARS.get();
+	}
+}
@@ -0,0 +1,154 @@
+/**
+ * 文字列の部分範囲のビュー.
+ * 元の文字列をコピーせずに参照する。toString()を呼んだ時点で初めて文字列を生成する。
+ * hashCode()は同じ内容のStringと同じ値となる。
+ */
+public final class StringSlice implements CharSequence, Comparable<CharSequence> {
+	/** 空のビュー */
+	static final StringSlice EMPTY = new StringSlice("", 0, 0);
+
+	/** 元の文字列 */
+	private final String s;
+	/** 開始インデックス (この値を含む) */
+	private final int begin;
+	/** 終了インデックス (この値を含まない) */
+	private final int end;
+	/** ハッシュ値(0の場合は未計算) */
+	private int hash;
+
+	/**
+	 * コンストラクタ.
+	 * @param s 元の文字列(nullの場合はException)
+	 * @param begin 開始インデックス (この値を含む)
+	 * @param end 終了インデックス (この値を含まない)
+	 */
+	public StringSlice(String s, int begin, int end) {
+		if (begin < 0 || end > s.length() || begin > end) {
+			throw new StringIndexOutOfBoundsException(
+				"begin " + begin + ", end " + end + ", length " + s.length());
+		}
+		this.s = s;
+		this.begin = begin;
+		this.end = end;
+	}
+	/**
+	 * 元の文字列取得.
+	 * @return 元の文字列
+	 */
+	public String getSource() {
+		return s;
+	}
+	/**
+	 * 元の文字列での開始インデックス取得.
+	 * @return 開始インデックス (この値を含む)
+	 */
+	public int getBegin() {
+		return begin;
+	}
+	/**
+	 * 元の文字列での終了インデックス取得.
+	 * @return 終了インデックス (この値を含まない)
+	 */
+	public int getEnd() {
+		return end;
+	}
+	@Override
+	public int length() {
+		return end - begin;
+	}
+	@Override
+	public char charAt(int index) {
+		if (index < 0 || index >= end - begin) {
+			throw new StringIndexOutOfBoundsException(index);
+		}
+		return s.charAt(begin + index);
+	}
+	@Override
+	public StringSlice subSequence(int start, int stop) {
+		if (start < 0 || stop > end - begin || start > stop) {
+			throw new StringIndexOutOfBoundsException(
+				"begin " + start + ", end " + stop + ", length " + (end - begin));
+		}
+		return new StringSlice(s, begin + start, begin + stop);
+	}
+	/**
+	 * 文字列を生成.
+	 * 範囲が元の文字列全体の場合は元の文字列をそのまま返す。
+	 * @return 文字列
+	 */
+	@Override
+	public String toString() {
+		return s.substring(begin, end);
+	}
+	/**
+	 * 共有インスタンスを取得(登録済みの場合は文字列を生成しない).
+	 * @param pool 共有プール
+	 * @return toString()と同じ内容の共有インスタンス
+	 */
+	public String intern(InternPool pool) {
+		return pool.intern(this);
+	}
+	/**
+	 * 内容の比較.
+	 * @param cs 比較対象(nullの場合はfalse)
+	 * @return true:同じ内容
+	 */
+	public boolean contentEquals(CharSequence cs) {
+		if (cs == null || cs.length() != end - begin) {
+			return false;
+		}
+		if (cs instanceof String) {
+			return s.regionMatches(begin, (String) cs, 0, end - begin);
+		}
+		for (int i = 0; i < end - begin; i++) {
+			if (s.charAt(begin + i) != cs.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+	/**
+	 * 同じ内容のStringSliceと等しい(Stringとの比較はcontentEquals()を使う).
+	 */
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof StringSlice)) {
+			return false;
+		}
+		StringSlice other = (StringSlice) o;
+		return other.length() == length() && s.regionMatches(begin, other.s, other.begin, length());
+	}
+	/**
+	 * ハッシュ値(String.hashCode()と同じ計算).
+	 */
+	@Override
+	public int hashCode() {
+		int h = hash;
+		if (h == 0) {
+			for (int i = begin; i < end; i++) {
+				h = 31 * h + s.charAt(i);
+			}
+			hash = h;
+		}
+		return h;
+	}
+	/**
+	 * 辞書順の比較(String.compareTo()と同じ順序).
+	 */
+	@Override
+	public int compareTo(CharSequence cs) {
+		int len = end - begin;
+		int n = Math.min(len, cs.length());
+		for (int i = 0; i < n; i++) {
+			char c1 = s.charAt(begin + i);
+			char c2 = cs.charAt(i);
+			if (c1 != c2) {
+				return c1 - c2;
+			}
+		}
+		return len - cs.length();
+	}
+}
@@ -1,7 +1,6 @@
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.Date;
 
 /**
@@ -26,15 +25,7 @@ public final class StringUtils {
 		if (s == null) {
 			return "";
 		}
-		int rightOffset = s.length();
-		for (int i = 0; i < s.length(); i++) {
-			char c = s.charAt(rightOffset - 1);
-			if (!isTrimChar(c)) {
-				break;
-			}
-			rightOffset--;
-		}
-		return s.substring(0, rightOffset);
+		return s.substring(0, rTrimOffset(s));
 	}
 	/**
 	 * 両側Trim.
@@ -47,16 +38,10 @@ public final class StringUtils {
 		if (s == null) {
 			return "";
 		}
-		String w = rTrim(s);
-		int leftOffset = 0;
-		for (int i = 0; i < w.length(); i++) {
-			char c = w.charAt(leftOffset);
-			if (!isTrimChar(c)) {
-				break;
-			}
-			leftOffset++;
-		}
-		return w.substring(leftOffset);
+		//左右の削除するオフセットを求めてから１回だけsubstring
+		int rightOffset = rTrimOffset(s);
+		int leftOffset = lTrimOffset(s, rightOffset);
+		return s.substring(leftOffset, rightOffset);
 	}
 	/**
 	 * 右Padding(文字数).(注)バイト数でPaddingする場合は@see rPadByte(String s, int byteLength, char c)
@@ -71,16 +56,8 @@ public final class StringUtils {
 		if (s == null)
 			s = "";
 		assertNotNull(s);
-		//もう既に文字数＞＝最終文字数ならば、Paddingなし
-		if (s.length() >= charLength) {
-			return s;
-		}
-		//Padding処理
-		StringBuffer buf = new StringBuffer(s);
-		for (int i = s.length(); i < charLength; i++) {
-			buf.append(c);
-		}
-		return buf.toString();
+		//Padding処理(もう既に文字数＞＝最終文字数ならば、Paddingなし)
+		return PadEngine.rPad(s, charLength - s.length(), c);
 	}
 	/**
 	 * 右半角スペースPadding(文字数).(注)バイト数でPaddingする場合は@see rPadByte(String s, int byteLength)
@@ -104,16 +81,8 @@ public final class StringUtils {
 	 */
 	public static String lPad(String s, int charLength, char c) {
 		assertNotNull(s);
-		//もう既に文字数＞＝最終文字数ならば、Paddingなし
-		if (s.length() >= charLength) {
-			return s;
-		}
-		//Padding処理
-		StringBuffer buf = new StringBuffer(s);
-		for (int i = s.length(); i < charLength; i++) {
-			buf.insert(0, c);
-		}
-		return buf.toString();
+		//Padding処理(もう既に文字数＞＝最終文字数ならば、Paddingなし)
+		return PadEngine.lPad(s, charLength - s.length(), c);
 	}
 	/**
 	 * 左半角スペースPadding(文字数).(注)バイト数でPaddingする場合は@see lPadByte(String s, int byteLength)
@@ -134,22 +103,44 @@ public final class StringUtils {
 	 * @return Padding後文字列
 	 */
 	public static String zeroPad(int i, int charLength) {
-		String rtn;
-		if (i >= 0) {
-			rtn = lPad(Integer.toString(i), charLength, '0');
-		} else {
-			rtn = "-" + lPad(Integer.toString(-i), charLength - 1, '0');
-		}
+		String rtn = zeroPadImpl(i, charLength);
 		//エラーチェック
-		if (rtn.length() != charLength) {
-			throw new RuntimeException(
-				"指定したcharLengthではZEROパディングできません。数値="
-					+ i
-					+ ",charLength="
-					+ charLength);
+		if (rtn == null) {
+			throw StringUtilsException.zeroPad(i, charLength);
 		}
 		return rtn;
 	}
+	/**
+	 * 左ゼロPadding(文字数)。負の場合は先頭文字が"-"となる.
+	 * charLength＜最終文字数のときは、例外を発生せずにnullを返す(以外はzeroPadと同じ)
+	 * @param i 数値
+	 * @param charLength 最終文字数
+	 * @return Padding後文字列(null時、Paddingできない)
+	 */
+	public static String tryZeroPad(int i, int charLength) {
+		return zeroPadImpl(i, charLength);
+	}
+	/**
+	 * zeroPadの処理本体.
+	 * @return Padding後文字列(null時、Paddingできない)
+	 */
+	private static String zeroPadImpl(int i, int charLength) {
+		if (i == Integer.MIN_VALUE) {
+			//従来どおり(-iが桁あふれし"-"が重複する)
+			String digits = Integer.toString(i);
+			int zeros = charLength - 1 - digits.length();
+			return zeros < 0 ? null : "-" + PadEngine.lPad(digits, zeros, '0');
+		}
+		long abs = Math.abs((long) i);
+		int zeros = charLength - digitCount(abs) - (i < 0 ? 1 : 0);
+		if (zeros < 0) {
+			return null;
+		}
+		//最終文字数の領域に直接書き込む(桁の文字列・Padding文字列を作成しない)
+		char[] buf = new char[charLength];
+		writeZeroPad(buf, 0, i, charLength, abs, zeros);
+		return new String(buf);
+	}
 	/**
 	 * 指定文字数で文字列をカット.
 	 * sの文字数＜＝指定文字数のときは、sをそのまま返す
@@ -170,37 +161,40 @@ public final class StringUtils {
 	 * @return バイト長
 	 */
 	public static int byteLength(String s) {
-		assertNotNull(s);
-		int rtn = 0;
-		for (int i = 0; i < s.length(); i++) {
-			rtn += byteLength(s.charAt(i));
+		return byteLength(s, ByteWidthModel.LEGACY);
+	}
+	/**
+	 * バイト長取得(モデル指定).
+	 * @param s 入力文字列(nullの場合はException)
+	 * @param model 文字毎のバイト長のモデル
+	 * @return バイト長
+	 */
+	public static int byteLength(String s, ByteWidthModel model) {
+		if (!StringUtilsMetrics.ENABLED) {
+			return byteLengthImpl(s, model);
 		}
+		//計測(stringutils.metrics=true時のみ)
+		long start = StringUtilsMetrics.start();
+		int rtn = byteLengthImpl(s, model);
+		StringUtilsMetrics.record(StringUtilsMetrics.BYTE_LENGTH, s, start, false);
 		return rtn;
 	}
+	/**
+	 * byteLengthの処理本体.
+	 */
+	private static int byteLengthImpl(String s, ByteWidthModel model) {
+		assertNotNull(s);
+		//LEGACYはブロック単位で全角文字数を数える(byteLength(char)と同じ結果)
+		return model.length(s);
+	}
 	/**
 	 * １文字のバイト長取得.
+	 * ASCII・\(YEN SIGN)・~(OVERLINE)・半角カタカナは1、以外は全角文字で2(ByteWidthModel.LEGACYの表を参照)
 	 * @param c 入力文字
 	 * @return バイト長
 	 */
 	public static int byteLength(char c) {
-		//ASCIIチェック
-		if (c <= '\u007E') {
-			return 1;
-		}
-		//\(YEN SIGN)----u005C(REVERSE SOLIDUS)とは異なる
-		if (c == '\u00A5') {
-			return 1;
-		}
-		//~(OVERLINE)----u007E(TILDE)とは異なる
-		if (c == '\u203E') {
-			return 1;
-		}
-		//半角カタカナ
-		if (c >= '\uFF61' && c <= '\uFF9F') {
-			return 1;
-		}
-		//以外は全角文字
-		return 2;
+		return ByteWidthModel.LEGACY_WIDTHS[c];
 	}
 	/**
 	 * 右Padding.
@@ -213,27 +207,37 @@ public final class StringUtils {
 	 * @return Padding後文字列
 	 */
 	public static String rPadByte(String s, int byteLength, char c) {
+		return rPadByte(s, byteLength, c, ByteWidthModel.LEGACY);
+	}
+	/**
+	 * 右Padding(モデル指定).
+	 * byteLengthのバイト数(modelで計算)になるまで、cを付加して返す
+	 * sのバイト長＞＝最終バイト長のときは、sをそのまま返す
+	 * バイト長境界が文字境界でない場合(多バイト文字の場合)直前の文字境界までPaddingして返す。
+	 * @param s 入力文字列(nullの場合は空文字)
+	 * @param byteLength 最終バイト長
+	 * @param c Padding文字
+	 * @param model 文字毎のバイト長のモデル
+	 * @return Padding後文字列
+	 */
+	public static String rPadByte(String s, int byteLength, char c, ByteWidthModel model) {
 		if (s == null)
 			s = "";
 		assertNotNull(s);
 		//もう既に文字長＞＝最終バイト長ならば、Paddingなし
-		if (s.length() >= byteLength) {
+		if (model.atLeast(s.length(), byteLength)) {
 			return s;
 		}
 		//文字バイト長取得
-		int sByteLen = byteLength(s);
+		int sByteLen = byteLength(s, model);
 		//もう既に文字バイト長＞＝最終バイト長ならば、Paddingなし
 		if (sByteLen >= byteLength) {
 			return s;
 		}
 		//Padding文字バイト長取得
-		int cByteLen = byteLength(c);
-		//Padding処理
-		StringBuffer buf = new StringBuffer(s);
-		for (int i = sByteLen + cByteLen; i <= byteLength; i += cByteLen) {
-			buf.append(c);
-		}
-		return buf.toString();
+		int cByteLen = model.width(c);
+		//Padding処理(最終バイト長を超えない文字数)
+		return PadEngine.rPad(s, (byteLength - sByteLen) / cByteLen, c);
 	}
 	/**
 	 * 右半角スペースPadding.
@@ -247,6 +251,17 @@ public final class StringUtils {
 	public static String rPadByte(String s, int byteLength) {
 		return rPadByte(s, byteLength, ' ');
 	}
+	/**
+	 * 右半角スペースPadding(モデル指定).
+	 * byteLengthのバイト数(modelで計算)になるまで、半角スペースを付加して返す
+	 * @param s 入力文字列(nullの場合は空文字)
+	 * @param byteLength 最終バイト長
+	 * @param model 文字毎のバイト長のモデル
+	 * @return Padding後文字列
+	 */
+	public static String rPadByte(String s, int byteLength, ByteWidthModel model) {
+		return rPadByte(s, byteLength, ' ', model);
+	}
 	/**
 	 * 左Padding.
 	 * byteLengthのバイト数になるまで、cを付加して返す
@@ -258,25 +273,35 @@ public final class StringUtils {
 	 * @return Padding後文字列
 	 */
 	public static String lPadByte(String s, int byteLength, char c) {
+		return lPadByte(s, byteLength, c, ByteWidthModel.LEGACY);
+	}
+	/**
+	 * 左Padding(モデル指定).
+	 * byteLengthのバイト数(modelで計算)になるまで、cを付加して返す
+	 * sのバイト長＞＝最終バイト長のときは、sをそのまま返す
+	 * バイト長境界が文字境界でない場合(多バイト文字の場合)直前の文字境界までPaddingして返す。
+	 * @param s 入力文字列(nullの場合はException)
+	 * @param byteLength 最終バイト長
+	 * @param c Padding文字
+	 * @param model 文字毎のバイト長のモデル
+	 * @return Padding後文字列
+	 */
+	public static String lPadByte(String s, int byteLength, char c, ByteWidthModel model) {
 		assertNotNull(s);
 		//もう既に文字長＞＝最終バイト長ならば、Paddingなし
-		if (s.length() >= byteLength) {
+		if (model.atLeast(s.length(), byteLength)) {
 			return s;
 		}
 		//文字バイト長取得
-		int sByteLen = byteLength(s);
+		int sByteLen = byteLength(s, model);
 		//もう既に文字バイト長＞＝最終バイト長ならば、Paddingなし
 		if (sByteLen >= byteLength) {
 			return s;
 		}
 		//Padding文字バイト長取得
-		int cByteLen = byteLength(c);
-		//Padding処理
-		StringBuffer buf = new StringBuffer(s);
-		for (int i = sByteLen + cByteLen; i <= byteLength; i += cByteLen) {
-			buf.insert(0, c);
-		}
-		return buf.toString();
+		int cByteLen = model.width(c);
+		//Padding処理(最終バイト長を超えない文字数)
+		return PadEngine.lPad(s, (byteLength - sByteLen) / cByteLen, c);
 	}
 	/**
 	 * 左半角スペースPadding.
@@ -290,6 +315,17 @@ public final class StringUtils {
 	public static String lPadByte(String s, int byteLength) {
 		return lPadByte(s, byteLength, ' ');
 	}
+	/**
+	 * 左半角スペースPadding(モデル指定).
+	 * byteLengthのバイト数(modelで計算)になるまで、半角スペースを付加して返す
+	 * @param s 入力文字列(nullの場合はException)
+	 * @param byteLength 最終バイト長
+	 * @param model 文字毎のバイト長のモデル
+	 * @return Padding後文字列
+	 */
+	public static String lPadByte(String s, int byteLength, ByteWidthModel model) {
+		return lPadByte(s, byteLength, ' ', model);
+	}
 	/**
 	 * バイトオフセットによる部分文字列取得.
 	 * (注)指定オフセットが文字境界でない場合、例外発生
@@ -298,46 +334,108 @@ public final class StringUtils {
 	 * @param endByteIndex 終了インデックス (この値を含まない)
 	 * @return
 	 */
-	public static String substringByte(
+	public static String substringByte(String s, int beginByteIndex, int endByteIndex) {
+		return substringByte(s, beginByteIndex, endByteIndex, ByteWidthModel.LEGACY);
+	}
+	/**
+	 * バイトオフセット(モデル指定)による部分文字列取得.
+	 * (注)指定オフセットが文字境界でない場合(サロゲートペアの間を含む)、例外発生
+	 * @param s 入力文字列(nullの場合はException)
+	 * @param beginByteIndex 開始インデックス (この値を含む)
+	 * @param endByteIndex 終了インデックス (この値を含まない)
+	 * @param model 文字毎のバイト長のモデル
+	 * @return 部分文字列
+	 */
+	public static String substringByte(String s, int beginByteIndex, int endByteIndex, ByteWidthModel model) {
+		if (!StringUtilsMetrics.ENABLED) {
+			return substringByteImpl(s, beginByteIndex, endByteIndex, model);
+		}
+		//計測(stringutils.metrics=true時のみ)
+		long start = StringUtilsMetrics.start();
+		try {
+			String rtn = substringByteImpl(s, beginByteIndex, endByteIndex, model);
+			StringUtilsMetrics.record(StringUtilsMetrics.SUBSTRING_BYTE, s, start, false);
+			return rtn;
+		} catch (RuntimeException e) {
+			StringUtilsMetrics.record(StringUtilsMetrics.SUBSTRING_BYTE, s, start, e);
+			throw e;
+		}
+	}
+	/**
+	 * substringByteの処理本体.
+	 */
+	private static String substringByteImpl(
 		String s,
 		int beginByteIndex,
-		int endByteIndex) {
+		int endByteIndex,
+		ByteWidthModel model) {
 		assertNotNull(s);
-		//１文字単位でLOOP
-		int wBeginIndex = -1;
-		int wEndIndex = -1;
-		int wByteLength = 0;
-		for (int i = 0; i < s.length(); i++) {
-			if (wByteLength == beginByteIndex) {
-				wBeginIndex = i;
-			}
-			if (wByteLength == endByteIndex) {
-				wEndIndex = i;
-			}
-			wByteLength += byteLength(s.charAt(i));
-		}
-		
-		if (wByteLength == beginByteIndex) {
-			wBeginIndex = s.length();
-		}
-		if (wByteLength == endByteIndex) {
-			wEndIndex = s.length();
+		//開始位置を検索し、終了位置は開始位置から続けて検索
+		int wBeginIndex = model.charIndex(s, beginByteIndex);
+		int wEndIndex;
+		if (wBeginIndex >= 0 && endByteIndex >= beginByteIndex) {
+			wEndIndex = model.charIndex(s, wBeginIndex, beginByteIndex, endByteIndex);
+		} else {
+			wEndIndex = model.charIndex(s, endByteIndex);
 		}
 		//エラーチェック
 		if (wBeginIndex < 0 || wEndIndex < 0) {
-			throw new RuntimeException(
-				"指定INDEXは文字境界ではありません。"
-					+ "beginByteIndex="
-					+ beginByteIndex
-					+ ",endByteIndex="
-					+ endByteIndex
-					+ ",s=["
-					+ s
-					+ "]");
+			throw StringUtilsException.notBoundary(beginByteIndex, endByteIndex, s);
 		}
 		//return
 		return s.substring(wBeginIndex, wEndIndex);
 	}
+	/**
+	 * バイトオフセットによる部分文字列取得.
+	 * 指定オフセットが文字境界でない場合・範囲が不正な場合・sがnullの場合は、例外を発生せずにnullを返す(以外はsubstringByteと同じ)
+	 * @param s 入力文字列
+	 * @param beginByteIndex 開始インデックス (この値を含む)
+	 * @param endByteIndex 終了インデックス (この値を含まない)
+	 * @return 部分文字列(null時、取得できない)
+	 */
+	public static String trySubstringByte(String s, int beginByteIndex, int endByteIndex) {
+		return trySubstringByte(s, beginByteIndex, endByteIndex, ByteWidthModel.LEGACY);
+	}
+	/**
+	 * バイトオフセット(モデル指定)による部分文字列取得.
+	 * 指定オフセットが文字境界でない場合・範囲が不正な場合・sがnullの場合は、例外を発生せずにnullを返す(以外はsubstringByteと同じ)
+	 * @param s 入力文字列
+	 * @param beginByteIndex 開始インデックス (この値を含む)
+	 * @param endByteIndex 終了インデックス (この値を含まない)
+	 * @param model 文字毎のバイト長のモデル
+	 * @return 部分文字列(null時、取得できない)
+	 */
+	public static String trySubstringByte(String s, int beginByteIndex, int endByteIndex, ByteWidthModel model) {
+		if (!StringUtilsMetrics.ENABLED) {
+			return trySubstringByteImpl(s, beginByteIndex, endByteIndex, model);
+		}
+		//計測(stringutils.metrics=true時のみ)
+		long start = StringUtilsMetrics.start();
+		String rtn = trySubstringByteImpl(s, beginByteIndex, endByteIndex, model);
+		StringUtilsMetrics.record(StringUtilsMetrics.SUBSTRING_BYTE, s, start, rtn == null);
+		return rtn;
+	}
+	/**
+	 * trySubstringByteの処理本体.
+	 */
+	private static String trySubstringByteImpl(
+		String s,
+		int beginByteIndex,
+		int endByteIndex,
+		ByteWidthModel model) {
+		if (s == null || beginByteIndex > endByteIndex) {
+			return null;
+		}
+		int wBeginIndex = model.charIndex(s, beginByteIndex);
+		if (wBeginIndex < 0) {
+			return null;
+		}
+		int wEndIndex = model.charIndex(s, wBeginIndex, beginByteIndex, endByteIndex);
+		if (wEndIndex < 0) {
+			return null;
+		}
+		return s.substring(wBeginIndex, wEndIndex);
+	}
 	/**
 	 * 指定バイト長で文字列をカット.
 	 * バイト長境界が文字境界でない場合(多バイト文字の場合)、直前の文字境界でカット。
@@ -346,17 +444,33 @@ public final class StringUtils {
 	 * @return カット後文字列
 	 */
 	public static String cutStringByte(String s, int byteLength) {
-		assertNotNull(s);
-		//１文字単位でLOOP
-		int wEndIndex = s.length();
-		int wByteLength = 0;
-		for (int i = 0; i < s.length(); i++) {
-			wByteLength += byteLength(s.charAt(i));
-			if (wByteLength > byteLength) {
-				wEndIndex = i;
-				break;
-			}
+		return cutStringByte(s, byteLength, ByteWidthModel.LEGACY);
+	}
+	/**
+	 * 指定バイト長(モデル指定)で文字列をカット.
+	 * バイト長境界が文字境界でない場合(多バイト文字、サロゲートペアの場合)、直前の文字境界でカット。
+	 * @param s 入力文字列(nullの場合はException)
+	 * @param byteLength バイト長
+	 * @param model 文字毎のバイト長のモデル
+	 * @return カット後文字列
+	 */
+	public static String cutStringByte(String s, int byteLength, ByteWidthModel model) {
+		if (!StringUtilsMetrics.ENABLED) {
+			return cutStringByteImpl(s, byteLength, model);
 		}
+		//計測(stringutils.metrics=true時のみ)
+		long start = StringUtilsMetrics.start();
+		String rtn = cutStringByteImpl(s, byteLength, model);
+		StringUtilsMetrics.record(StringUtilsMetrics.CUT_STRING_BYTE, s, start, false);
+		return rtn;
+	}
+	/**
+	 * cutStringByteの処理本体.
+	 */
+	private static String cutStringByteImpl(String s, int byteLength, ByteWidthModel model) {
+		assertNotNull(s);
+		//LEGACYはブロック単位でカット位置を検索(byteLength(char)と同じ結果)
+		int wEndIndex = model.cutIndex(s, byteLength);
 		//return
 		return s.substring(0, wEndIndex);
 	}
@@ -368,7 +482,7 @@ public final class StringUtils {
 	 * @param c char入力文字
 	 * @return true:trim対象文字
 	 */
-	private static boolean isTrimChar(char c) {
+	static boolean isTrimChar(char c) {
 		//半角スペース又は制御文字
 		if (c <= '\u0020') {
 			return true;
@@ -385,7 +499,7 @@ public final class StringUtils {
 	}
 	 private static void assertNotNull(String message, Object in) {
 		if (in == null) {
-			throw new RuntimeException("assertNotNull()エラー:" + message);
+			throw StringUtilsException.notNull(message);
 		}
 	}
 	/**
@@ -415,21 +529,15 @@ public final class StringUtils {
 	public static boolean isHalfSizeInt(String s) {
 		//null時Exception
 		assertNotNull(s);
-		//全て半角数字チェック
-		for (int i = 0; i < s.length(); i++) {
-			char c = s.charAt(i);
-			if (!isHalfSizeIntChar(c)) {
-				return false;
-			}
-		}
-		return true;
+		//全て半角数字チェック(ブロック単位)
+		return CharScanKernel.indexOfNonDigit(s, 0, s.length()) == s.length();
 	}
 	/**
 	 * 半角数字(0-9)判断.
 	 * @param c char入力文字
 	 * @return true:半角数字(0-9)
 	 */
-	private static boolean isHalfSizeIntChar(char c) {
+	static boolean isHalfSizeIntChar(char c) {
 		if (c >= '0' && c <= '9') {
 			return true;
 		}
@@ -449,12 +557,9 @@ public final class StringUtils {
 		int inMaxLength) {
 		//null時Exception
 		assertNotNull(s);
-		//全て半角数字チェック
-		for (int i = 0; i < s.length(); i++) {
-			char c = s.charAt(i);
-			if (!isHalfSizeIntChar(c)) {
-				return false;
-			}
+		//全て半角数字チェック(ブロック単位)
+		if (CharScanKernel.indexOfNonDigit(s, 0, s.length()) != s.length()) {
+			return false;
 		}
 		//MIN桁数/MAX桁数チェック
 		return isMinMaxLength(s, inMinLength, inMaxLength);
@@ -479,8 +584,8 @@ public final class StringUtils {
 	//--------------------------------------------------------------------------
 	// 日付関連
 	//--------------------------------------------------------------------------
-	/** DateFormatインスタンス */
-	private static final DateFormat dateFmt = DateFormat.getDateInstance();
+	/** 時刻のみ変換する場合の日付(1970/01/01) */
+	private static final int EPOCH_YMD = 19700101;
 
 	/**
 	 * Date型->"yyyyMMdd"変換.
@@ -491,11 +596,7 @@ public final class StringUtils {
 		//null時Exception
 		assertNotNull(date);
 		//変換
-		synchronized (dateFmt) {
-			((SimpleDateFormat)dateFmt).applyPattern("yyyyMMdd");
-			dateFmt.setLenient(false);
-			return dateFmt.format(date);
-		}
+		return DateEngine.formatYYYYMMDD(DateEngine.fromDate(date));
 	}
 
 	/**
@@ -565,24 +666,32 @@ public final class StringUtils {
 	 * @return Date型の日付(null時、変換エラー)
 	 */
 	public static Date parseYYYYMMDDHHMMSS(String in) {
+		if (!StringUtilsMetrics.ENABLED) {
+			return parseYYYYMMDDHHMMSSImpl(in);
+		}
+		//計測(stringutils.metrics=true時のみ)
+		long start = StringUtilsMetrics.start();
+		Date rtn = parseYYYYMMDDHHMMSSImpl(in);
+		StringUtilsMetrics.record(StringUtilsMetrics.PARSE_YYYYMMDDHHMMSS, in, start, rtn == null);
+		return rtn;
+	}
+	/**
+	 * parseYYYYMMDDHHMMSSの処理本体.
+	 */
+	private static Date parseYYYYMMDDHHMMSSImpl(String in) {
 		//null時Exception
 		assertNotNull(in);
 		//半角数字１４桁チェック
 		if (!isHalfSizeIntAndMinMaxLength(in, 14, 14)) {
 			return null;
 		}
-		//変換
-		synchronized (dateFmt) {
-			((SimpleDateFormat) dateFmt).applyPattern("yyyyMMddHHmmss");
-			dateFmt.setLenient(false);
-			Date date;
-			try {
-				date = dateFmt.parse(in);
-			} catch (ParseException e) {
-				date = null;
-			}
-			return date;
+		//変換(算術、ロックなし)
+		int ymd = DateEngine.parseYYYYMMDD(in, 0);
+		int secondOfDay = DateEngine.parseHHMMSS(in, 8);
+		if (ymd == DateEngine.INVALID || secondOfDay == DateEngine.INVALID) {
+			return null;
 		}
+		return DateEngine.toDate(ymd, secondOfDay);
 	}
 
 	/**
@@ -591,24 +700,31 @@ public final class StringUtils {
 	 * @return Date型の日付(null時、変換エラー)
 	 */
 	public static Date parseYYYYMMDD(String in) {
+		if (!StringUtilsMetrics.ENABLED) {
+			return parseYYYYMMDDImpl(in);
+		}
+		//計測(stringutils.metrics=true時のみ)
+		long start = StringUtilsMetrics.start();
+		Date rtn = parseYYYYMMDDImpl(in);
+		StringUtilsMetrics.record(StringUtilsMetrics.PARSE_YYYYMMDD, in, start, rtn == null);
+		return rtn;
+	}
+	/**
+	 * parseYYYYMMDDの処理本体.
+	 */
+	private static Date parseYYYYMMDDImpl(String in) {
 		//null時Exception
 		assertNotNull(in);
 		//半角数字８桁チェック
 		if (!isHalfSizeIntAndMinMaxLength(in, 8, 8)) {
 			return null;
 		}
-		//変換
-		synchronized (dateFmt) {
-			((SimpleDateFormat) dateFmt).applyPattern("yyyyMMdd");
-			dateFmt.setLenient(false);
-			Date date;
-			try {
-				date = dateFmt.parse(in);
-			} catch (ParseException e) {
-				date = null;
-			}
-			return date;
+		//変換(算術、ロックなし)
+		int ymd = DateEngine.parseYYYYMMDD(in, 0);
+		if (ymd == DateEngine.INVALID) {
+			return null;
 		}
+		return DateEngine.toDate(ymd);
 	}
 	/**
 	 * "HHmmss"->Date型変換.
@@ -616,24 +732,31 @@ public final class StringUtils {
 	 * @return Date型の日付(null時、変換エラー)
 	 */
 	public static Date parseHHMMSS(String in) {
+		if (!StringUtilsMetrics.ENABLED) {
+			return parseHHMMSSImpl(in);
+		}
+		//計測(stringutils.metrics=true時のみ)
+		long start = StringUtilsMetrics.start();
+		Date rtn = parseHHMMSSImpl(in);
+		StringUtilsMetrics.record(StringUtilsMetrics.PARSE_HHMMSS, in, start, rtn == null);
+		return rtn;
+	}
+	/**
+	 * parseHHMMSSの処理本体.
+	 */
+	private static Date parseHHMMSSImpl(String in) {
 		//null時Exception
 		assertNotNull(in);
 		//半角数字６桁チェック
 		if (!isHalfSizeIntAndMinMaxLength(in, 6, 6)) {
 			return null;
 		}
-		//変換
-		synchronized (dateFmt) {
-			((SimpleDateFormat) dateFmt).applyPattern("HHmmss");
-			dateFmt.setLenient(false);
-			Date date;
-			try {
-				date = dateFmt.parse(in);
-			} catch (ParseException e) {
-				date = null;
-			}
-			return date;
+		//変換(算術、ロックなし)
+		int secondOfDay = DateEngine.parseHHMMSS(in, 0);
+		if (secondOfDay == DateEngine.INVALID) {
+			return null;
 		}
+		return DateEngine.toDate(EPOCH_YMD, secondOfDay);
 	}
 
 	/**
@@ -642,24 +765,31 @@ public final class StringUtils {
 	 * @return Date型の日付(null時、変換エラー)
 	 */
 	public static Date parseHHMM(String in) {
+		if (!StringUtilsMetrics.ENABLED) {
+			return parseHHMMImpl(in);
+		}
+		//計測(stringutils.metrics=true時のみ)
+		long start = StringUtilsMetrics.start();
+		Date rtn = parseHHMMImpl(in);
+		StringUtilsMetrics.record(StringUtilsMetrics.PARSE_HHMM, in, start, rtn == null);
+		return rtn;
+	}
+	/**
+	 * parseHHMMの処理本体.
+	 */
+	private static Date parseHHMMImpl(String in) {
 		//null時Exception
 		assertNotNull(in);
 		//半角数字４桁チェック
 		if (!isHalfSizeIntAndMinMaxLength(in, 4, 4)) {
 			return null;
 		}
-		//変換
-		synchronized (dateFmt) {
-			((SimpleDateFormat) dateFmt).applyPattern("HHmm");
-			dateFmt.setLenient(false);
-			Date date;
-			try {
-				date = dateFmt.parse(in);
-			} catch (ParseException e) {
-				date = null;
-			}
-			return date;
+		//変換(算術、ロックなし)
+		int secondOfDay = DateEngine.parseHHMM(in, 0);
+		if (secondOfDay == DateEngine.INVALID) {
+			return null;
 		}
+		return DateEngine.toDate(EPOCH_YMD, secondOfDay);
 	}
 
 	/**
@@ -669,16 +799,37 @@ public final class StringUtils {
 	 * @return  求められたyyyyMMdd形式の文字列
 	 */
 	public static String addDate(String in, int inDateLength) {
-		//Date変換
-		Date date = parseYYYYMMDD(in);
-		assertNotNull(date);
-		//Calendar変換
-		Calendar cal = Calendar.getInstance();
-		cal.setTime(date);
-		//指定日数加算
-		cal.add(Calendar.DATE, inDateLength);
+		if (!StringUtilsMetrics.ENABLED) {
+			return addDateImpl(in, inDateLength);
+		}
+		//計測(stringutils.metrics=true時のみ)
+		long start = StringUtilsMetrics.start();
+		try {
+			String rtn = addDateImpl(in, inDateLength);
+			StringUtilsMetrics.record(StringUtilsMetrics.ADD_DATE, in, start, false);
+			return rtn;
+		} catch (RuntimeException e) {
+			StringUtilsMetrics.record(StringUtilsMetrics.ADD_DATE, in, start, e);
+			throw e;
+		}
+	}
+	/**
+	 * addDateの処理本体.
+	 */
+	private static String addDateImpl(String in, int inDateLength) {
+		//yyyyMMdd変換
+		assertNotNull(in);
+		int ymd = in.length() == 8 ? DateEngine.parseYYYYMMDD(in, 0) : DateEngine.INVALID;
+		if (ymd == DateEngine.INVALID) {
+			assertNotNull(null);
+		}
+		//指定日数加算(タイムゾーンの切替で存在しない日はエラー)
+		ymd = DateEngine.addDays(ymd, inDateLength);
+		if (ymd == DateEngine.INVALID) {
+			assertNotNull(null);
+		}
 		//String変換
-		return formatYYYYMMDD(cal.getTime());
+		return DateEngine.formatYYYYMMDD(ymd);
 	}
 	
 	//2019/06/13追加
@@ -711,15 +862,8 @@ public final class StringUtils {
         if (value == null || value.equals("")) {
             return 0;
         }
-        int ret = 0;
-        byte[] b;
-        try {
-            b = value.getBytes("UTF-8");
-        } catch (UnsupportedEncodingException e) {
-            b  = value.getBytes();
-        }
-        ret = b.length;
-        return ret;
+        // UTF-8のバイト長を計算(バイト配列は生成しない)
+        return (int) EncodedLength.UTF_8.length(value);
     }
     
     /**
@@ -732,8 +876,8 @@ public final class StringUtils {
         if (value == null || value.equals("")) {
             return 0;
         }
-		byte[] b  = value.getBytes(enc);
-        return b.length;
+        // 文字セット毎にバイト長を計算(バイト配列は生成しない)
+        return (int) EncodedLength.forName(enc).length(value);
     }
     
     /**
@@ -749,12 +893,15 @@ public final class StringUtils {
         } else if (value.equals("0")) {
             return "";
 
-        } else if (getLength(value) != 8){
+        } else if (!isUtf8Length(value, 8)){
 			return value;
 
 		} else if (value.indexOf('/') > 0) {
             return value;
 
+        } else if (value.length() == 8) {
+            return EditMask.DATE.edit(value);
+
         } else {
             return (value.substring(0, 4) + "/" + value.substring(4, 6) + "/" + value.substring(6));
         }
@@ -773,13 +920,16 @@ public final class StringUtils {
         } else if (value.equals("0")) {
             return "";
 
-        } else if (getLength(value) != 8){
+        } else if (!isUtf8Length(value, 8)){
 			return value;
 
 		// このチェックは何？
 		} else if (value.indexOf('/') > 0) {
             return value;
 
+        } else if (value.length() == 8) {
+            return EditMask.YEAR_MONTH_JP.edit(value);
+
         } else {
             return (value.substring(0, 4) + "年" + value.substring(4, 6) + "月");
         }
@@ -796,10 +946,13 @@ public final class StringUtils {
         if (Checker.isNull(value) || value.equals("0")) {
             return "";
 
-        } else if (getLength(value) != 10) {
+        } else if (!isUtf8Length(value, 10)) {
 			return value;
 
         } else if (value.indexOf('/') > 0) {
+            if (value.length() == 10) {
+                return EditMask.DATE.unEdit(value);
+            }
             return (value.substring(0, 4) + value.substring(5, 7) + value.substring(8));
 
         } else {
@@ -820,8 +973,11 @@ public final class StringUtils {
         } else if (value.equals("0")) {
             return "";
 
-        } else if (getLength(value) != 6){
+        } else if (!isUtf8Length(value, 6)){
 			return value;
+
+        } else if (value.length() == 6) {
+            return EditMask.TIME.edit(value);
         }
 
         return (value.substring(0,2) + ":" + value.substring(2,4) + ":" + value.substring(4));
@@ -837,10 +993,13 @@ public final class StringUtils {
         if (Checker.isNull(value) || value.equals("0")) {
 	        return "";
 
-        } else if(getLength(value) != 8) {
+        } else if(!isUtf8Length(value, 8)) {
 			return value;
 
         } else if(value.indexOf(':') > 0) {
+            if (value.length() == 8) {
+                return EditMask.TIME.unEdit(value);
+            }
             return (value.substring(0, 2) + value.substring(3, 5) + value.substring(6));
 
         } else {
@@ -855,14 +1014,8 @@ public final class StringUtils {
     */
     public static String delLineFromStr(String value){
 
-		StringBuffer sb = new StringBuffer(value);
-		int pos = value.length();
-
-		while((pos = value.lastIndexOf("-", pos - 1)) > -1){
-			sb.deleteCharAt(pos);
-		}
-
-        return sb.toString();
+        //１回の走査で削除("-"がない場合はvalueをそのまま返す)
+        return CharFilter.HYPHEN.strip(value);
 	}
 
     /**
@@ -872,35 +1025,76 @@ public final class StringUtils {
     * @return "-"を追加した文字列
     */
     public static String insLineToStr(String value, int position){
-        StringBuffer sbuff = new StringBuffer(value);
+        int len = value.length();
 
-        if (sbuff.length() <= position) {
+        if (len <= position) {
             return value;
         }
-        sbuff.insert(position, "-");
+        char[] buf = new char[len + 1];
+        value.getChars(0, position, buf, 0);
+        buf[position] = '-';
+        value.getChars(position, len, buf, position + 1);
 
-        return sbuff.toString();
+        return new String(buf);
+    }
+
+    /**
+    * UTF-8のバイト長判断(getLength(value) == n と同じ判断、ASCIIのみの場合はエンコードしない)
+    * @param value 文字列
+    * @param n バイト長
+    * @return true:UTF-8のバイト長がn
+    */
+    private static boolean isUtf8Length(String value, int n){
+        int len = value.length();
+        // UTF-8は１文字1バイト以上なので、文字数がnを超える場合は不一致
+        if (len > n) {
+            return false;
+        }
+        if (len == n) {
+            int i = 0;
+            while (i < len && value.charAt(i) < 0x80) {
+                i++;
+            }
+            if (i == len) {
+                return true;
+            }
+        }
+        return getLength(value) == n;
     }
 
     /**
     * ３桁おきにカンマを付加する
+    * 数値文字列(符号・小数部付きを含む)の場合は整数部のみ区切る
     * @param value 処理対象文字列
     * @return カンマを追加した文字列
     */
     public static String addComma(String value){
-        StringBuffer sbuff = new StringBuffer(value);
+        int len = value.length();
 
-        if (value.trim().equals("")) {
-            return value;
-
-        } else if (sbuff.length() < 4) {
+        if (len < 4 || isBlank(value)) {
             return value;
         }
 
-        for (int i = sbuff.length() - 3; i > 0; i -=3) {
-            sbuff.insert(i, ",");
-        }
-        return sbuff.toString();
+        char[] buf = new char[CommaFormat.maxLength(len)];
+        return new String(buf, 0, addComma(buf, 0, value));
+    }
+
+    /**
+    * ３桁おきにカンマを付加する
+    * @param value 数値
+    * @return カンマを追加した文字列
+    */
+    public static String addComma(long value){
+        return CommaFormat.DEFAULT.format(value);
+    }
+
+    /**
+    * ３桁おきにカンマを付加する(小数部はscaleの桁数をそのまま出力)
+    * @param value 数値(nullの場合はException)
+    * @return カンマを追加した文字列
+    */
+    public static String addComma(BigDecimal value){
+        return CommaFormat.DEFAULT.format(value);
     }
 
     /**
@@ -922,19 +1116,8 @@ public final class StringUtils {
 	 * ほとんど全てのリクエストパラメータはこの変換で良いはず
 	 */
 	public static String escNull( String s ) {
-		if ( s == null ) return "";
-		//削除するオフセット検索
-		int rightOffset = s.length();
-		for ( int i = 0; i < s.length(); i++ ) {
-			char c = s.charAt(rightOffset - 1);
-			if ( c <= '\u0020' || c == '　' ) {
-			}
-			else {
-				break;
-			}
-			rightOffset--;
-		}
-		return s.substring(0,rightOffset);
+		//rTrimと同じ
+		return rTrim(s);
 	}
 	
 	/**
@@ -978,4 +1161,698 @@ public final class StringUtils {
 			return String.valueOf(i);
 		}
 	}
+	//--------------------------------------------------------------------------
+	// バッファ出力(呼び出し元のバッファに直接追加し、文字列を生成しない)
+	//--------------------------------------------------------------------------
+	/**
+	 * 右Padding(文字数)をoutに追加.(注)結果はrPad(String s, int charLength, char c)と同じ
+	 * @param out 追加先
+	 * @param s 入力文字列(nullの場合は空文字)
+	 * @param charLength 最終文字数
+	 * @param c Padding文字
+	 * @return 追加した文字数
+	 * @throws IOException outへの追加エラー
+	 */
+	public static int rPad(Appendable out, String s, int charLength, char c) throws IOException {
+		if (s == null)
+			s = "";
+		out.append(s);
+		return s.length() + appendRepeat(out, c, charLength - s.length());
+	}
+	/**
+	 * 右Padding(文字数)をoutに追加.(注)結果はrPad(String s, int charLength, char c)と同じ
+	 * @param out 追加先
+	 * @param s 入力文字列(nullの場合は空文字)
+	 * @param charLength 最終文字数
+	 * @param c Padding文字
+	 * @return 追加した文字数
+	 */
+	public static int rPad(StringBuilder out, String s, int charLength, char c) {
+		try {
+			return rPad((Appendable) out, s, charLength, c);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+	/**
+	 * 右Padding(文字数)をdstに書き込む.(注)結果はrPad(String s, int charLength, char c)と同じ
+	 * @param dst 書き込み先(領域不足の場合はException)
+	 * @param offset 書き込み開始位置
+	 * @param s 入力文字列(nullの場合は空文字)
+	 * @param charLength 最終文字数
+	 * @param c Padding文字
+	 * @return 書き込んだ文字数
+	 */
+	public static int rPad(char[] dst, int offset, String s, int charLength, char c) {
+		if (s == null)
+			s = "";
+		int len = s.length();
+		s.getChars(0, len, dst, offset);
+		int padLen = Math.max(0, charLength - len);
+		Arrays.fill(dst, offset + len, offset + len + padLen, c);
+		return len + padLen;
+	}
+	/**
+	 * 左Padding(文字数)をoutに追加.(注)結果はlPad(String s, int charLength, char c)と同じ
+	 * @param out 追加先
+	 * @param s 入力文字列(nullの場合はException)
+	 * @param charLength 最終文字数
+	 * @param c Padding文字
+	 * @return 追加した文字数
+	 * @throws IOException outへの追加エラー
+	 */
+	public static int lPad(Appendable out, String s, int charLength, char c) throws IOException {
+		assertNotNull(s);
+		int padLen = appendRepeat(out, c, charLength - s.length());
+		out.append(s);
+		return padLen + s.length();
+	}
+	/**
+	 * 左Padding(文字数)をoutに追加.(注)結果はlPad(String s, int charLength, char c)と同じ
+	 * @param out 追加先
+	 * @param s 入力文字列(nullの場合はException)
+	 * @param charLength 最終文字数
+	 * @param c Padding文字
+	 * @return 追加した文字数
+	 */
+	public static int lPad(StringBuilder out, String s, int charLength, char c) {
+		try {
+			return lPad((Appendable) out, s, charLength, c);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+	/**
+	 * 左Padding(文字数)をdstに書き込む.(注)結果はlPad(String s, int charLength, char c)と同じ
+	 * @param dst 書き込み先(領域不足の場合はException)
+	 * @param offset 書き込み開始位置
+	 * @param s 入力文字列(nullの場合はException)
+	 * @param charLength 最終文字数
+	 * @param c Padding文字
+	 * @return 書き込んだ文字数
+	 */
+	public static int lPad(char[] dst, int offset, String s, int charLength, char c) {
+		assertNotNull(s);
+		int len = s.length();
+		int padLen = Math.max(0, charLength - len);
+		Arrays.fill(dst, offset, offset + padLen, c);
+		s.getChars(0, len, dst, offset + padLen);
+		return padLen + len;
+	}
+	/**
+	 * 左ゼロPadding(文字数)をoutに追加。負の場合は先頭文字が"-"となる.
+	 * charLength＜最終文字数のときは、何も追加せずに例外発生
+	 * @param out 追加先
+	 * @param i 数値
+	 * @param charLength 最終文字数
+	 * @return 追加した文字数
+	 * @throws IOException outへの追加エラー
+	 */
+	public static int zeroPad(Appendable out, int i, int charLength) throws IOException {
+		long abs = Math.abs((long) i);
+		int digits = digitCount(abs);
+		int zeros = zeroPadCount(i, digits, charLength);
+		if (i < 0) {
+			out.append('-');
+		}
+		appendRepeat(out, '0', zeros);
+		for (long div = pow10(digits - 1); div > 0; div /= 10) {
+			out.append((char) ('0' + abs / div % 10));
+		}
+		return charLength;
+	}
+	/**
+	 * 左ゼロPadding(文字数)をoutに追加。負の場合は先頭文字が"-"となる.
+	 * charLength＜最終文字数のときは、何も追加せずに例外発生
+	 * @param out 追加先
+	 * @param i 数値
+	 * @param charLength 最終文字数
+	 * @return 追加した文字数
+	 */
+	public static int zeroPad(StringBuilder out, int i, int charLength) {
+		try {
+			return zeroPad((Appendable) out, i, charLength);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+	/**
+	 * 左ゼロPadding(文字数)をdstに書き込む。負の場合は先頭文字が"-"となる.
+	 * charLength＜最終文字数のときは、何も書き込まずに例外発生
+	 * @param dst 書き込み先(領域不足の場合はException)
+	 * @param offset 書き込み開始位置
+	 * @param i 数値
+	 * @param charLength 最終文字数
+	 * @return 書き込んだ文字数
+	 */
+	public static int zeroPad(char[] dst, int offset, int i, int charLength) {
+		long abs = Math.abs((long) i);
+		int zeros = zeroPadCount(i, digitCount(abs), charLength);
+		return writeZeroPad(dst, offset, i, charLength, abs, zeros);
+	}
+	/**
+	 * 左ゼロPadding(文字数)をdstに書き込む。負の場合は先頭文字が"-"となる.
+	 * charLength＜最終文字数のときは、何も書き込まずに例外を発生せずに-1を返す(以外はzeroPadと同じ)
+	 * @param dst 書き込み先(領域不足の場合はException)
+	 * @param offset 書き込み開始位置
+	 * @param i 数値
+	 * @param charLength 最終文字数
+	 * @return 書き込んだ文字数(-1時、Paddingできない)
+	 */
+	public static int tryZeroPad(char[] dst, int offset, int i, int charLength) {
+		long abs = Math.abs((long) i);
+		int zeros = charLength - digitCount(abs) - (i < 0 ? 1 : 0);
+		if (zeros < 0) {
+			return -1;
+		}
+		return writeZeroPad(dst, offset, i, charLength, abs, zeros);
+	}
+	/**
+	 * ゼロPaddingの書き込み.
+	 * @return 書き込んだ文字数
+	 */
+	private static int writeZeroPad(char[] dst, int offset, int i, int charLength, long abs, int zeros) {
+		int end = offset + charLength;
+		//下の桁から書き込む
+		int pos = end;
+		do {
+			dst[--pos] = (char) ('0' + abs % 10);
+			abs /= 10;
+		} while (abs > 0);
+		Arrays.fill(dst, pos - zeros, pos, '0');
+		if (i < 0) {
+			dst[offset] = '-';
+		}
+		return charLength;
+	}
+	/**
+	 * 右Padding(バイト長)をoutに追加.(注)結果はrPadByte(String s, int byteLength, char c)と同じ
+	 * @param out 追加先
+	 * @param s 入力文字列(nullの場合は空文字)
+	 * @param byteLength 最終バイト長
+	 * @param c Padding文字
+	 * @return 追加した文字数
+	 * @throws IOException outへの追加エラー
+	 */
+	public static int rPadByte(Appendable out, String s, int byteLength, char c) throws IOException {
+		return rPadByte(out, s, byteLength, c, ByteWidthModel.LEGACY);
+	}
+	/**
+	 * 右Padding(バイト長、モデル指定)をoutに追加.(注)結果はrPadByte(String s, int byteLength, char c, ByteWidthModel model)と同じ
+	 * @param out 追加先
+	 * @param s 入力文字列(nullの場合は空文字)
+	 * @param byteLength 最終バイト長
+	 * @param c Padding文字
+	 * @param model 文字毎のバイト長のモデル
+	 * @return 追加した文字数
+	 * @throws IOException outへの追加エラー
+	 */
+	public static int rPadByte(Appendable out, String s, int byteLength, char c, ByteWidthModel model) throws IOException {
+		if (s == null)
+			s = "";
+		out.append(s);
+		return s.length() + appendRepeat(out, c, padByteCount(s, byteLength, c, model));
+	}
+	/**
+	 * 右Padding(バイト長)をoutに追加.(注)結果はrPadByte(String s, int byteLength, char c)と同じ
+	 * @param out 追加先
+	 * @param s 入力文字列(nullの場合は空文字)
+	 * @param byteLength 最終バイト長
+	 * @param c Padding文字
+	 * @return 追加した文字数
+	 */
+	public static int rPadByte(StringBuilder out, String s, int byteLength, char c) {
+		return rPadByte(out, s, byteLength, c, ByteWidthModel.LEGACY);
+	}
+	/**
+	 * 右Padding(バイト長、モデル指定)をoutに追加.(注)結果はrPadByte(String s, int byteLength, char c, ByteWidthModel model)と同じ
+	 * @param out 追加先
+	 * @param s 入力文字列(nullの場合は空文字)
+	 * @param byteLength 最終バイト長
+	 * @param c Padding文字
+	 * @param model 文字毎のバイト長のモデル
+	 * @return 追加した文字数
+	 */
+	public static int rPadByte(StringBuilder out, String s, int byteLength, char c, ByteWidthModel model) {
+		try {
+			return rPadByte((Appendable) out, s, byteLength, c, model);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+	/**
+	 * 右Padding(バイト長)をdstに書き込む.(注)結果はrPadByte(String s, int byteLength, char c)と同じ
+	 * @param dst 書き込み先(領域不足の場合はException)
+	 * @param offset 書き込み開始位置
+	 * @param s 入力文字列(nullの場合は空文字)
+	 * @param byteLength 最終バイト長
+	 * @param c Padding文字
+	 * @return 書き込んだ文字数
+	 */
+	public static int rPadByte(char[] dst, int offset, String s, int byteLength, char c) {
+		return rPadByte(dst, offset, s, byteLength, c, ByteWidthModel.LEGACY);
+	}
+	/**
+	 * 右Padding(バイト長、モデル指定)をdstに書き込む.(注)結果はrPadByte(String s, int byteLength, char c, ByteWidthModel model)と同じ
+	 * @param dst 書き込み先(領域不足の場合はException)
+	 * @param offset 書き込み開始位置
+	 * @param s 入力文字列(nullの場合は空文字)
+	 * @param byteLength 最終バイト長
+	 * @param c Padding文字
+	 * @param model 文字毎のバイト長のモデル
+	 * @return 書き込んだ文字数
+	 */
+	public static int rPadByte(char[] dst, int offset, String s, int byteLength, char c, ByteWidthModel model) {
+		if (s == null)
+			s = "";
+		int len = s.length();
+		int padLen = padByteCount(s, byteLength, c, model);
+		s.getChars(0, len, dst, offset);
+		Arrays.fill(dst, offset + len, offset + len + padLen, c);
+		return len + padLen;
+	}
+	/**
+	 * 左Padding(バイト長)をoutに追加.(注)結果はlPadByte(String s, int byteLength, char c)と同じ
+	 * @param out 追加先
+	 * @param s 入力文字列(nullの場合はException)
+	 * @param byteLength 最終バイト長
+	 * @param c Padding文字
+	 * @return 追加した文字数
+	 * @throws IOException outへの追加エラー
+	 */
+	public static int lPadByte(Appendable out, String s, int byteLength, char c) throws IOException {
+		return lPadByte(out, s, byteLength, c, ByteWidthModel.LEGACY);
+	}
+	/**
+	 * 左Padding(バイト長、モデル指定)をoutに追加.(注)結果はlPadByte(String s, int byteLength, char c, ByteWidthModel model)と同じ
+	 * @param out 追加先
+	 * @param s 入力文字列(nullの場合はException)
+	 * @param byteLength 最終バイト長
+	 * @param c Padding文字
+	 * @param model 文字毎のバイト長のモデル
+	 * @return 追加した文字数
+	 * @throws IOException outへの追加エラー
+	 */
+	public static int lPadByte(Appendable out, String s, int byteLength, char c, ByteWidthModel model) throws IOException {
+		assertNotNull(s);
+		int padLen = appendRepeat(out, c, padByteCount(s, byteLength, c, model));
+		out.append(s);
+		return padLen + s.length();
+	}
+	/**
+	 * 左Padding(バイト長)をoutに追加.(注)結果はlPadByte(String s, int byteLength, char c)と同じ
+	 * @param out 追加先
+	 * @param s 入力文字列(nullの場合はException)
+	 * @param byteLength 最終バイト長
+	 * @param c Padding文字
+	 * @return 追加した文字数
+	 */
+	public static int lPadByte(StringBuilder out, String s, int byteLength, char c) {
+		return lPadByte(out, s, byteLength, c, ByteWidthModel.LEGACY);
+	}
+	/**
+	 * 左Padding(バイト長、モデル指定)をoutに追加.(注)結果はlPadByte(String s, int byteLength, char c, ByteWidthModel model)と同じ
+	 * @param out 追加先
+	 * @param s 入力文字列(nullの場合はException)
+	 * @param byteLength 最終バイト長
+	 * @param c Padding文字
+	 * @param model 文字毎のバイト長のモデル
+	 * @return 追加した文字数
+	 */
+	public static int lPadByte(StringBuilder out, String s, int byteLength, char c, ByteWidthModel model) {
+		try {
+			return lPadByte((Appendable) out, s, byteLength, c, model);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+	/**
+	 * 左Padding(バイト長)をdstに書き込む.(注)結果はlPadByte(String s, int byteLength, char c)と同じ
+	 * @param dst 書き込み先(領域不足の場合はException)
+	 * @param offset 書き込み開始位置
+	 * @param s 入力文字列(nullの場合はException)
+	 * @param byteLength 最終バイト長
+	 * @param c Padding文字
+	 * @return 書き込んだ文字数
+	 */
+	public static int lPadByte(char[] dst, int offset, String s, int byteLength, char c) {
+		return lPadByte(dst, offset, s, byteLength, c, ByteWidthModel.LEGACY);
+	}
+	/**
+	 * 左Padding(バイト長、モデル指定)をdstに書き込む.(注)結果はlPadByte(String s, int byteLength, char c, ByteWidthModel model)と同じ
+	 * @param dst 書き込み先(領域不足の場合はException)
+	 * @param offset 書き込み開始位置
+	 * @param s 入力文字列(nullの場合はException)
+	 * @param byteLength 最終バイト長
+	 * @param c Padding文字
+	 * @param model 文字毎のバイト長のモデル
+	 * @return 書き込んだ文字数
+	 */
+	public static int lPadByte(char[] dst, int offset, String s, int byteLength, char c, ByteWidthModel model) {
+		assertNotNull(s);
+		int len = s.length();
+		int padLen = padByteCount(s, byteLength, c, model);
+		Arrays.fill(dst, offset, offset + padLen, c);
+		s.getChars(0, len, dst, offset + padLen);
+		return padLen + len;
+	}
+	/**
+	 * ３桁おきにカンマを付加してoutに追加.(注)結果はaddComma(String value)と同じ
+	 * @param out 追加先
+	 * @param value 処理対象文字列(nullの場合はException)
+	 * @return 追加した文字数
+	 * @throws IOException outへの追加エラー
+	 */
+	public static int addComma(Appendable out, String value) throws IOException {
+		int len = value.length();
+		if (len < 4 || isBlank(value)) {
+			out.append(value);
+			return len;
+		}
+		if (CommaFormat.isNumber(value)) {
+			return CommaFormat.DEFAULT.format(out, value);
+		}
+		out.append(value, 0, (len - 1) % 3 + 1);
+		for (int i = (len - 1) % 3 + 1; i < len; i += 3) {
+			out.append(',').append(value, i, i + 3);
+		}
+		return len + (len - 1) / 3;
+	}
+	/**
+	 * ３桁おきにカンマを付加してoutに追加.(注)結果はaddComma(String value)と同じ
+	 * @param out 追加先
+	 * @param value 処理対象文字列(nullの場合はException)
+	 * @return 追加した文字数
+	 */
+	public static int addComma(StringBuilder out, String value) {
+		try {
+			return addComma((Appendable) out, value);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+	/**
+	 * ３桁おきにカンマを付加してdstに書き込む.(注)結果はaddComma(String value)と同じ
+	 * @param dst 書き込み先(領域不足の場合はException)
+	 * @param offset 書き込み開始位置
+	 * @param value 処理対象文字列(nullの場合はException)
+	 * @return 書き込んだ文字数
+	 */
+	public static int addComma(char[] dst, int offset, String value) {
+		int len = value.length();
+		if (len < 4 || isBlank(value)) {
+			value.getChars(0, len, dst, offset);
+			return len;
+		}
+		if (CommaFormat.isNumber(value)) {
+			return CommaFormat.DEFAULT.format(dst, offset, value);
+		}
+		int pos = offset;
+		int head = (len - 1) % 3 + 1;
+		value.getChars(0, head, dst, pos);
+		pos += head;
+		for (int i = head; i < len; i += 3) {
+			dst[pos++] = ',';
+			value.getChars(i, i + 3, dst, pos);
+			pos += 3;
+		}
+		return pos - offset;
+	}
+	/**
+	 * 日付の編集(yyyymmdd ===> yyyy/mm/dd)を行いoutに追加.(注)結果はedtDate(String value)と同じ
+	 * @param out 追加先
+	 * @param value 処理対象文字列
+	 * @return 追加した文字数
+	 * @throws IOException outへの追加エラー
+	 */
+	public static int edtDate(Appendable out, String value) throws IOException {
+		if (Checker.isNull(value) || value.equals("0")) {
+			return 0;
+		}
+		if (!isUtf8Length(value, 8) || value.indexOf('/') > 0) {
+			out.append(value);
+			return value.length();
+		}
+		out.append(value, 0, 4).append('/').append(value, 4, 6).append('/').append(value, 6, value.length());
+		return value.length() + 2;
+	}
+	/**
+	 * 日付の編集(yyyymmdd ===> yyyy/mm/dd)を行いoutに追加.(注)結果はedtDate(String value)と同じ
+	 * @param out 追加先
+	 * @param value 処理対象文字列
+	 * @return 追加した文字数
+	 */
+	public static int edtDate(StringBuilder out, String value) {
+		try {
+			return edtDate((Appendable) out, value);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+	/**
+	 * 日付の編集(yyyymmdd ===> yyyy/mm/dd)を行いdstに書き込む.(注)結果はedtDate(String value)と同じ
+	 * @param dst 書き込み先(領域不足の場合はException)
+	 * @param offset 書き込み開始位置
+	 * @param value 処理対象文字列
+	 * @return 書き込んだ文字数
+	 */
+	public static int edtDate(char[] dst, int offset, String value) {
+		if (Checker.isNull(value) || value.equals("0")) {
+			return 0;
+		}
+		int len = value.length();
+		if (!isUtf8Length(value, 8) || value.indexOf('/') > 0) {
+			value.getChars(0, len, dst, offset);
+			return len;
+		}
+		if (len == 8) {
+			return EditMask.DATE.edit(value, 0, dst, offset, false);
+		}
+		value.getChars(0, 4, dst, offset);
+		dst[offset + 4] = '/';
+		value.getChars(4, 6, dst, offset + 5);
+		dst[offset + 7] = '/';
+		value.getChars(6, len, dst, offset + 8);
+		return len + 2;
+	}
+	/**
+	 * 時刻の編集(HHMMSS ===> HH:MM:SS)を行いoutに追加.(注)結果はedtTime(String value)と同じ
+	 * @param out 追加先
+	 * @param value 処理対象文字列
+	 * @return 追加した文字数
+	 * @throws IOException outへの追加エラー
+	 */
+	public static int edtTime(Appendable out, String value) throws IOException {
+		if (Checker.isNull(value) || value.equals("0")) {
+			return 0;
+		}
+		if (!isUtf8Length(value, 6)) {
+			out.append(value);
+			return value.length();
+		}
+		out.append(value, 0, 2).append(':').append(value, 2, 4).append(':').append(value, 4, value.length());
+		return value.length() + 2;
+	}
+	/**
+	 * 時刻の編集(HHMMSS ===> HH:MM:SS)を行いoutに追加.(注)結果はedtTime(String value)と同じ
+	 * @param out 追加先
+	 * @param value 処理対象文字列
+	 * @return 追加した文字数
+	 */
+	public static int edtTime(StringBuilder out, String value) {
+		try {
+			return edtTime((Appendable) out, value);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+	/**
+	 * 時刻の編集(HHMMSS ===> HH:MM:SS)を行いdstに書き込む.(注)結果はedtTime(String value)と同じ
+	 * @param dst 書き込み先(領域不足の場合はException)
+	 * @param offset 書き込み開始位置
+	 * @param value 処理対象文字列
+	 * @return 書き込んだ文字数
+	 */
+	public static int edtTime(char[] dst, int offset, String value) {
+		if (Checker.isNull(value) || value.equals("0")) {
+			return 0;
+		}
+		int len = value.length();
+		if (!isUtf8Length(value, 6)) {
+			value.getChars(0, len, dst, offset);
+			return len;
+		}
+		if (len == 6) {
+			return EditMask.TIME.edit(value, 0, dst, offset, false);
+		}
+		value.getChars(0, 2, dst, offset);
+		dst[offset + 2] = ':';
+		value.getChars(2, 4, dst, offset + 3);
+		dst[offset + 5] = ':';
+		value.getChars(4, len, dst, offset + 6);
+		return len + 2;
+	}
+	/**
+	 * cをn文字outに追加.
+	 * @return 追加した文字数(nが負の場合は0)
+	 */
+	private static int appendRepeat(Appendable out, char c, int n) throws IOException {
+		return PadEngine.append(out, c, n);
+	}
+	/**
+	 * バイト長PaddingのPadding文字数取得(rPadByte/lPadByteと同じ計算).
+	 * @param s 入力文字列
+	 * @param byteLength 最終バイト長
+	 * @param c Padding文字
+	 * @param model 文字毎のバイト長のモデル
+	 * @return Padding文字数
+	 */
+	private static int padByteCount(String s, int byteLength, char c, ByteWidthModel model) {
+		//もう既に文字長＞＝最終バイト長ならば、Paddingなし
+		if (model.atLeast(s.length(), byteLength)) {
+			return 0;
+		}
+		int sByteLen = byteLength(s, model);
+		if (sByteLen >= byteLength) {
+			return 0;
+		}
+		return (byteLength - sByteLen) / model.width(c);
+	}
+	/**
+	 * zeroPadの"0"の文字数取得(最終文字数に収まらない場合は例外発生).
+	 * @param i 数値
+	 * @param digits 数値の絶対値の桁数
+	 * @param charLength 最終文字数
+	 * @return "0"の文字数
+	 */
+	private static int zeroPadCount(int i, int digits, int charLength) {
+		int zeros = charLength - digits - (i < 0 ? 1 : 0);
+		//エラーチェック
+		if (zeros < 0) {
+			throw StringUtilsException.zeroPad(i, charLength);
+		}
+		return zeros;
+	}
+	/**
+	 * 桁数取得.
+	 * @param v 数値(0以上)
+	 * @return 桁数(0の場合は1)
+	 */
+	private static int digitCount(long v) {
+		int rtn = 1;
+		while (v >= 10) {
+			v /= 10;
+			rtn++;
+		}
+		return rtn;
+	}
+	/**
+	 * 10のn乗取得.
+	 */
+	private static long pow10(int n) {
+		long rtn = 1;
+		for (int i = 0; i < n; i++) {
+			rtn *= 10;
+		}
+		return rtn;
+	}
+	/**
+	 * 空白判断(String.trim().equals("")と同じ判断、文字列を生成しない).
+	 * @param value 処理対象文字列
+	 * @return true:全て' '以下の文字
+	 */
+	private static boolean isBlank(String value) {
+		for (int i = 0; i < value.length(); i++) {
+			if (value.charAt(i) > ' ') {
+				return false;
+			}
+		}
+		return true;
+	}
+	//--------------------------------------------------------------------------
+	// ビュー(元の文字列をコピーせずにCharSequenceとして返す)
+	//--------------------------------------------------------------------------
+	/**
+	 * 右Trimのビュー.(注)内容はrTrim(String s)と同じ
+	 * @param s 入力文字列(nullの場合は空)
+	 * @return 右Trim後のビュー
+	 */
+	public static StringSlice rTrimView(String s) {
+		if (s == null) {
+			return StringSlice.EMPTY;
+		}
+		return new StringSlice(s, 0, rTrimOffset(s));
+	}
+	/**
+	 * 両側Trimのビュー.(注)内容はtrim(String s)と同じ
+	 * @param s 入力文字列(nullの場合は空)
+	 * @return 両側Trim後のビュー
+	 */
+	public static StringSlice trimView(String s) {
+		if (s == null) {
+			return StringSlice.EMPTY;
+		}
+		int rightOffset = rTrimOffset(s);
+		return new StringSlice(s, lTrimOffset(s, rightOffset), rightOffset);
+	}
+	/**
+	 * escNullのビュー.(注)内容はescNull(String s)と同じ
+	 * @param s 入力文字列(nullの場合は空)
+	 * @return 右スペース削除後のビュー
+	 */
+	public static StringSlice escNullView(String s) {
+		return rTrimView(s);
+	}
+	/**
+	 * 指定文字数でカットしたビュー.(注)内容はcutString(String s, int length)と同じ
+	 * @param s 入力文字列(nullの場合はException)
+	 * @param length 文字数
+	 * @return カット後のビュー
+	 */
+	public static StringSlice cutStringView(String s, int length) {
+		assertNotNull(s);
+		return new StringSlice(s, 0, Math.min(s.length(), length));
+	}
+	/**
+	 * 右Padding(文字数)のビュー.(注)内容はrPad(String s, int charLength, char c)と同じ
+	 * Padding文字は実体化せず、末尾以降の位置でcを返す。
+	 * @param s 入力文字列(nullの場合は空文字)
+	 * @param charLength 最終文字数
+	 * @param c Padding文字
+	 * @return Padding後のビュー
+	 */
+	public static PaddedView rPadView(CharSequence s, int charLength, char c) {
+		if (s == null)
+			s = "";
+		return new PaddedView(s, 0, Math.max(0, charLength - s.length()), c);
+	}
+	/**
+	 * 左Padding(文字数)のビュー.(注)内容はlPad(String s, int charLength, char c)と同じ
+	 * Padding文字は実体化せず、先頭側の位置でcを返す。
+	 * @param s 入力文字列(nullの場合はException)
+	 * @param charLength 最終文字数
+	 * @param c Padding文字
+	 * @return Padding後のビュー
+	 */
+	public static PaddedView lPadView(CharSequence s, int charLength, char c) {
+		assertNotNull(s);
+		return new PaddedView(s, Math.max(0, charLength - s.length()), 0, c);
+	}
+	/**
+	 * 右Trimで残す終了オフセット取得.
+	 * @param s 入力文字列
+	 * @return 終了オフセット(この値を含まない)
+	 */
+	private static int rTrimOffset(String s) {
+		return CharScanKernel.rTrimOffset(s, 0, s.length());
+	}
+	/**
+	 * 左Trimで残す開始オフセット取得.
+	 * @param s 入力文字列
+	 * @param end 検索の終了オフセット(この値を含まない)
+	 * @return 開始オフセット(この値を含む)
+	 */
+	private static int lTrimOffset(String s, int end) {
+		return CharScanKernel.lTrimOffset(s, 0, end);
+	}
 }
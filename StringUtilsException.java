@@ -0,0 +1,134 @@
+/**
+ * StringUtilsのエラー(入力チェック・変換エラー)の例外.
+ * RuntimeExceptionのサブクラスなので、従来どおりRuntimeExceptionでcatchできる。
+ * <p>
+ * -Dstringutils.stacklessErrors=true で起動すると、スタックトレースを持たない事前生成のインスタンスを投げ、
+ * 例外生成時のスタックトレース取得とメッセージの文字列連結を行わない(メッセージに入力値を含まない)。
+ * 指定しない場合は従来と同じメッセージでスタックトレース付きの例外を生成する。
+ * エラーが多いデータで例外自体が不要な場合は、StringUtilsのtry*メソッド(nullで失敗を返す)を使う。
+ */
+public final class StringUtilsException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	/** true:事前生成のスタックトレースなしの例外を投げる */
+	public static final boolean STACKLESS = Boolean.getBoolean("stringutils.stacklessErrors");
+	/** nullエラー(事前生成) */
+	private static final StringUtilsException NOT_NULL = new StringUtilsException("assertNotNull()エラー", false);
+	/** ZEROパディングエラー(事前生成) */
+	private static final StringUtilsException ZERO_PAD = new StringUtilsException("指定したcharLengthではZEROパディングできません。", false);
+	/** 文字境界エラー(事前生成) */
+	private static final StringUtilsException NOT_BOUNDARY = new StringUtilsException("指定INDEXは文字境界ではありません。", false);
+	/** レコード分割の引数エラー(事前生成) */
+	private static final StringUtilsException DECODE = new StringUtilsException("decode()エラー", false);
+	/** 項目数エラー(事前生成) */
+	private static final StringUtilsException FIELD_COUNT = new StringUtilsException("項目数が一致しません。", false);
+
+	/**
+	 * コンストラクタ.
+	 * @param message メッセージ
+	 * @param stackTrace false:スタックトレースなし(事前生成用、suppressedも記録しない)
+	 */
+	private StringUtilsException(String message, boolean stackTrace) {
+		super(message, null, stackTrace, stackTrace);
+	}
+	/**
+	 * nullエラー.
+	 * @param message メッセージ
+	 * @return 例外
+	 */
+	static StringUtilsException notNull(String message) {
+		if (STACKLESS) {
+			return NOT_NULL;
+		}
+		return new StringUtilsException("assertNotNull()エラー:" + message, true);
+	}
+	/**
+	 * ZEROパディングエラー.
+	 * @param i 数値
+	 * @param charLength 最終文字数
+	 * @return 例外
+	 */
+	static StringUtilsException zeroPad(int i, int charLength) {
+		if (STACKLESS) {
+			return ZERO_PAD;
+		}
+		return new StringUtilsException(
+			"指定したcharLengthではZEROパディングできません。数値="
+				+ i
+				+ ",charLength="
+				+ charLength,
+			true);
+	}
+	/**
+	 * 文字境界エラー.
+	 * @param beginByteIndex 開始インデックス
+	 * @param endByteIndex 終了インデックス
+	 * @param s 入力文字列
+	 * @return 例外
+	 */
+	static StringUtilsException notBoundary(int beginByteIndex, int endByteIndex, String s) {
+		if (STACKLESS) {
+			return NOT_BOUNDARY;
+		}
+		return new StringUtilsException(
+			"指定INDEXは文字境界ではありません。"
+				+ "beginByteIndex="
+				+ beginByteIndex
+				+ ",endByteIndex="
+				+ endByteIndex
+				+ ",s=["
+				+ s
+				+ "]",
+			true);
+	}
+	/**
+	 * 文字境界エラー(入力文字列をメッセージに含まない、ByteOffsetIndex・RecordLayout用).
+	 * @param beginByteIndex 開始インデックス
+	 * @param endByteIndex 終了インデックス
+	 * @param length 入力文字列の文字数
+	 * @return 例外
+	 */
+	static StringUtilsException notBoundary(int beginByteIndex, int endByteIndex, int length) {
+		if (STACKLESS) {
+			return NOT_BOUNDARY;
+		}
+		return new StringUtilsException(
+			"指定INDEXは文字境界ではありません。"
+				+ "beginByteIndex="
+				+ beginByteIndex
+				+ ",endByteIndex="
+				+ endByteIndex
+				+ ",length="
+				+ length,
+			true);
+	}
+	/**
+	 * レコード分割の引数エラー(レコードをメッセージに含まない).
+	 * @param record レコード文字列
+	 * @param result 結果格納領域
+	 * @return 例外
+	 */
+	static StringUtilsException decode(String record, Object result) {
+		if (STACKLESS) {
+			return DECODE;
+		}
+		return new StringUtilsException(
+			"decode()エラー:record="
+				+ (record == null ? "null" : "[...]")
+				+ ",result="
+				+ result,
+			true);
+	}
+	/**
+	 * 項目数エラー(値の数、結果格納領域がチェック内容と一致しない、FieldValidator用).
+	 * @param fieldCount 項目数
+	 * @param size 値の数
+	 * @return 例外
+	 */
+	static StringUtilsException fieldCount(int fieldCount, int size) {
+		if (STACKLESS) {
+			return FIELD_COUNT;
+		}
+		return new StringUtilsException("項目数が一致しません。項目数=" + fieldCount + ",値の数=" + size, true);
+	}
+}
@@ -0,0 +1,342 @@
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.ObjectName;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * StringUtilsの計測.
+ * システムプロパティ stringutils.metrics=true で起動した場合のみ、主要メソッドの
+ * 呼び出し回数・入力文字数・失敗回数・処理時間を操作毎に集計する(LongAdderで競合を避ける)。
+ * 無効時はENABLEDがstatic finalのfalseなので、JITにより計測コードは除去される。
+ * <ul>
+ * <li>遅い呼び出し(stringutils.metrics.slowNanos、デフォルト1ms以上)はJFRのstringutils.SlowCallイベント</li>
+ * <li>変換エラー・文字境界エラーはJFRのstringutils.Failureイベント(入力文字列・例外のメッセージは記録しない)</li>
+ * <li>集計値はsnapshot()又はJMX(StringUtils:type=Metrics)で参照</li>
+ * </ul>
+ */
+public final class StringUtilsMetrics implements StringUtilsMetricsMXBean {
+	/** 計測有無(システムプロパティ stringutils.metrics) */
+	public static final boolean ENABLED = Boolean.getBoolean("stringutils.metrics");
+	/** 遅い呼び出しとする処理時間(ナノ秒、システムプロパティ stringutils.metrics.slowNanos) */
+	private static final long SLOW_NANOS = Long.getLong("stringutils.metrics.slowNanos", 1000000L);
+	/** JMXのObjectName */
+	public static final String OBJECT_NAME = "StringUtils:type=Metrics";
+
+	/** 操作:substringByte */
+	public static final int SUBSTRING_BYTE = 0;
+	/** 操作:cutStringByte */
+	public static final int CUT_STRING_BYTE = 1;
+	/** 操作:byteLength */
+	public static final int BYTE_LENGTH = 2;
+	/** 操作:parseYYYYMMDDHHMMSS */
+	public static final int PARSE_YYYYMMDDHHMMSS = 3;
+	/** 操作:parseYYYYMMDD */
+	public static final int PARSE_YYYYMMDD = 4;
+	/** 操作:parseHHMMSS */
+	public static final int PARSE_HHMMSS = 5;
+	/** 操作:parseHHMM */
+	public static final int PARSE_HHMM = 6;
+	/** 操作:addDate */
+	public static final int ADD_DATE = 7;
+	/** 操作名 */
+	private static final String[] NAMES = {
+		"substringByte",
+		"cutStringByte",
+		"byteLength",
+		"parseYYYYMMDDHHMMSS",
+		"parseYYYYMMDD",
+		"parseHHMMSS",
+		"parseHHMM",
+		"addDate" };
+
+	/** 呼び出し回数 */
+	private static final LongAdder[] CALLS = newAdders();
+	/** 入力文字数 */
+	private static final LongAdder[] CHARS = newAdders();
+	/** 失敗回数 */
+	private static final LongAdder[] FAILURES = newAdders();
+	/** 処理時間(ナノ秒) */
+	private static final LongAdder[] NANOS = newAdders();
+
+	static {
+		if (ENABLED) {
+			try {
+				ManagementFactory.getPlatformMBeanServer().registerMBean(
+					new StringUtilsMetrics(),
+					new ObjectName(OBJECT_NAME));
+			} catch (Exception e) {
+				//登録済(複数のクラスローダ)等はJMXなしで計測を続ける
+			}
+		}
+	}
+
+	/**
+	 * コンストラクタ(JMX登録用).
+	 */
+	private StringUtilsMetrics() {
+	}
+
+	//--------------------------------------------------------------------------
+	// 記録(StringUtilsから呼び出す)
+	//--------------------------------------------------------------------------
+	/**
+	 * 計測開始.
+	 * @return 開始時刻(ナノ秒)
+	 */
+	static long start() {
+		return System.nanoTime();
+	}
+	/**
+	 * 呼び出しの記録.
+	 * @param op 操作(SUBSTRING_BYTE等)
+	 * @param in 入力文字列(null可)
+	 * @param start start()の戻り値
+	 * @param failed true:失敗(変換エラー等)
+	 */
+	static void record(int op, String in, long start, boolean failed) {
+		record(op, in, start, failed, null);
+	}
+	/**
+	 * 例外の記録.
+	 * 例外のメッセージは入力文字列を含む場合があるため、クラス名のみ記録する。
+	 * @param op 操作(SUBSTRING_BYTE等)
+	 * @param in 入力文字列(null可)
+	 * @param start start()の戻り値
+	 * @param ex 発生した例外
+	 */
+	static void record(int op, String in, long start, RuntimeException ex) {
+		record(op, in, start, true, ex.getClass().getName());
+	}
+	/**
+	 * 集計及びJFRイベントの記録.
+	 */
+	private static void record(int op, String in, long start, boolean failed, String exception) {
+		long nanos = System.nanoTime() - start;
+		int length = in == null ? 0 : in.length();
+		CALLS[op].increment();
+		CHARS[op].add(length);
+		NANOS[op].add(nanos);
+		if (failed) {
+			FAILURES[op].increment();
+			FailureEvent e = new FailureEvent();
+			if (e.shouldCommit()) {
+				e.operation = NAMES[op];
+				e.length = length;
+				e.exception = exception;
+				e.commit();
+			}
+		}
+		if (nanos >= SLOW_NANOS) {
+			SlowCallEvent e = new SlowCallEvent();
+			if (e.shouldCommit()) {
+				e.operation = NAMES[op];
+				e.length = length;
+				e.nanos = nanos;
+				e.commit();
+			}
+		}
+	}
+
+	//--------------------------------------------------------------------------
+	// 参照
+	//--------------------------------------------------------------------------
+	/**
+	 * 集計値のスナップショット取得.
+	 * @return スナップショット(無効時は全て0)
+	 */
+	public static Snapshot snapshot() {
+		return new Snapshot();
+	}
+	/**
+	 * 集計値のクリア.
+	 */
+	public static void clear() {
+		for (int i = 0; i < NAMES.length; i++) {
+			CALLS[i].reset();
+			CHARS[i].reset();
+			FAILURES[i].reset();
+			NANOS[i].reset();
+		}
+	}
+	@Override
+	public boolean isEnabled() {
+		return ENABLED;
+	}
+	@Override
+	public Map<String, Long> getCalls() {
+		return toMap(CALLS);
+	}
+	@Override
+	public Map<String, Long> getChars() {
+		return toMap(CHARS);
+	}
+	@Override
+	public Map<String, Long> getFailures() {
+		return toMap(FAILURES);
+	}
+	@Override
+	public Map<String, Long> getNanos() {
+		return toMap(NANOS);
+	}
+	@Override
+	public void reset() {
+		clear();
+	}
+	/**
+	 * 操作名->集計値のMap変換.
+	 */
+	private static Map<String, Long> toMap(LongAdder[] adders) {
+		Map<String, Long> rtn = new LinkedHashMap<String, Long>();
+		for (int i = 0; i < NAMES.length; i++) {
+			rtn.put(NAMES[i], adders[i].sum());
+		}
+		return rtn;
+	}
+	/**
+	 * 操作数分のLongAdder生成.
+	 */
+	private static LongAdder[] newAdders() {
+		LongAdder[] rtn = new LongAdder[NAMES.length];
+		for (int i = 0; i < rtn.length; i++) {
+			rtn[i] = new LongAdder();
+		}
+		return rtn;
+	}
+
+	/**
+	 * 集計値のスナップショット.
+	 * (注)操作毎の値は個別に読み取るため、計測中は操作間で厳密には一致しない
+	 */
+	public static final class Snapshot {
+		/** 呼び出し回数 */
+		private final long[] calls = new long[NAMES.length];
+		/** 入力文字数 */
+		private final long[] chars = new long[NAMES.length];
+		/** 失敗回数 */
+		private final long[] failures = new long[NAMES.length];
+		/** 処理時間(ナノ秒) */
+		private final long[] nanos = new long[NAMES.length];
+
+		/**
+		 * コンストラクタ(StringUtilsMetrics.snapshot()から生成する).
+		 */
+		private Snapshot() {
+			for (int i = 0; i < NAMES.length; i++) {
+				calls[i] = CALLS[i].sum();
+				chars[i] = CHARS[i].sum();
+				failures[i] = FAILURES[i].sum();
+				nanos[i] = NANOS[i].sum();
+			}
+		}
+		/**
+		 * 操作数取得.
+		 * @return 操作数
+		 */
+		public int size() {
+			return NAMES.length;
+		}
+		/**
+		 * 操作名取得.
+		 * @param op 操作(SUBSTRING_BYTE等)
+		 * @return 操作名
+		 */
+		public String getName(int op) {
+			return NAMES[op];
+		}
+		/**
+		 * 呼び出し回数取得.
+		 * @param op 操作(SUBSTRING_BYTE等)
+		 * @return 呼び出し回数
+		 */
+		public long getCalls(int op) {
+			return calls[op];
+		}
+		/**
+		 * 入力文字数取得.
+		 * @param op 操作(SUBSTRING_BYTE等)
+		 * @return 入力文字数の合計
+		 */
+		public long getChars(int op) {
+			return chars[op];
+		}
+		/**
+		 * 失敗回数取得.
+		 * @param op 操作(SUBSTRING_BYTE等)
+		 * @return 失敗回数
+		 */
+		public long getFailures(int op) {
+			return failures[op];
+		}
+		/**
+		 * 処理時間取得.
+		 * @param op 操作(SUBSTRING_BYTE等)
+		 * @return 処理時間の合計(ナノ秒)
+		 */
+		public long getNanos(int op) {
+			return nanos[op];
+		}
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder();
+			for (int i = 0; i < NAMES.length; i++) {
+				if (calls[i] == 0) {
+					continue;
+				}
+				sb.append(NAMES[i])
+					.append(": calls=").append(calls[i])
+					.append(", chars=").append(chars[i])
+					.append(", failures=").append(failures[i])
+					.append(", nanos=").append(nanos[i])
+					.append('\n');
+			}
+			return sb.toString();
+		}
+	}
+
+	/**
+	 * JFRイベント:遅い呼び出し.
+	 */
+	@Name("stringutils.SlowCall")
+	@Label("StringUtils Slow Call")
+	@Category("StringUtils")
+	@Description("stringutils.metrics.slowNanos以上かかった呼び出し")
+	static final class SlowCallEvent extends Event {
+		/** 操作名 */
+		@Label("Operation")
+		String operation;
+		/** 入力文字数 */
+		@Label("Length")
+		int length;
+		/** 処理時間 */
+		@Label("Duration")
+		@Timespan(Timespan.NANOSECONDS)
+		long nanos;
+	}
+	/**
+	 * JFRイベント:変換エラー・文字境界エラー.
+	 */
+	@Name("stringutils.Failure")
+	@Label("StringUtils Failure")
+	@Category("StringUtils")
+	@Description("変換エラー(nullを返した)又は例外が発生した呼び出し")
+	static final class FailureEvent extends Event {
+		/** 操作名 */
+		@Label("Operation")
+		String operation;
+		/** 入力文字数 */
+		@Label("Length")
+		int length;
+		/** 例外のクラス名(nullを返した場合はnull) */
+		@Label("Exception")
+		String exception;
+	}
+}
@@ -0,0 +1,37 @@
+import java.util.Map;
+
+/**
+ * StringUtilsの計測のJMXインタフェース(StringUtils:type=Metrics).
+ * 各Mapは操作名->集計値。
+ */
+public interface StringUtilsMetricsMXBean {
+	/**
+	 * 計測有無取得.
+	 * @return true:計測中(システムプロパティ stringutils.metrics=true)
+	 */
+	boolean isEnabled();
+	/**
+	 * 呼び出し回数取得.
+	 * @return 操作名->呼び出し回数
+	 */
+	Map<String, Long> getCalls();
+	/**
+	 * 入力文字数取得.
+	 * @return 操作名->入力文字数の合計
+	 */
+	Map<String, Long> getChars();
+	/**
+	 * 失敗回数取得.
+	 * @return 操作名->失敗回数
+	 */
+	Map<String, Long> getFailures();
+	/**
+	 * 処理時間取得.
+	 * @return 操作名->処理時間の合計(ナノ秒)
+	 */
+	Map<String, Long> getNanos();
+	/**
+	 * 集計値のクリア.
+	 */
+	void reset();
+}
@@ -0,0 +1,24 @@
+package stringutils.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 全ベンチマークをGCプロファイラ付きで実行する.
+ * 引数に正規表現を指定した場合は一致するベンチマークのみ実行する。
+ */
+public final class BenchMain {
+	/** コンストラクタ(mainのみのクラスなのでインスタンス化なし) */
+	private BenchMain() {
+	}
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+			.include(args.length > 0 ? args[0] : "stringutils\\.bench\\..*")
+			.addProfiler(GCProfiler.class)
+			.build();
+		new Runner(opt).run();
+	}
+}
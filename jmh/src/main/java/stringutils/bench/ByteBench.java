@@ -0,0 +1,71 @@
+package stringutils.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * byteLength/rPadByte/lPadByte/substringByte/cutStringByteのベンチマーク.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ByteBench {
+	@Param({"ASCII", "FULL_WIDTH", "HALF_KANA", "MIXED"})
+	Data.Kind kind;
+	@Param({"8", "256", "4096", "65536"})
+	int length;
+	/** 入力文字列 */
+	String s;
+	/** Padding用の入力文字列(lengthの半分) */
+	String half;
+	/** 入力文字列のバイト長 */
+	int byteLen;
+	/** substringByteの開始バイト位置(文字境界) */
+	int beginByte;
+	/** substringByteの終了バイト位置(文字境界) */
+	int endByte;
+
+	@Setup
+	public void setup() throws Throwable {
+		s = Data.text(kind, length);
+		half = Data.text(kind, Math.max(1, length / 2));
+		byteLen = (int) Ops.BYTE_LENGTH.invokeExact(s);
+		//文字数の1/4～3/4の範囲を文字境界のバイト位置で指定
+		beginByte = (int) Ops.BYTE_LENGTH.invokeExact(s.substring(0, length / 4));
+		endByte = (int) Ops.BYTE_LENGTH.invokeExact(s.substring(0, length * 3 / 4));
+	}
+	@Benchmark
+	public int byteLength() throws Throwable {
+		return (int) Ops.BYTE_LENGTH.invokeExact(s);
+	}
+	@Benchmark
+	public String rPadByte() throws Throwable {
+		return (String) Ops.R_PAD_BYTE.invokeExact(half, byteLen, ' ');
+	}
+	@Benchmark
+	public String lPadByte() throws Throwable {
+		return (String) Ops.L_PAD_BYTE.invokeExact(half, byteLen, ' ');
+	}
+	@Benchmark
+	public String substringByte() throws Throwable {
+		return (String) Ops.SUBSTRING_BYTE.invokeExact(s, beginByte, endByte);
+	}
+	@Benchmark
+	public String cutStringByte() throws Throwable {
+		return (String) Ops.CUT_STRING_BYTE.invokeExact(s, byteLen / 2);
+	}
+}
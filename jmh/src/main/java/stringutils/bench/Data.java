@@ -0,0 +1,131 @@
+package stringutils.bench;
+
+import java.util.Random;
+
+/**
+ * ベンチマーク用データ生成.
+ * 同じseedからは常に同じ文字列を生成する。
+ * (注)Kindは@Paramの型としてJMHの生成コード(別パッケージ)から参照するためpublic
+ */
+public final class Data {
+	/** コンストラクタ(全てstaticメソッドのクラスなのでインスタンス化なし) */
+	private Data() {
+	}
+	/** 乱数のseed */
+	static final long SEED = 20190613L;
+
+	/** 文字種 */
+	public enum Kind {
+		/** 半角英数字 */
+		ASCII,
+		/** 全角(ひらがな・カタカナ・漢字) */
+		FULL_WIDTH,
+		/** 半角カタカナ */
+		HALF_KANA,
+		/** 上記の混在 */
+		MIXED
+	}
+
+	/** 全角文字の候補 */
+	private static final String FULL_WIDTH_CHARS =
+		"あいうえおかきくけこさしすせそアイウエオカキクケコ日本語漢字東京大阪営業部請求書金額合計";
+	/** 半角カタカナの候補 */
+	private static final String HALF_KANA_CHARS = "ｱｲｳｴｵｶｷｸｹｺｻｼｽｾｿﾀﾁﾂﾃﾄﾅﾆﾇﾈﾉﾊﾋﾌﾍﾎﾏﾐﾑﾒﾓﾔﾕﾖﾗﾘﾙﾚﾛﾜｦﾝﾞﾟ";
+	/** 半角英数字の候補 */
+	private static final String ASCII_CHARS =
+		"ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_.";
+
+	/**
+	 * 指定文字種・文字数の文字列生成.
+	 * @param kind 文字種
+	 * @param length 文字数
+	 * @return 文字列
+	 */
+	static String text(Kind kind, int length) {
+		Random r = new Random(SEED + kind.ordinal() * 31L + length);
+		StringBuilder buf = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			buf.append(pick(kind, r));
+		}
+		return buf.toString();
+	}
+	/**
+	 * 後ろに空白(半角スペース／全角スペース)が付いた文字列生成.
+	 * 固定長レコードのフィールドを想定し、本文はlengthの半分とする。
+	 * @param kind 文字種
+	 * @param length 文字数
+	 * @return 文字列
+	 */
+	static String padded(Kind kind, int length) {
+		int body = Math.max(1, length / 2);
+		StringBuilder buf = new StringBuilder(text(kind, body));
+		for (int i = body; i < length; i++) {
+			buf.append((i & 7) == 0 ? '　' : ' ');
+		}
+		return buf.toString();
+	}
+	/**
+	 * yyyyMMdd形式の日付文字列の配列生成(全て有効な日付).
+	 * @param n 件数
+	 * @return 日付文字列の配列
+	 */
+	static String[] dates(int n) {
+		Random r = new Random(SEED);
+		String[] rtn = new String[n];
+		for (int i = 0; i < n; i++) {
+			int y = 1990 + r.nextInt(50);
+			int m = 1 + r.nextInt(12);
+			int d = 1 + r.nextInt(28);
+			rtn[i] = String.format("%04d%02d%02d", y, m, d);
+		}
+		return rtn;
+	}
+	/**
+	 * HHmmss形式の時刻文字列の配列生成(全て有効な時刻).
+	 * @param n 件数
+	 * @return 時刻文字列の配列
+	 */
+	static String[] times(int n) {
+		Random r = new Random(SEED);
+		String[] rtn = new String[n];
+		for (int i = 0; i < n; i++) {
+			rtn[i] = String.format("%02d%02d%02d", r.nextInt(24), r.nextInt(60), r.nextInt(60));
+		}
+		return rtn;
+	}
+	/**
+	 * 数字文字列の配列生成.
+	 * @param n 件数
+	 * @param digits 桁数
+	 * @return 数字文字列の配列
+	 */
+	static String[] numbers(int n, int digits) {
+		Random r = new Random(SEED + digits);
+		String[] rtn = new String[n];
+		char[] buf = new char[digits];
+		for (int i = 0; i < n; i++) {
+			buf[0] = (char) ('1' + r.nextInt(9));
+			for (int j = 1; j < digits; j++) {
+				buf[j] = (char) ('0' + r.nextInt(10));
+			}
+			rtn[i] = new String(buf);
+		}
+		return rtn;
+	}
+	/**
+	 * 文字種に応じた１文字取得.
+	 */
+	private static char pick(Kind kind, Random r) {
+		switch (kind) {
+		case ASCII:
+			return ASCII_CHARS.charAt(r.nextInt(ASCII_CHARS.length()));
+		case FULL_WIDTH:
+			return FULL_WIDTH_CHARS.charAt(r.nextInt(FULL_WIDTH_CHARS.length()));
+		case HALF_KANA:
+			return HALF_KANA_CHARS.charAt(r.nextInt(HALF_KANA_CHARS.length()));
+		default:
+			Kind[] kinds = {Kind.ASCII, Kind.FULL_WIDTH, Kind.HALF_KANA};
+			return pick(kinds[r.nextInt(kinds.length)], r);
+		}
+	}
+}
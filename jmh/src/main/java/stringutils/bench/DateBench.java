@@ -0,0 +1,98 @@
+package stringutils.bench;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 日付の解析・書式のベンチマーク.
+ * *_mtは全コアのスレッドで同時に実行し、共有状態での競合を測定する。
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DateBench {
+	/** データ件数(2のべき乗) */
+	private static final int N = 1024;
+	/** yyyyMMdd形式の日付 */
+	String[] dates;
+	/** yyyyMMddHHmmss形式の日時 */
+	String[] dateTimes;
+	/** HHmmss形式の時刻 */
+	String[] times;
+	/** HHmm形式の時刻 */
+	String[] hhmms;
+	/** 参照位置(スレッド毎) */
+	int i;
+
+	@Setup
+	public void setup() {
+		dates = Data.dates(N);
+		times = Data.times(N);
+		dateTimes = new String[N];
+		hhmms = new String[N];
+		for (int j = 0; j < N; j++) {
+			dateTimes[j] = dates[j] + times[j];
+			hhmms[j] = times[j].substring(0, 4);
+		}
+	}
+	/**
+	 * 次の参照位置取得.
+	 */
+	private int next() {
+		return i = (i + 1) & (N - 1);
+	}
+	@Benchmark
+	public Date parseYYYYMMDD() throws Throwable {
+		return (Date) Ops.PARSE_YYYYMMDD.invokeExact(dates[next()]);
+	}
+	@Benchmark
+	public Date parseYYYYMMDDHHMMSS() throws Throwable {
+		return (Date) Ops.PARSE_YYYYMMDDHHMMSS.invokeExact(dateTimes[next()]);
+	}
+	@Benchmark
+	public Date parseHHMMSS() throws Throwable {
+		return (Date) Ops.PARSE_HHMMSS.invokeExact(times[next()]);
+	}
+	@Benchmark
+	public Date parseHHMM() throws Throwable {
+		return (Date) Ops.PARSE_HHMM.invokeExact(hhmms[next()]);
+	}
+	@Benchmark
+	public boolean isYYYYMMDD() throws Throwable {
+		return (boolean) Ops.IS_YYYYMMDD.invokeExact(dates[next()]);
+	}
+	@Benchmark
+	public String addDate() throws Throwable {
+		return (String) Ops.ADD_DATE.invokeExact(dates[next()], 45);
+	}
+	@Benchmark
+	@Threads(Threads.MAX)
+	public Date parseYYYYMMDD_mt() throws Throwable {
+		return (Date) Ops.PARSE_YYYYMMDD.invokeExact(dates[next()]);
+	}
+	@Benchmark
+	@Threads(Threads.MAX)
+	public Date parseYYYYMMDDHHMMSS_mt() throws Throwable {
+		return (Date) Ops.PARSE_YYYYMMDDHHMMSS.invokeExact(dateTimes[next()]);
+	}
+	@Benchmark
+	@Threads(Threads.MAX)
+	public String addDate_mt() throws Throwable {
+		return (String) Ops.ADD_DATE.invokeExact(dates[next()], 45);
+	}
+}
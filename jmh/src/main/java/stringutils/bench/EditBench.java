@@ -0,0 +1,69 @@
+package stringutils.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * addComma/delLineFromStr/edtDateのベンチマーク.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EditBench {
+	/** データ件数(2のべき乗) */
+	private static final int N = 1024;
+	/** addCommaの桁数 */
+	@Param({"8", "18", "256"})
+	int digits;
+	/** 数字文字列 */
+	String[] numbers;
+	/** "-"区切りの文字列 */
+	String[] hyphenated;
+	/** yyyyMMdd形式の日付 */
+	String[] dates;
+	/** 参照位置 */
+	int i;
+
+	@Setup
+	public void setup() {
+		numbers = Data.numbers(N, digits);
+		dates = Data.dates(N);
+		hyphenated = new String[N];
+		for (int j = 0; j < N; j++) {
+			//電話番号・郵便番号のように４桁毎に"-"
+			hyphenated[j] = numbers[j].replaceAll("(\\d{4})(?=\\d)", "$1-");
+		}
+	}
+	/**
+	 * 次の参照位置取得.
+	 */
+	private int next() {
+		return i = (i + 1) & (N - 1);
+	}
+	@Benchmark
+	public String addComma() throws Throwable {
+		return (String) Ops.ADD_COMMA.invokeExact(numbers[next()]);
+	}
+	@Benchmark
+	public String delLineFromStr() throws Throwable {
+		return (String) Ops.DEL_LINE_FROM_STR.invokeExact(hyphenated[next()]);
+	}
+	@Benchmark
+	public String edtDate() throws Throwable {
+		return (String) Ops.EDT_DATE.invokeExact(dates[next()]);
+	}
+}
@@ -0,0 +1,67 @@
+package stringutils.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Date;
+
+/**
+ * StringUtilsの各メソッドのMethodHandle.
+ * StringUtilsはデフォルトパッケージのためimportできず、JMHはデフォルトパッケージの
+ * ベンチマーククラスを許可しないので、static finalのMethodHandle経由で呼び出す。
+ * (static finalのためJITで定数畳み込みされ、直接呼び出しと同等になる)
+ */
+final class Ops {
+	/** コンストラクタ(全てstaticフィールドのクラスなのでインスタンス化なし) */
+	private Ops() {
+	}
+	/** 対象クラス */
+	private static final Class<?> TARGET = target();
+
+	static final MethodHandle TRIM = find("trim", String.class, String.class);
+	static final MethodHandle R_TRIM = find("rTrim", String.class, String.class);
+	static final MethodHandle ESC_NULL = find("escNull", String.class, String.class);
+	static final MethodHandle R_PAD = find("rPad", String.class, String.class, int.class, char.class);
+	static final MethodHandle L_PAD = find("lPad", String.class, String.class, int.class, char.class);
+	static final MethodHandle ZERO_PAD = find("zeroPad", String.class, int.class, int.class);
+	static final MethodHandle BYTE_LENGTH = find("byteLength", int.class, String.class);
+	static final MethodHandle R_PAD_BYTE = find("rPadByte", String.class, String.class, int.class, char.class);
+	static final MethodHandle L_PAD_BYTE = find("lPadByte", String.class, String.class, int.class, char.class);
+	static final MethodHandle SUBSTRING_BYTE = find("substringByte", String.class, String.class, int.class, int.class);
+	static final MethodHandle CUT_STRING_BYTE = find("cutStringByte", String.class, String.class, int.class);
+	static final MethodHandle PARSE_YYYYMMDD = find("parseYYYYMMDD", Date.class, String.class);
+	static final MethodHandle PARSE_YYYYMMDDHHMMSS = find("parseYYYYMMDDHHMMSS", Date.class, String.class);
+	static final MethodHandle PARSE_HHMMSS = find("parseHHMMSS", Date.class, String.class);
+	static final MethodHandle PARSE_HHMM = find("parseHHMM", Date.class, String.class);
+	static final MethodHandle IS_YYYYMMDD = find("isYYYYMMDD", boolean.class, String.class);
+	static final MethodHandle ADD_DATE = find("addDate", String.class, String.class, int.class);
+	static final MethodHandle ADD_COMMA = find("addComma", String.class, String.class);
+	static final MethodHandle DEL_LINE_FROM_STR = find("delLineFromStr", String.class, String.class);
+	static final MethodHandle EDT_DATE = find("edtDate", String.class, String.class);
+
+	/**
+	 * 対象クラス取得.
+	 * @return StringUtilsクラス
+	 */
+	private static Class<?> target() {
+		try {
+			return Class.forName("StringUtils");
+		} catch (ClassNotFoundException e) {
+			throw new IllegalStateException("StringUtilsがクラスパスにありません。", e);
+		}
+	}
+	/**
+	 * staticメソッドのMethodHandle取得.
+	 * @param name メソッド名
+	 * @param rtype 戻り値の型
+	 * @param ptypes 引数の型
+	 * @return MethodHandle
+	 */
+	private static MethodHandle find(String name, Class<?> rtype, Class<?>... ptypes) {
+		try {
+			return MethodHandles.publicLookup().findStatic(TARGET, name, MethodType.methodType(rtype, ptypes));
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("StringUtils." + name + "が見つかりません。", e);
+		}
+	}
+}
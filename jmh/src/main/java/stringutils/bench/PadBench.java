@@ -0,0 +1,48 @@
+package stringutils.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * rPad/lPadのベンチマーク.
+ * 入力文字列を最終文字数の半分とし、残り半分をPaddingする。
+ * (zeroPadは文字の種類に依存しないためZeroPadBench)
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PadBench {
+	@Param({"ASCII", "FULL_WIDTH", "HALF_KANA", "MIXED"})
+	Data.Kind kind;
+	@Param({"8", "256", "4096", "65536"})
+	int length;
+	/** 入力文字列 */
+	String s;
+
+	@Setup
+	public void setup() {
+		s = Data.text(kind, Math.max(1, length / 2));
+	}
+	@Benchmark
+	public String rPad() throws Throwable {
+		return (String) Ops.R_PAD.invokeExact(s, length, ' ');
+	}
+	@Benchmark
+	public String lPad() throws Throwable {
+		return (String) Ops.L_PAD.invokeExact(s, length, ' ');
+	}
+}
@@ -0,0 +1,51 @@
+package stringutils.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * trim/rTrim/escNullのベンチマーク.
+ * 入力は後ろ半分が空白の固定長フィールドを想定。
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TrimBench {
+	@Param({"ASCII", "FULL_WIDTH", "HALF_KANA", "MIXED"})
+	Data.Kind kind;
+	@Param({"8", "256", "4096", "65536"})
+	int length;
+	/** 入力文字列 */
+	String s;
+
+	@Setup
+	public void setup() {
+		s = Data.padded(kind, length);
+	}
+	@Benchmark
+	public String trim() throws Throwable {
+		return (String) Ops.TRIM.invokeExact(s);
+	}
+	@Benchmark
+	public String rTrim() throws Throwable {
+		return (String) Ops.R_TRIM.invokeExact(s);
+	}
+	@Benchmark
+	public String escNull() throws Throwable {
+		return (String) Ops.ESC_NULL.invokeExact(s);
+	}
+}
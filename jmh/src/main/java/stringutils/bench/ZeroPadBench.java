@@ -0,0 +1,36 @@
+package stringutils.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * zeroPadのベンチマーク.
+ * 負の５桁の数値を最終文字数までPaddingする。
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ZeroPadBench {
+	@Param({"8", "256", "4096", "65536"})
+	int length;
+	/** 入力数値 */
+	int number = -12345;
+
+	@Benchmark
+	public String zeroPad() throws Throwable {
+		return (String) Ops.ZERO_PAD.invokeExact(number, length);
+	}
+}